@@ -0,0 +1,145 @@
+package Controller;
+
+import java.util.Arrays;
+
+import Model.BoardView;
+import Model.Direction;
+
+/**
+ * Controller.AStarPathfinder - Heads for the nearest food along a shortest
+ * path, found by A* search from the head.
+ * <p>
+ * Cells are expanded in order of (distance so far) + (an estimate of the
+ * distance left), where the estimate never overshoots (see
+ * Controller.FoodEstimate). Ties are broken in favour of cells further from the head, so on an
+ * open board the search runs almost straight to the food instead of
+ * spreading out in all directions like breadth-first search. The path
+ * found is always as short as the one BFS finds (though when there are
+ * several shortest paths, the two may start off differently).
+ */
+public class AStarPathfinder implements PathPlanner {
+	/** the name this pathfinder is registered under */
+	public static final String NAME = "astar";
+
+	/** the cells waiting to be expanded, by estimated path length */
+	private final CellHeap open = new CellHeap();
+
+	/** for each reached cell, the index of the cell we reached it from */
+	private int[] parents = new int[0];
+
+	/** for each reached cell, the length of the best path to it so far */
+	private int[] distances = new int[0];
+
+	/** the search in which each cell was reached (0 never matches) */
+	private int[] reachedStamps = new int[0];
+
+	/** the search in which each cell was expanded (0 never matches) */
+	private int[] expandedStamps = new int[0];
+
+	/** the current search */
+	private int epoch = 0;
+
+	/** the lower bound on the distance left to food */
+	private final FoodEstimate estimate = new FoodEstimate();
+
+	public String getName() {
+		return NAME;
+	}
+
+	public int findNextStep(BoardView board, int head, SearchStats stats) {
+		int found = this.search(board, head, stats);
+		if (found < 0) {
+			return -1;
+		}
+		int step = found;
+		while (this.parents[step] != head) {
+			step = this.parents[step];
+		}
+		return step;
+	}
+
+	public int findPath(BoardView board, int head, int[] path, SearchStats stats) {
+		int found = this.search(board, head, stats);
+		if (found < 0) {
+			return -1;
+		}
+		int length = this.distances[found];
+		int current = found;
+		for (int position = length - 1; position >= 0; position--) {
+			path[position] = current;
+			current = this.parents[current];
+		}
+		return length;
+	}
+
+	/**
+	 * Runs A* from head until the nearest food is expanded.
+	 * @return the index of the food found, or -1 if there is none
+	 */
+	private int search(BoardView board, int head, SearchStats stats) {
+		if (board.getNumFood() == 0) {
+			return -1;
+		}
+		this.startSearch(board);
+		int epoch = this.epoch;
+		int expanded = 0;
+		int found = -1;
+
+		this.reachedStamps[head] = epoch;
+		this.parents[head] = -1;
+		this.distances[head] = 0;
+		this.open.addOrLower(head, this.estimate.priority(head, 0));
+		while (!this.open.isEmpty()) {
+			int current = this.open.poll();
+			if (board.isFood(current)) {
+				found = current;
+				break;
+			}
+			this.expandedStamps[current] = epoch;
+			expanded++;
+
+			int next = this.distances[current] + 1;
+			int walls = board.getWallMask(current);
+			for (int direction = 0; direction < Direction.COUNT; direction++) {
+				if ((walls & Direction.bit(direction)) != 0) {
+					continue;
+				}
+				int neighbor = board.getNeighborIndex(current, direction);
+				if (this.expandedStamps[neighbor] == epoch || !board.isOpen(neighbor)) {
+					continue;
+				}
+				if (this.reachedStamps[neighbor] != epoch || next < this.distances[neighbor]) {
+					this.reachedStamps[neighbor] = epoch;
+					this.parents[neighbor] = current;
+					this.distances[neighbor] = next;
+					this.open.addOrLower(neighbor, this.estimate.priority(neighbor, next));
+				}
+			}
+		}
+
+		stats.recordCellsExpanded(expanded);
+		if (found >= 0) {
+			stats.recordPathLength(this.distances[found]);
+		}
+		return found;
+	}
+
+	/** Gets the arrays and the food targets ready for a new search. */
+	private void startSearch(BoardView board) {
+		int numCells = board.getNumCells();
+		if (this.reachedStamps.length < numCells) {
+			this.parents = new int[numCells];
+			this.distances = new int[numCells];
+			this.reachedStamps = new int[numCells];
+			this.expandedStamps = new int[numCells];
+			this.epoch = 0;
+		} else if (this.epoch == Integer.MAX_VALUE) {
+			Arrays.fill(this.reachedStamps, 0);
+			Arrays.fill(this.expandedStamps, 0);
+			this.epoch = 0;
+		}
+		this.epoch++;
+		this.open.clear(numCells);
+		this.estimate.reset(board);
+	}
+}
@@ -0,0 +1,159 @@
+package Controller;
+
+import java.util.concurrent.ForkJoinPool;
+
+import Model.BoardView;
+import Model.ComponentLabels;
+import Model.Direction;
+import Model.Preferences;
+
+/**
+ * Controller.AnytimePathfinder - Looks ahead as many moves as it can in
+ * the time it's given, and always has a move ready when time is up.
+ * <p>
+ * The first answer costs next to nothing, and is worked out on the board
+ * itself, from the distance field and region labels it keeps up to date:
+ * the neighbor of the head closest to food, unless that region of the
+ * board is smaller than the snake and another open neighbor's is bigger
+ * (then the one with the most room). Then Controller.LookaheadPathfinder
+ * looks 2 moves ahead, then 3, and so on; each search that finishes in
+ * time replaces the answer, and a search that's still going at the
+ * deadline gives up. A search that clearly won't finish isn't started:
+ * each one takes about three times as long as the one before, and the
+ * 2-move search is expected to take as long as it did last time, plus
+ * however long making the copies it plays out on would take, if they
+ * can't just be brought up to date (see
+ * LookaheadPathfinder.catchUpCopies). Each time the 2-move search is
+ * skipped, the time it's expected to take goes down by a quarter, so a
+ * search that was slow once (a fluke, or copying the board) is tried
+ * again before long; a board too big to copy in time is never searched
+ * (and never copied).
+ * <p>
+ * Searches that go past the deadline anyway are counted in the
+ * Controller.SearchStats.
+ */
+public class AnytimePathfinder implements Pathfinder {
+	/** the name this pathfinder is registered under */
+	public static final String NAME = "anytime";
+
+	/** the furthest ahead the search will look, however much time there is */
+	public static final int MAX_DEPTH = 30;
+
+	/** roughly how many times longer each search takes than the one before */
+	private static final int GROWTH = 3;
+
+	/** the searches */
+	private final LookaheadPathfinder lookahead;
+
+	/** how long each call to findNextStep may take, in nanoseconds */
+	private long budgetNanos;
+
+	/**
+	 * how long the 2-move search is expected to take, besides making
+	 * copies: what it took last time it was run (0 if never), less a
+	 * quarter for each call since then that skipped it
+	 */
+	private long firstSearchNanos = 0;
+
+	/** how far ahead the last answer looked (1 for the first answer) */
+	private int lastDepth = 0;
+
+	/** Constructor; searches on the common pool, with the default planning time. */
+	public AnytimePathfinder() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor; uses the default planning time.
+	 * @param inputPool  the threads to search on
+	 */
+	public AnytimePathfinder(ForkJoinPool inputPool) {
+		this.lookahead = new LookaheadPathfinder(1, inputPool);
+		this.setTimeBudget(Preferences.PLANNING_TIME);
+	}
+
+	public String getName() {
+		return NAME;
+	}
+
+	public void setTimeBudget(int milliseconds) {
+		long nanos = Math.max(1, milliseconds) * 1000000L;
+		if (nanos > this.budgetNanos) {
+			this.firstSearchNanos = 0; // (it might fit now)
+		}
+		this.budgetNanos = nanos;
+	}
+
+	/** @return how long each search may take, in nanoseconds */
+	public long getBudgetNanos() {
+		return this.budgetNanos;
+	}
+
+	/** @return how many moves ahead the last answer looked (1 if it didn't search) */
+	public int getLastDepth() {
+		return this.lastDepth;
+	}
+
+	/** Builds the board's distance field and region labels, for the first answer. */
+	public void prepare(BoardView board) {
+		board.getFoodDistances();
+		board.getComponentLabels();
+	}
+
+	public int findNextStep(BoardView board, int head, SearchStats stats) {
+		long deadline = System.nanoTime() + this.budgetNanos;
+		int best = firstAnswer(board, head);
+		this.lastDepth = 1;
+
+		long copyNanos = this.lookahead.catchUpCopies(board);
+		long lastSearchNanos = (this.firstSearchNanos + copyNanos) / GROWTH;
+		for (int depth = 2; depth <= MAX_DEPTH && best >= 0; depth++) {
+			long start = System.nanoTime();
+			if (start + GROWTH * lastSearchNanos - deadline > 0) {
+				if (depth == 2) {
+					this.firstSearchNanos -= this.firstSearchNanos / 4;
+				}
+				break; // it wouldn't finish in time
+			}
+			int move = this.lookahead.lookAhead(board, head, depth, deadline, stats);
+			lastSearchNanos = System.nanoTime() - start;
+			if (depth == 2) {
+				// (at least this long, if it gave up)
+				this.firstSearchNanos = Math.max(0, lastSearchNanos - copyNanos);
+			}
+			if (move == LookaheadPathfinder.OUT_OF_TIME) {
+				break;
+			}
+			best = move;
+			this.lastDepth = depth;
+		}
+
+		if (System.nanoTime() - deadline > 0) {
+			stats.recordDeadlineMiss();
+		}
+		return best;
+	}
+
+	/**
+	 * @return the neighbor of head closest to food (or, if no food can be
+	 *         reached, the first open one), unless its region of the board
+	 *         has less room than the snake needs and another open
+	 *         neighbor's has more; -1 if there is no open neighbor
+	 */
+	private static int firstAnswer(BoardView board, int head) {
+		ComponentLabels labels = board.getComponentLabels();
+		int best = board.getFoodDistances().getNextStep(head);
+		int bestRoom = best < 0 ? -1 : labels.getSize(labels.getLabel(best));
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			int next = board.getOpenNeighbor(head, direction);
+			if (next >= 0 && bestRoom < board.getSnakeLength()) {
+				int room = labels.getSize(labels.getLabel(next));
+				if (room > bestRoom) {
+					best = next;
+					bestRoom = room;
+				}
+			}
+		}
+		return best;
+	}
+}
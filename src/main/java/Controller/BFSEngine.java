@@ -0,0 +1,213 @@
+package Controller;
+
+import java.util.Arrays;
+
+import Model.Direction;
+import Model.BoardView;
+
+/**
+ * Controller.BFSEngine - A reusable breadth-first search from the snake head
+ * to the nearest food.
+ * <p>
+ * The engine owns all of its search state in int arrays sized to the
+ * board: the queue, the parent of each reached cell and its distance from
+ * the head. Cells count as reached only if they carry the current search
+ * epoch, so nothing is cleared between searches, and after the first
+ * search on a board a search allocates nothing at all.
+ * <p>
+ * An engine may be reused for any number of searches (and boards), but
+ * it must only be used by one thread at a time.
+ */
+public class BFSEngine {
+	/** cells waiting to be expanded; each cell enters at most once per search */
+	private int[] queue = new int[0];
+
+	/** for each reached cell, the index of the cell we reached it from */
+	private int[] parents = new int[0];
+
+	/** for each reached cell, its distance from the start of the search */
+	private int[] distances = new int[0];
+
+	/** the search epoch in which each cell was reached */
+	private int[] stamps = new int[0];
+
+	/** the current search epoch (stamps of 0 never match) */
+	private int epoch = 0;
+
+	/** number of cells taken off the queue by the last search */
+	private int cellsExpanded = 0;
+
+	/** index of the food found by the last search, or -1 */
+	private int foodFound = -1;
+
+	/* ----------------- */
+	/* Searching a board */
+	/* ----------------- */
+
+	/**
+	 * Searches outward from the snake head, stopping as soon as a food
+	 * cell is reached, and works out the first step along the shortest
+	 * path to it.
+	 *
+	 * @return the index of the cell next to the head on a shortest path
+	 *         to (the nearest) food, or -1 if no food can be reached
+	 */
+	public int findNextStep(BoardView data) {
+		int head = data.getSnakeHeadIndex();
+		int food = this.searchForFood(data, head);
+		if (food < 0) {
+			return -1;
+		}
+		return this.getFirstStep(head, food);
+	}
+
+	/**
+	 * Breadth-first search from start (which may itself be blocked,
+	 * like the snake head) through open cells, stopping as soon as a
+	 * food cell is reached.
+	 *
+	 * @return the index of the food cell reached, or -1 if there is none
+	 */
+	public int searchForFood(BoardView data, int start) {
+		this.startSearch(data);
+		int[] queue = this.queue;
+		int[] parents = this.parents;
+		int[] distances = this.distances;
+		int[] stamps = this.stamps;
+		int epoch = this.epoch;
+
+		int queueHead = 0;
+		int queueTail = 0;
+		stamps[start] = epoch;
+		parents[start] = -1;
+		distances[start] = 0;
+		queue[queueTail++] = start;
+
+		while (queueHead < queueTail) {
+			int current = queue[queueHead++];
+			this.cellsExpanded++;
+			int walls = data.getWallMask(current);
+			for (int direction = 0; direction < Direction.COUNT; direction++) {
+				if ((walls & Direction.bit(direction)) != 0) {
+					continue;
+				}
+				int neighbor = data.getNeighborIndex(current, direction);
+				if (stamps[neighbor] == epoch || !data.isOpen(neighbor)) {
+					continue;
+				}
+				stamps[neighbor] = epoch;
+				parents[neighbor] = current;
+				distances[neighbor] = distances[current] + 1;
+				if (data.isFood(neighbor)) {
+					this.foodFound = neighbor;
+					return neighbor;
+				}
+				queue[queueTail++] = neighbor;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Follows parent pointers back from target until we find the cell
+	 * whose parent is the start of the last search.
+	 *
+	 * @param start   where the last search started
+	 * @param target  a cell reached by the last search (not start itself)
+	 * @return the first cell on the path from start to target
+	 */
+	public int getFirstStep(int start, int target) {
+		int current = target;
+		while (this.parents[current] != start) {
+			current = this.parents[current];
+		}
+		return current;
+	}
+
+	/**
+	 * Copies the path from start to target found by the last search
+	 * into the given array, leaving out start itself.
+	 *
+	 * @param path  gets the cells of the path, ending with target
+	 * @return the number of cells in the path
+	 */
+	public int getPath(int start, int target, int[] path) {
+		int length = this.distances[target];
+		int current = target;
+		for (int position = length - 1; position >= 0; position--) {
+			path[position] = current;
+			current = this.parents[current];
+		}
+		return length;
+	}
+
+	/** Gets the arrays ready for a new search of the given board. */
+	private void startSearch(BoardView data) {
+		int numCells = data.getNumCells();
+		if (this.stamps.length < numCells) {
+			this.queue = new int[numCells];
+			this.parents = new int[numCells];
+			this.distances = new int[numCells];
+			this.stamps = new int[numCells];
+			this.epoch = 0;
+		} else if (this.epoch == Integer.MAX_VALUE) {
+			Arrays.fill(this.stamps, 0);
+			this.epoch = 0;
+		}
+		this.epoch++;
+		this.cellsExpanded = 0;
+		this.foodFound = -1;
+	}
+
+	/* --------------------------------- */
+	/* Information about the last search */
+	/* --------------------------------- */
+
+	/** @return Was the given cell reached by the last search? */
+	public boolean wasReached(int index) {
+		return index < this.stamps.length && this.stamps[index] == this.epoch;
+	}
+
+	/** @return the parent of a cell in the last search, or -1 for none */
+	public int getParent(int index) {
+		return this.wasReached(index) ? this.parents[index] : -1;
+	}
+
+	/** @return the distance of a reached cell from the start of the last search */
+	public int getDistance(int index) {
+		return this.wasReached(index) ? this.distances[index] : -1;
+	}
+
+	/** @return the number of cells expanded by the last search */
+	public int getCellsExpanded() {
+		return this.cellsExpanded;
+	}
+
+	/** @return the food cell found by the last search, or -1 */
+	public int getFoodFound() {
+		return this.foodFound;
+	}
+
+	/**
+	 * @return the parents from the last search, laid out like
+	 *         SnakeProData.toStringParents()
+	 */
+	public String toStringParents(BoardView data) {
+		int numColumns = data.getNumColumns();
+		StringBuilder result = new StringBuilder();
+		for (int index = 0; index < data.getNumCells(); index++) {
+			int parent = this.getParent(index);
+			if (parent < 0) {
+				result.append("[null]");
+			} else {
+				result.append("[" + parent / numColumns + ", "
+						+ parent % numColumns + "]");
+			}
+			result.append("\t");
+			if (index % numColumns == numColumns - 1) {
+				result.append("\n");
+			}
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,40 @@
+package Controller;
+
+import Model.BoardView;
+
+/**
+ * Controller.BFSPathfinder - Heads for the nearest food along a shortest
+ * path, found by breadth-first search from the head (see
+ * Controller.BFSEngine). This is the default pathfinder.
+ */
+public class BFSPathfinder implements PathPlanner {
+	/** the name this pathfinder is registered under */
+	public static final String NAME = "bfs";
+
+	/** the search, reused from move to move */
+	private final BFSEngine engine = new BFSEngine();
+
+	public String getName() {
+		return NAME;
+	}
+
+	public int findNextStep(BoardView board, int head, SearchStats stats) {
+		int food = this.engine.searchForFood(board, head);
+		stats.recordCellsExpanded(this.engine.getCellsExpanded());
+		if (food < 0) {
+			return -1;
+		}
+		stats.recordPathLength(this.engine.getDistance(food));
+		return this.engine.getFirstStep(head, food);
+	}
+
+	public int findPath(BoardView board, int head, int[] path, SearchStats stats) {
+		int food = this.engine.searchForFood(board, head);
+		stats.recordCellsExpanded(this.engine.getCellsExpanded());
+		if (food < 0) {
+			return -1;
+		}
+		stats.recordPathLength(this.engine.getDistance(food));
+		return this.engine.getPath(head, food, path);
+	}
+}
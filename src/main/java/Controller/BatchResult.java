@@ -0,0 +1,204 @@
+package Controller;
+
+/**
+ * Controller.BatchResult - Totals for a batch of games played by a
+ * Controller.BatchRunner: how many, how long they lasted, and how long
+ * the snakes got.
+ * <p>
+ * Each worker keeps its own Controller.BatchResult while it plays, and
+ * the runner adds them up at the end (see add(BatchResult)).
+ */
+public class BatchResult {
+	/** number of games played */
+	private long games = 0;
+
+	/** number of games that ended with the snake hitting something */
+	private long deaths = 0;
+
+	/** total number of cycles played, over all games */
+	private long ticks = 0;
+
+	/** total length of the snakes at the end of their games */
+	private long totalLength = 0;
+
+	/** the shortest snake at the end of a game */
+	private int minLength = Integer.MAX_VALUE;
+
+	/** the longest snake at the end of a game */
+	private int maxLength = 0;
+
+	/** for each length, the number of games that ended with a snake that long */
+	private final long[] lengthCounts;
+
+	/** how long the batch took, in nanoseconds */
+	private long nanos = 0;
+
+	/** the seed of the game that took longest to play */
+	private long slowestSeed = 0;
+
+	/** how long that game took, in nanoseconds (-1 if there's none yet) */
+	private long slowestNanos = -1;
+
+	/** the smallest seed of the games that ended with the shortest snake */
+	private long shortestSeed = 0;
+
+	/**
+	 * Constructor.
+	 * @param numCells  the number of cells on the boards played on (no
+	 *                  snake can be longer)
+	 */
+	public BatchResult(int numCells) {
+		this.lengthCounts = new long[numCells + 1];
+	}
+
+	/* ------------------- */
+	/* Recording the games */
+	/* ------------------- */
+
+	/**
+	 * Records a game.
+	 * @param seed       the game's seed (see Model.SnakeProData.getSeed)
+	 * @param gameTicks  how many cycles it lasted
+	 * @param length     how long the snake was at the end
+	 * @param died       Did it end with the snake hitting something (as
+	 *                   opposed to running out of cycles)?
+	 * @param gameNanos  how long it took to play, in nanoseconds
+	 */
+	public void addGame(long seed, int gameTicks, int length, boolean died, long gameNanos) {
+		this.games++;
+		if (died) {
+			this.deaths++;
+		}
+		this.ticks += gameTicks;
+		this.totalLength += length;
+		if (length < this.minLength || (length == this.minLength && seed < this.shortestSeed)) {
+			this.minLength = length;
+			this.shortestSeed = seed;
+		}
+		this.maxLength = Math.max(this.maxLength, length);
+		this.lengthCounts[length]++;
+		if (gameNanos > this.slowestNanos) {
+			this.slowestNanos = gameNanos;
+			this.slowestSeed = seed;
+		}
+	}
+
+	/** Adds another worker's games to these. */
+	public void add(BatchResult other) {
+		this.games += other.games;
+		this.deaths += other.deaths;
+		this.ticks += other.ticks;
+		this.totalLength += other.totalLength;
+		if (other.minLength < this.minLength
+				|| (other.minLength == this.minLength && other.shortestSeed < this.shortestSeed)) {
+			this.minLength = other.minLength;
+			this.shortestSeed = other.shortestSeed;
+		}
+		this.maxLength = Math.max(this.maxLength, other.maxLength);
+		if (other.slowestNanos > this.slowestNanos) {
+			this.slowestNanos = other.slowestNanos;
+			this.slowestSeed = other.slowestSeed;
+		}
+		for (int length = 0; length < other.lengthCounts.length; length++) {
+			this.lengthCounts[length] += other.lengthCounts[length];
+		}
+	}
+
+	/** Records how long the batch took, in nanoseconds. */
+	public void setNanos(long elapsed) {
+		this.nanos = elapsed;
+	}
+
+	/* ------------------- */
+	/* Reading the results */
+	/* ------------------- */
+
+	/** @return the number of games played */
+	public long getGames() {
+		return this.games;
+	}
+
+	/** @return the number of games that ended with the snake hitting something */
+	public long getDeaths() {
+		return this.deaths;
+	}
+
+	/** @return the total number of cycles played */
+	public long getTicks() {
+		return this.ticks;
+	}
+
+	/** @return the average length of the snakes at the end of their games (0 if none) */
+	public double getAverageLength() {
+		return this.games == 0 ? 0 : this.totalLength / (double) this.games;
+	}
+
+	/** @return the shortest snake at the end of a game (0 if none) */
+	public int getMinLength() {
+		return this.games == 0 ? 0 : this.minLength;
+	}
+
+	/** @return the longest snake at the end of a game */
+	public int getMaxLength() {
+		return this.maxLength;
+	}
+
+	/**
+	 * @param fraction  between 0 and 1
+	 * @return the shortest length that at least the given fraction of
+	 *         snakes ended up no longer than (0 if there were no games)
+	 */
+	public int getLengthPercentile(double fraction) {
+		long needed = (long) Math.ceil(fraction * this.games);
+		long seen = 0;
+		for (int length = 0; length < this.lengthCounts.length; length++) {
+			seen += this.lengthCounts[length];
+			if (seen >= needed && seen > 0) {
+				return length;
+			}
+		}
+		return 0;
+	}
+
+	/** @return the number of games that ended with a snake of the given length */
+	public long getLengthCount(int length) {
+		return length < this.lengthCounts.length ? this.lengthCounts[length] : 0;
+	}
+
+	/** @return the smallest seed of the games that ended with the shortest snake */
+	public long getShortestSeed() {
+		return this.shortestSeed;
+	}
+
+	/** @return the seed of the game that took longest to play */
+	public long getSlowestSeed() {
+		return this.slowestSeed;
+	}
+
+	/** @return how long the slowest game took to play, in nanoseconds (0 if none) */
+	public long getSlowestNanos() {
+		return Math.max(0, this.slowestNanos);
+	}
+
+	/** @return games played per second (0 if the batch took no time) */
+	public double getGamesPerSecond() {
+		return this.nanos == 0 ? 0 : this.games * 1e9 / this.nanos;
+	}
+
+	/** @return cycles played per second (0 if the batch took no time) */
+	public double getTicksPerSecond() {
+		return this.nanos == 0 ? 0 : this.ticks * 1e9 / this.nanos;
+	}
+
+	public String toString() {
+		return String.format("%d games (%d died) in %.2f s: %.1f games/s, %.0f ticks/s%n"
+				+ "length: min %d, mean %.1f, median %d, 90%% %d, 99%% %d, max %d%n"
+				+ "shortest game: seed %d; slowest game: seed %d (%.1f ms)",
+				this.games, this.deaths, this.nanos / 1e9,
+				this.getGamesPerSecond(), this.getTicksPerSecond(),
+				this.getMinLength(), this.getAverageLength(),
+				this.getLengthPercentile(0.5), this.getLengthPercentile(0.9),
+				this.getLengthPercentile(0.99), this.getMaxLength(),
+				this.shortestSeed, this.slowestSeed, this.getSlowestNanos() / 1e6);
+	}
+}
@@ -0,0 +1,228 @@
+package Controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import Model.GameConfig;
+import Model.SnakeProData;
+
+/**
+ * Controller.BatchRunner - Plays lots of AI games at once, with no
+ * screen, and reports how fast they went and how well the AI did.
+ * <p>
+ * The games are shared out among a fixed number of worker threads
+ * (one per core, unless told otherwise). Each worker plays its games
+ * one after another on its own Controller.GameEngine, and keeps its own
+ * Controller.BatchResult; nothing is shared until the results are added
+ * up at the end. A game ends when the snake hits something, or after
+ * maxTicks cycles.
+ * <p>
+ * Game k is played with seed firstSeed + k (see
+ * Model.SnakeProData.getSeed), whichever worker plays it, so any game in
+ * the batch can be played again on its own (GameEngine.startNewGame(seed))
+ * with the same food, as long as the pathfinder doesn't depend on
+ * timing. The results say which seeds gave the slowest and the shortest
+ * games.
+ * <p>
+ * From the command line, settings are given as key=value pairs:
+ * <pre>
+ *   games=10000  threads=4  maxTicks=5000  firstSeed=1  snakepro.cellsWide=40  ...
+ * </pre>
+ * Any snakepro.* key sets up the games, as in Model.GameConfig (system
+ * properties work too).
+ */
+public class BatchRunner {
+	// Keys for the command line
+	public static final String GAMES = "games";
+	public static final String THREADS = "threads";
+	public static final String MAX_TICKS = "maxTicks";
+	public static final String FIRST_SEED = "firstSeed";
+
+	/** the number of games played, unless told otherwise */
+	public static final int DEFAULT_GAMES = 1000;
+
+	/** the longest a game goes on, in cycles, unless told otherwise */
+	public static final int DEFAULT_MAX_TICKS = 10000;
+
+	/** the settings for every game */
+	private final GameConfig config;
+
+	/** how many games to play */
+	private int games = DEFAULT_GAMES;
+
+	/** how many threads to play them on */
+	private int threads = Runtime.getRuntime().availableProcessors();
+
+	/** the longest a game goes on, in cycles */
+	private int maxTicks = DEFAULT_MAX_TICKS;
+
+	/** the seed of the first game (the rest follow on) */
+	private long firstSeed = new SplittableRandom().nextLong();
+
+	/**
+	 * Constructor.
+	 * @param inputConfig  the settings for every game
+	 */
+	public BatchRunner(GameConfig inputConfig) {
+		this.config = inputConfig;
+	}
+
+	/** Sets how many games to play (at least 1). */
+	public void setGames(int count) {
+		this.games = requirePositive(GAMES, count);
+	}
+
+	/** Sets how many threads to play them on (at least 1). */
+	public void setThreads(int count) {
+		this.threads = requirePositive(THREADS, count);
+	}
+
+	/** Sets the longest a game goes on, in cycles (at least 1). */
+	public void setMaxTicks(int cycles) {
+		this.maxTicks = requirePositive(MAX_TICKS, cycles);
+	}
+
+	/** Sets the seed of the first game; game k has seed firstSeed + k. */
+	public void setFirstSeed(long seed) {
+		this.firstSeed = seed;
+	}
+
+	/** @return the seed of the first game */
+	public long getFirstSeed() {
+		return this.firstSeed;
+	}
+
+	/* ------------ */
+	/* Running them */
+	/* ------------ */
+
+	/**
+	 * Plays all the games.
+	 * @return what happened, added up over all the games
+	 */
+	public BatchResult run() throws InterruptedException {
+		int numCells = this.config.getNumCellsTall() * this.config.getNumCellsWide();
+		int numWorkers = Math.min(this.threads, this.games);
+		ExecutorService pool = Executors.newFixedThreadPool(numWorkers);
+		try {
+			long start = System.nanoTime();
+			List<Future<BatchResult>> workers = new ArrayList<Future<BatchResult>>();
+			for (int worker = 0; worker < numWorkers; worker++) {
+				// Worker w plays games w, w + numWorkers, w + 2*numWorkers, ...
+				int first = worker;
+				workers.add(pool.submit(() -> this.playGames(first, numWorkers, numCells)));
+			}
+			BatchResult total = new BatchResult(numCells);
+			for (Future<BatchResult> worker : workers) {
+				try {
+					total.add(worker.get());
+				} catch (ExecutionException e) {
+					// (it says which game failed)
+					if (e.getCause() instanceof RuntimeException) {
+						throw (RuntimeException) e.getCause();
+					}
+					throw new IllegalStateException(e.getCause());
+				}
+			}
+			total.setNanos(System.nanoTime() - start);
+			return total;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Plays every stride-th game, starting with the given one, one after
+	 * another on a new engine (this is what each worker does).
+	 * @return what happened in them
+	 */
+	private BatchResult playGames(int first, int stride, int numCells) {
+		GameEngine engine = new GameEngine(this.config);
+		BatchResult result = new BatchResult(numCells);
+		for (int game = first; game < this.games; game += stride) {
+			long seed = this.firstSeed + game;
+			try {
+				long start = System.nanoTime();
+				engine.startNewGame(seed);
+				SnakeProData theData = engine.getData();
+				theData.setMode_AI();
+				int ticks = engine.run(this.maxTicks);
+				result.addGame(seed, ticks, theData.getSnakeLength(), theData.getGameOver(),
+						System.nanoTime() - start);
+			} catch (RuntimeException e) {
+				throw new IllegalStateException("The game with seed " + seed + " failed", e);
+			}
+		}
+		return result;
+	}
+
+	/* ---------------- */
+	/* The command line */
+	/* ---------------- */
+
+	/**
+	 * Plays a batch of games and prints the results.
+	 * @param args  settings, as key=value pairs (see above)
+	 */
+	public static void main(String[] args) throws InterruptedException {
+		Properties properties = new Properties();
+		for (String arg : args) {
+			int equals = arg.indexOf('=');
+			if (equals < 0) {
+				System.err.println("Settings look like key=value, not \"" + arg + "\"");
+				System.exit(1);
+			}
+			properties.setProperty(arg.substring(0, equals).trim(), arg.substring(equals + 1));
+		}
+
+		GameConfig config = GameConfig.fromSystemProperties();
+		config.apply(properties);
+		config.setSpeculate(false); // there's never any waiting to use
+		BatchRunner runner = new BatchRunner(config);
+		runner.setGames(readInt(properties, GAMES, runner.games));
+		runner.setThreads(readInt(properties, THREADS, runner.threads));
+		runner.setMaxTicks(readInt(properties, MAX_TICKS, runner.maxTicks));
+		String seed = properties.getProperty(FIRST_SEED);
+		if (seed != null) {
+			try {
+				runner.setFirstSeed(Long.parseLong(seed.trim()));
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException(FIRST_SEED + " must be a whole number, not \""
+						+ seed + "\"");
+			}
+		}
+
+		System.out.println(config);
+		System.out.println(runner.games + " games on " + runner.threads + " threads, "
+				+ runner.maxTicks + " ticks at most, seeds from " + runner.firstSeed);
+		System.out.println(runner.run());
+	}
+
+	/** @return the integer value of the given key, or the default if it's missing */
+	private static int readInt(Properties properties, String key, int defaultValue) {
+		String value = properties.getProperty(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(key + " must be a whole number, not \""
+					+ value + "\"");
+		}
+	}
+
+	/** @return value, if it's positive */
+	private static int requirePositive(String key, int value) {
+		if (value < 1) {
+			throw new IllegalArgumentException(key + " must be at least 1, not " + value);
+		}
+		return value;
+	}
+}
@@ -0,0 +1,246 @@
+package Controller;
+
+import java.util.Arrays;
+
+import Model.BoardView;
+import Model.Direction;
+
+/**
+ * Controller.BidirectionalPathfinder - Heads for the food along a shortest
+ * path, found by breadth-first search from the head and from the food at
+ * the same time.
+ * <p>
+ * With a single food on the board (as there usually is early on), the
+ * two searches take turns expanding a whole level of cells, always on
+ * the side whose frontier is smaller, until they meet. Each only has to
+ * get about halfway, so on open boards far fewer cells are expanded than
+ * by a search from the head alone. With more than one food, this just
+ * does what Controller.BFSPathfinder does.
+ * <p>
+ * The first step is the same one Controller.BFSEngine would choose: of
+ * the neighbors of the head that lie on some shortest path, the first in
+ * the order north, south, east, west. To find them, the cells on
+ * shortest paths are marked where the searches met, and the marks are
+ * carried back, level by level, toward the head.
+ */
+public class BidirectionalPathfinder implements Pathfinder {
+	/** the name this pathfinder is registered under */
+	public static final String NAME = "bidirectional";
+
+	/** the search from the head */
+	private final Side forward = new Side();
+
+	/** the search from the food */
+	private final Side backward = new Side();
+
+	/** the search in which each cell was found to be on a shortest path */
+	private int[] onPathStamps = new int[0];
+
+	/** the current search (stamps of 0 never match) */
+	private int epoch = 0;
+
+	/** the search used when there's more (or less) than one food */
+	private final BFSPathfinder fallback = new BFSPathfinder();
+
+	public String getName() {
+		return NAME;
+	}
+
+	public int findNextStep(BoardView board, int head, SearchStats stats) {
+		if (board.getNumFood() != 1) {
+			return this.fallback.findNextStep(board, head, stats);
+		}
+		this.startSearch(board.getNumCells());
+		int epoch = this.epoch;
+		this.forward.start(head, epoch);
+		this.backward.start(board.getFood(0), epoch);
+
+		// Expand whole levels, on the smaller side (the head's side on a
+		// tie, so the head's neighbors are always found), until they meet.
+		int length = Integer.MAX_VALUE;
+		int expanded = 0;
+		while (length == Integer.MAX_VALUE) {
+			int forwardSize = this.forward.getFrontierSize();
+			int backwardSize = this.backward.getFrontierSize();
+			if (forwardSize == 0 || backwardSize == 0) {
+				break; // one side is shut in: the food can't be reached
+			}
+			if (forwardSize <= backwardSize) {
+				length = this.forward.expandLevel(board, this.backward, epoch);
+				expanded += forwardSize;
+			} else {
+				length = this.backward.expandLevel(board, this.forward, epoch);
+				expanded += backwardSize;
+			}
+		}
+
+		stats.recordCellsExpanded(expanded);
+		if (length == Integer.MAX_VALUE) {
+			return -1;
+		}
+		stats.recordPathLength(length);
+		return this.firstStep(board, head, length);
+	}
+
+	/**
+	 * Marks the cells (on the head's side) that lie on shortest paths to
+	 * the food, working back from the furthest level at which we know.
+	 * @param length  the length of the shortest paths
+	 * @return the first neighbor of head, in the order north, south, east,
+	 *         west, that is on a shortest path
+	 */
+	private int firstStep(BoardView board, int head, int length) {
+		int epoch = this.epoch;
+
+		// Every shortest path passes through a cell at this level, which
+		// both searches have found.
+		int level = Math.max(1, length - this.backward.getLastLevel());
+		for (int i = this.forward.getLevelStart(level); i < this.forward.getLevelStart(level + 1); i++) {
+			int cell = this.forward.queue[i];
+			if (this.backward.stamps[cell] == epoch
+					&& this.backward.distances[cell] == length - level) {
+				this.onPathStamps[cell] = epoch;
+			}
+		}
+
+		// A cell one level closer to the head is on a shortest path if
+		// it's next to one that is.
+		for (level--; level >= 1; level--) {
+			for (int i = this.forward.getLevelStart(level); i < this.forward.getLevelStart(level + 1); i++) {
+				int cell = this.forward.queue[i];
+				int walls = board.getWallMask(cell);
+				for (int direction = 0; direction < Direction.COUNT; direction++) {
+					if ((walls & Direction.bit(direction)) != 0) {
+						continue;
+					}
+					int neighbor = board.getNeighborIndex(cell, direction);
+					if (this.onPathStamps[neighbor] == epoch
+							&& this.forward.distances[neighbor] == level + 1) {
+						this.onPathStamps[cell] = epoch;
+						break;
+					}
+				}
+			}
+		}
+
+		int walls = board.getWallMask(head);
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			if ((walls & Direction.bit(direction)) == 0) {
+				int neighbor = board.getNeighborIndex(head, direction);
+				if (this.onPathStamps[neighbor] == epoch && this.forward.distances[neighbor] == 1) {
+					return neighbor;
+				}
+			}
+		}
+		return -1; // can't happen
+	}
+
+	/** Gets the arrays ready for a new search. */
+	private void startSearch(int numCells) {
+		if (this.onPathStamps.length < numCells) {
+			this.onPathStamps = new int[numCells];
+			this.forward.allocate(numCells);
+			this.backward.allocate(numCells);
+			this.epoch = 0;
+		} else if (this.epoch == Integer.MAX_VALUE) {
+			Arrays.fill(this.onPathStamps, 0);
+			Arrays.fill(this.forward.stamps, 0);
+			Arrays.fill(this.backward.stamps, 0);
+			this.epoch = 0;
+		}
+		this.epoch++;
+	}
+
+	/* ---------------------- */
+	/* One side of the search */
+	/* ---------------------- */
+
+	/**
+	 * A breadth-first search from one end, expanded a level at a time.
+	 * The cells it has found are kept in the queue in order of distance.
+	 */
+	private static final class Side {
+		/** the cells found, in the order they were found */
+		int[] queue = new int[0];
+
+		/** for each found cell, its distance from where the search started */
+		int[] distances = new int[0];
+
+		/** the search in which each cell was found */
+		int[] stamps = new int[0];
+
+		/** where each level starts in this.queue (level k runs to levelStarts[k+1]) */
+		private int[] levelStarts = new int[0];
+
+		/** the furthest level found so far */
+		private int lastLevel = 0;
+
+		/** Makes room for searches of a board with the given number of cells. */
+		void allocate(int numCells) {
+			this.queue = new int[numCells];
+			this.distances = new int[numCells];
+			this.stamps = new int[numCells];
+			this.levelStarts = new int[numCells + 2];
+		}
+
+		/** Starts a new search from the given cell. */
+		void start(int cell, int epoch) {
+			this.stamps[cell] = epoch;
+			this.distances[cell] = 0;
+			this.queue[0] = cell;
+			this.levelStarts[0] = 0;
+			this.levelStarts[1] = 1;
+			this.lastLevel = 0;
+		}
+
+		/** @return the furthest level found so far (every cell in it has been found) */
+		int getLastLevel() {
+			return this.lastLevel;
+		}
+
+		/** @return where the given level (no further than getLastLevel) starts in the queue */
+		int getLevelStart(int level) {
+			return this.levelStarts[level];
+		}
+
+		/** @return the number of cells in the furthest level */
+		int getFrontierSize() {
+			return this.levelStarts[this.lastLevel + 1] - this.levelStarts[this.lastLevel];
+		}
+
+		/**
+		 * Finds the next level: the open cells next to the furthest level
+		 * that haven't been found yet.
+		 * @param other  the search from the other end
+		 * @return the length of the shortest path through a cell both
+		 *         searches have found, or Integer.MAX_VALUE if there's none
+		 */
+		int expandLevel(BoardView board, Side other, int epoch) {
+			int distance = this.lastLevel + 1;
+			int end = this.levelStarts[distance];
+			int shortest = Integer.MAX_VALUE;
+			for (int i = this.levelStarts[this.lastLevel]; i < this.levelStarts[distance]; i++) {
+				int cell = this.queue[i];
+				int walls = board.getWallMask(cell);
+				for (int direction = 0; direction < Direction.COUNT; direction++) {
+					if ((walls & Direction.bit(direction)) != 0) {
+						continue;
+					}
+					int neighbor = board.getNeighborIndex(cell, direction);
+					if (this.stamps[neighbor] == epoch || !board.isOpen(neighbor)) {
+						continue;
+					}
+					this.stamps[neighbor] = epoch;
+					this.distances[neighbor] = distance;
+					this.queue[end++] = neighbor;
+					if (other.stamps[neighbor] == epoch) {
+						shortest = Math.min(shortest, distance + other.distances[neighbor]);
+					}
+				}
+			}
+			this.lastLevel = distance;
+			this.levelStarts[distance + 1] = end;
+			return shortest;
+		}
+	}
+}
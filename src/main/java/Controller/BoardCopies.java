@@ -0,0 +1,123 @@
+package Controller;
+
+import Model.BoardView;
+import Model.PlayableBoard;
+
+/**
+ * Controller.BoardCopies - Copies of a game (see Model.BoardView.copy)
+ * for the threads of a search to play moves out on, one for each thread,
+ * kept from one move to the next.
+ * <p>
+ * Each time a thread asks for its copy, the copy is brought up to date
+ * with the game (see Model.PlayableBoard.catchUp), which only takes time
+ * in proportion to what changed since the last move. A copy is only made
+ * afresh, in time proportional to the size of the board, for a new game
+ * or one that has moved on too far since it was last searched.
+ * <p>
+ * Copy k belongs to whichever thread is working as the search's k-th
+ * thread; different copies can be used on different threads at once.
+ */
+class BoardCopies {
+	/**
+	 * how long we guess making a copy (with its distance field and
+	 * region labels) takes per cell, in nanoseconds, until one is made
+	 */
+	private static final double GUESSED_NANOS_PER_CELL = 100;
+
+	/** the copies (null where one hasn't been made yet) */
+	private final PlayableBoard[] copies;
+
+	/** how long the latest copy took to make, per cell, in nanoseconds */
+	private volatile double copyNanosPerCell = GUESSED_NANOS_PER_CELL;
+
+	/**
+	 * Constructor; no copies are made until they're asked for.
+	 * @param count  how many copies to keep (one per thread)
+	 */
+	BoardCopies(int count) {
+		this.copies = new PlayableBoard[count];
+	}
+
+	/** @return how many copies are kept */
+	int size() {
+		return this.copies.length;
+	}
+
+	/**
+	 * @param k      which copy (between 0 and size()-1 inclusive)
+	 * @param board  the game being searched
+	 * @return copy k, brought up to date with the game (and only to be
+	 *         used on the calling thread until the search is over)
+	 */
+	PlayableBoard get(int k, BoardView board) {
+		PlayableBoard copy = this.copies[k];
+		if (copy == null || !copy.catchUp(board)) {
+			long start = System.nanoTime();
+			copy = board.copy();
+			copy.getFoodDistances();
+			copy.getComponentLabels();
+			this.copyNanosPerCell = (System.nanoTime() - start) / (double) board.getNumCells();
+			this.copies[k] = copy;
+		}
+		return copy;
+	}
+
+	/**
+	 * @param deadline  when the search has to be done (by System.nanoTime)
+	 * @return copy k, brought up to date as get does, or null if a new
+	 *         copy would have to be made and that would take until
+	 *         past the deadline
+	 */
+	PlayableBoard get(int k, BoardView board, long deadline) {
+		PlayableBoard copy = this.copies[k];
+		if ((copy == null || !copy.canCatchUp(board))
+				&& System.nanoTime() + this.copyNanos(board) - deadline > 0) {
+			return null;
+		}
+		return this.get(k, board);
+	}
+
+	/**
+	 * Makes any copies that are missing or can't catch up with the game,
+	 * so a search doesn't have to (see Pathfinder.prepare).
+	 */
+	void prepare(BoardView board) {
+		for (int k = 0; k < this.copies.length; k++) {
+			this.get(k, board);
+		}
+	}
+
+	/**
+	 * Brings every copy that can be up to date with the game, without
+	 * making any new ones (so copies not searched for a while needn't be
+	 * made again).
+	 * @return Is every copy up to date?
+	 */
+	boolean catchUp(BoardView board) {
+		boolean all = true;
+		for (PlayableBoard copy : this.copies) {
+			all &= copy != null && copy.catchUp(board);
+		}
+		return all;
+	}
+
+	/**
+	 * @return roughly how long getting every copy would hold up a search
+	 *         of the game, in nanoseconds: nothing if they can all catch
+	 *         up, or else the time to make two copies (the first one,
+	 *         and then the others, which are made at the same time)
+	 */
+	long estimateNanos(BoardView board) {
+		for (PlayableBoard copy : this.copies) {
+			if (copy == null || !copy.canCatchUp(board)) {
+				return 2 * this.copyNanos(board);
+			}
+		}
+		return 0;
+	}
+
+	/** @return roughly how long making one copy of the game takes, in nanoseconds */
+	private long copyNanos(BoardView board) {
+		return (long) (board.getNumCells() * this.copyNanosPerCell);
+	}
+}
@@ -0,0 +1,127 @@
+package Controller;
+
+import Model.BoardView;
+
+/**
+ * Controller.CachingPathfinder - Remembers the whole path another
+ * pathfinder found to the food, and keeps following it on later moves
+ * instead of searching again.
+ * <p>
+ * Between moves the snake advances one cell along the path and little
+ * else changes, so most moves just take the next cell of the path. The
+ * path is thrown away, and a new search done, when
+ * <ul>
+ * <li>the head isn't where following the path would have put it (the
+ *     snake was steered elsewhere, reversed, or a new game started);</li>
+ * <li>the food at the end of the path is gone;</li>
+ * <li>the next cell of the path is no longer open;</li>
+ * <li>new food has appeared that might be closer than what's left of the
+ *     path (judging by Manhattan distance).</li>
+ * </ul>
+ * Cells further along the path are checked when the snake gets to them.
+ * Hits and misses are counted in the Controller.SearchStats.
+ */
+public class CachingPathfinder implements Pathfinder {
+	/** what is added to the name of the wrapped pathfinder */
+	public static final String SUFFIX = "-cached";
+
+	/** the pathfinder that finds new paths */
+	private final PathPlanner planner;
+
+	/** the cached path (from the cell after the old head to the food) */
+	private int[] path = new int[0];
+
+	/** number of cells in the cached path (0 if there is none) */
+	private int pathLength = 0;
+
+	/** where in the path the next move is */
+	private int nextPosition = 0;
+
+	/** the board the path was found on */
+	private BoardView pathBoard = null;
+
+	/** the amount of food on the board when we last looked */
+	private int numFood = 0;
+
+	/**
+	 * Constructor.
+	 * @param inputPlanner  the pathfinder whose paths are cached
+	 */
+	public CachingPathfinder(PathPlanner inputPlanner) {
+		this.planner = inputPlanner;
+	}
+
+	public String getName() {
+		return this.planner.getName() + SUFFIX;
+	}
+
+	public void prepare(BoardView board) {
+		this.planner.prepare(board);
+	}
+
+	public int findNextStep(BoardView board, int head, SearchStats stats) {
+		if (this.canReuse(board, head)) {
+			stats.recordCacheHit();
+			stats.recordPathLength(this.pathLength - this.nextPosition);
+			return this.path[this.nextPosition++];
+		}
+		stats.recordCacheMiss();
+		if (this.path.length < board.getNumCells()) {
+			this.path = new int[board.getNumCells()];
+		}
+		this.pathLength = this.planner.findPath(board, head, this.path, stats);
+		if (this.pathLength < 0) {
+			this.pathLength = 0;
+			this.pathBoard = null;
+			return -1;
+		}
+		this.pathBoard = board;
+		this.numFood = board.getNumFood();
+		this.nextPosition = 1;
+		return this.path[0];
+	}
+
+	/** Forgets the cached path. */
+	public void clear() {
+		this.pathLength = 0;
+		this.pathBoard = null;
+	}
+
+	/** @return Can the next move be taken from the cached path? */
+	private boolean canReuse(BoardView board, int head) {
+		if (board != this.pathBoard || this.nextPosition >= this.pathLength
+				|| head != this.path[this.nextPosition - 1]) {
+			return false;
+		}
+		if (!board.isFood(this.path[this.pathLength - 1])
+				|| !board.isOpen(this.path[this.nextPosition])) {
+			return false;
+		}
+		int foodNow = board.getNumFood();
+		if (foodNow > this.numFood && this.closerFoodMayExist(board, head)) {
+			return false;
+		}
+		this.numFood = foodNow;
+		return true;
+	}
+
+	/**
+	 * @return Is any food within (Manhattan) reach of the head in fewer
+	 *         moves than what's left of the path?
+	 */
+	private boolean closerFoodMayExist(BoardView board, int head) {
+		int numColumns = board.getNumColumns();
+		int headRow = head / numColumns;
+		int headColumn = head % numColumns;
+		int remaining = this.pathLength - this.nextPosition;
+		for (int k = 0; k < board.getNumFood(); k++) {
+			int food = board.getFood(k);
+			int distance = Math.abs(food / numColumns - headRow)
+					+ Math.abs(food % numColumns - headColumn);
+			if (distance < remaining) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,125 @@
+package Controller;
+
+import java.util.Arrays;
+
+/**
+ * Controller.CellHeap - A binary min-heap of cell indices, each with a
+ * long priority, for best-first searches.
+ * <p>
+ * The heap remembers where each cell sits, so a cell's priority can be
+ * lowered in place (there is never more than one entry per cell).
+ * Nothing is allocated except when the board grows.
+ */
+class CellHeap {
+	/** the cells in the heap, in heap order */
+	private int[] heap = new int[0];
+
+	/** the priority of each cell in the heap */
+	private long[] priorities = new long[0];
+
+	/** where each cell sits in this.heap, or -1 if it isn't in the heap */
+	private int[] positions = new int[0];
+
+	/** number of cells in the heap */
+	private int size = 0;
+
+	/**
+	 * Empties the heap, making room for cells between 0 and numCells-1
+	 * inclusive.
+	 */
+	void clear(int numCells) {
+		if (this.positions.length < numCells) {
+			this.heap = new int[numCells];
+			this.priorities = new long[numCells];
+			this.positions = new int[numCells];
+			Arrays.fill(this.positions, -1);
+		} else {
+			for (int i = 0; i < this.size; i++) {
+				this.positions[this.heap[i]] = -1;
+			}
+		}
+		this.size = 0;
+	}
+
+	/** @return Is the heap empty? */
+	boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/** @return Is the given cell in the heap? */
+	boolean contains(int cell) {
+		return this.positions[cell] >= 0;
+	}
+
+	/**
+	 * Adds a cell with the given priority, or lowers its priority if
+	 * it's in the heap already (a higher priority is ignored).
+	 */
+	void addOrLower(int cell, long priority) {
+		int position = this.positions[cell];
+		if (position < 0) {
+			position = this.size++;
+			this.heap[position] = cell;
+			this.positions[cell] = position;
+		} else if (priority >= this.priorities[cell]) {
+			return;
+		}
+		this.priorities[cell] = priority;
+		this.siftUp(position);
+	}
+
+	/** @return the cell with the lowest priority, after removing it */
+	int poll() {
+		int top = this.heap[0];
+		this.positions[top] = -1;
+		this.size--;
+		if (this.size > 0) {
+			int last = this.heap[this.size];
+			this.heap[0] = last;
+			this.positions[last] = 0;
+			this.siftDown(0);
+		}
+		return top;
+	}
+
+	/** Moves the cell at the given position up until its parent is no bigger. */
+	private void siftUp(int position) {
+		int cell = this.heap[position];
+		long priority = this.priorities[cell];
+		while (position > 0) {
+			int parentPosition = (position - 1) >>> 1;
+			int parent = this.heap[parentPosition];
+			if (this.priorities[parent] <= priority) {
+				break;
+			}
+			this.heap[position] = parent;
+			this.positions[parent] = position;
+			position = parentPosition;
+		}
+		this.heap[position] = cell;
+		this.positions[cell] = position;
+	}
+
+	/** Moves the cell at the given position down until its children are no smaller. */
+	private void siftDown(int position) {
+		int cell = this.heap[position];
+		long priority = this.priorities[cell];
+		int half = this.size >>> 1;
+		while (position < half) {
+			int child = 2 * position + 1;
+			int right = child + 1;
+			if (right < this.size
+					&& this.priorities[this.heap[right]] < this.priorities[this.heap[child]]) {
+				child = right;
+			}
+			if (priority <= this.priorities[this.heap[child]]) {
+				break;
+			}
+			this.heap[position] = this.heap[child];
+			this.positions[this.heap[position]] = position;
+			position = child;
+		}
+		this.heap[position] = cell;
+		this.positions[cell] = position;
+	}
+}
@@ -0,0 +1,35 @@
+package Controller;
+
+import Model.BoardView;
+import Model.FoodDistanceField;
+
+/**
+ * Controller.DistanceFieldPathfinder - Steps to the neighbor of the head
+ * that is closest to food, according to the distance field the board
+ * keeps up to date (see Model.FoodDistanceField). No search is needed,
+ * so each move takes constant time; the cost of keeping the field up to
+ * date is paid as the board changes.
+ */
+public class DistanceFieldPathfinder implements Pathfinder {
+	/** the name this pathfinder is registered under */
+	public static final String NAME = "distance-field";
+
+	public String getName() {
+		return NAME;
+	}
+
+	/** Builds the board's distance field. */
+	public void prepare(BoardView board) {
+		board.getFoodDistances();
+	}
+
+	public int findNextStep(BoardView board, int head, SearchStats stats) {
+		FoodDistanceField distances = board.getFoodDistances();
+		int next = distances.getNextStep(head);
+		stats.recordCellsExpanded(1);
+		if (next >= 0) {
+			stats.recordPathLength(distances.getDistance(next) + 1);
+		}
+		return next;
+	}
+}
@@ -0,0 +1,86 @@
+package Controller;
+
+import Model.BoardView;
+
+/**
+ * Controller.FoodEstimate - A lower bound on the number of moves from any
+ * cell to the nearest food, for best-first searches such as
+ * Controller.AStarPathfinder.
+ * <ul>
+ * <li>With a few food cells, it's the Manhattan distance to the nearest one.</li>
+ * <li>With many, it's the Manhattan distance to the smallest rectangle
+ *     holding all of them (much cheaper, and still never too big).</li>
+ * </ul>
+ */
+class FoodEstimate {
+	/**
+	 * With more food cells than this, the estimate uses the rectangle
+	 * around the food instead of every food cell.
+	 */
+	static final int MAX_EXACT_TARGETS = 8;
+
+	/** rows and columns of the food cells (when there are few of them) */
+	private final int[] foodRows = new int[MAX_EXACT_TARGETS];
+	private final int[] foodColumns = new int[MAX_EXACT_TARGETS];
+
+	/** how many of foodRows/foodColumns are in use (0: use the rectangle) */
+	private int numTargets = 0;
+
+	/** the rectangle around all the food */
+	private int minRow, maxRow, minColumn, maxColumn;
+
+	/** the width of the board */
+	private int numColumns = 1;
+
+	/** Records where the food is on the given board (which must have some). */
+	void reset(BoardView board) {
+		this.numColumns = board.getNumColumns();
+		int numFood = board.getNumFood();
+		this.numTargets = numFood <= MAX_EXACT_TARGETS ? numFood : 0;
+		this.minRow = Integer.MAX_VALUE;
+		this.maxRow = Integer.MIN_VALUE;
+		this.minColumn = Integer.MAX_VALUE;
+		this.maxColumn = Integer.MIN_VALUE;
+		for (int k = 0; k < numFood; k++) {
+			int food = board.getFood(k);
+			int row = food / this.numColumns;
+			int column = food - row * this.numColumns;
+			if (k < this.numTargets) {
+				this.foodRows[k] = row;
+				this.foodColumns[k] = column;
+			}
+			this.minRow = Math.min(this.minRow, row);
+			this.maxRow = Math.max(this.maxRow, row);
+			this.minColumn = Math.min(this.minColumn, column);
+			this.maxColumn = Math.max(this.maxColumn, column);
+		}
+	}
+
+	/** @return a lower bound on the number of moves from cell to the nearest food */
+	int estimate(int cell) {
+		int row = cell / this.numColumns;
+		int column = cell - row * this.numColumns;
+		if (this.numTargets == 0) {
+			return Math.max(0, Math.max(this.minRow - row, row - this.maxRow))
+					+ Math.max(0, Math.max(this.minColumn - column, column - this.maxColumn));
+		}
+		int best = Integer.MAX_VALUE;
+		for (int i = 0; i < this.numTargets; i++) {
+			int estimate = Math.abs(this.foodRows[i] - row)
+					+ Math.abs(this.foodColumns[i] - column);
+			if (estimate < best) {
+				best = estimate;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * @return the heap priority of a cell reached by a path of the given
+	 *         length: smaller estimated totals first, then longer paths
+	 */
+	long priority(int cell, int distance) {
+		long total = (long) distance + this.estimate(cell);
+		return (total << 32) - distance;
+	}
+}
@@ -0,0 +1,422 @@
+package Controller;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import Model.BoardCell;
+import Model.GameConfig;
+import Model.SnakeProData;
+
+/**
+ * Controller.GameEngine - Runs a game of SnakePro: the board, the
+ * player's commands and the AI, with no windows, sounds or pauses.
+ * <p>
+ * Each call to step moves the game forward one cycle, as fast as the
+ * AI can go; run(n) does n of them. Whoever wants to show the game (see
+ * Controller.SnakeProBrain) registers a Controller.GameListener, and is
+ * told when each cycle is done.
+ * <p>
+ * Commands (e.g. from the keyboard) may be sent from any thread: they
+ * wait in a queue, and take effect at the start of the next cycle.
+ * Everything else must be called on the thread running the game.
+ */
+public class GameEngine {
+
+	/** The things a player can tell the game to do */
+	public enum Command {
+		NORTH, SOUTH, EAST, WEST, REVERSE, AI_MODE, NEXT_PATHFINDER
+	}
+
+	/** Board size and timing settings for new games */
+	private final GameConfig config;
+
+	/** The game being played */
+	private SnakeProData theData;
+
+	/** The breadth-first search behind getNextCellFromBFS */
+	private final BFSEngine search = new BFSEngine();
+
+	/** How the AI chooses its moves (see Controller.PathfinderRegistry) */
+	private Pathfinder pathfinder;
+
+	/** How much work the AI's pathfinders have done */
+	private final SearchStats searchStats = new SearchStats();
+
+	/** Keeps the AI out of pockets it can't escape */
+	private final MoveSafety safety = new MoveSafety();
+
+	/** The AI's next move, worked out while waiting between cycles */
+	private final SpeculativeMove speculation = new SpeculativeMove();
+
+	/** Commands waiting for the next cycle */
+	private final Queue<Command> commands = new ConcurrentLinkedQueue<Command>();
+
+	/** Everyone who wants to hear what happens */
+	private final List<GameListener> listeners = new CopyOnWriteArrayList<GameListener>();
+
+	/** Number of cycles played so far */
+	private int cycleNum = 0;
+
+	/**
+	 * Constructor; call startNewGame (or startGame) before playing.
+	 * @param inputConfig  the settings to use for every game
+	 */
+	public GameEngine(GameConfig inputConfig) {
+		this.config = inputConfig;
+		this.setPathfinder(PathfinderRegistry.create(inputConfig.getPathfinder()));
+	}
+
+	/** Starts a new game, as set up by the configuration. */
+	public void startNewGame() {
+		this.startGame(this.newGame(new SnakeProData(this.config)));
+	}
+
+	/**
+	 * Starts a new game, as set up by the configuration, that places
+	 * its food the same way as every other game with the same seed
+	 * (so the same AI plays it the same way).
+	 */
+	public void startNewGame(long seed) {
+		this.startGame(this.newGame(new SnakeProData(this.config, seed)));
+	}
+
+	/** @return the given empty board, with the snake ready to go */
+	private SnakeProData newGame(SnakeProData game) {
+		game.placeSnakeAtStartLocation();
+		game.setStartDirection();
+		return game;
+	}
+
+	/**
+	 * Plays the given game from now on (e.g. one of the test boards),
+	 * starting from cycle 0.
+	 */
+	public void startGame(SnakeProData game) {
+		this.speculation.discard();
+		this.commands.clear();
+		this.theData = game;
+		this.cycleNum = 0;
+		this.prepareGame();
+	}
+
+	/** Registers a listener to hear about every later cycle. */
+	public void addListener(GameListener listener) {
+		this.listeners.add(listener);
+	}
+
+	/** Stops telling the given listener about the game. */
+	public void removeListener(GameListener listener) {
+		this.listeners.remove(listener);
+	}
+
+	/* -------- */
+	/* Gameplay */
+	/* -------- */
+
+	/**
+	 * Moves the game forward one cycle: carries out the commands that
+	 * came in since the last one, moves the snake (once every
+	 * config.getRefreshRate() cycles), adds food, and tells the
+	 * listeners. Does nothing once the game is over.
+	 *
+	 * @return Is the game still going?
+	 */
+	public boolean step() {
+		if (this.theData.getGameOver()) {
+			return false;
+		}
+		this.speculation.finish();
+		this.carryOutCommands();
+
+		// move the snake
+		this.updateSnake();
+
+		// update the list of Food
+		this.updateFood();
+
+		// update the cycle counter
+		this.cycleNum++;
+
+		for (GameListener listener : this.listeners) {
+			listener.cycleDone(this);
+		}
+		return !this.theData.getGameOver();
+	}
+
+	/**
+	 * Plays up to the given number of cycles, stopping early if the
+	 * game ends.
+	 * @return the number of cycles played
+	 */
+	public int run(int cycles) {
+		int played = 0;
+		while (played < cycles && !this.theData.getGameOver()) {
+			this.step();
+			played++;
+		}
+		return played;
+	}
+
+	/**
+	 * If the AI will be choosing the snake's next move in the coming
+	 * cycle, starts working it out in the background (see
+	 * Controller.SpeculativeMove), to be picked up by updateSnake. Worth
+	 * calling when there's a wait before the next cycle.
+	 */
+	public void speculate() {
+		if (this.config.isSpeculate() && this.theData.inAImode()
+				&& !this.theData.getGameOver()
+				&& this.cycleNum % this.config.getRefreshRate() == 0) {
+			this.speculation.start(this.theData, this.pathfinder, this.searchStats);
+		}
+	}
+
+	/* -------- */
+	/* Commands */
+	/* -------- */
+
+	/** Queues a command, to be carried out at the start of the next cycle. */
+	public void send(Command command) {
+		this.commands.add(command);
+	}
+
+	/** Carries out the commands waiting in the queue, oldest first. */
+	private void carryOutCommands() {
+		Command command;
+		while ((command = this.commands.poll()) != null) {
+			this.carryOut(command);
+		}
+	}
+
+	/** Carries out the given command right away. */
+	public void carryOut(Command command) {
+		switch (command) {
+		case NORTH:
+			this.theData.setDirectionNorth();
+			break;
+		case SOUTH:
+			this.theData.setDirectionSouth();
+			break;
+		case EAST:
+			this.theData.setDirectionEast();
+			break;
+		case WEST:
+			this.theData.setDirectionWest();
+			break;
+		case REVERSE:
+			this.reverseSnake();
+			break;
+		case AI_MODE:
+			this.theData.setMode_AI();
+			break;
+		case NEXT_PATHFINDER:
+			this.switchToNextPathfinder();
+			break;
+		default:
+			break;
+		}
+	}
+
+	/**
+	 * Reverses the snake back-to-front and updates the movement
+	 * mode appropriately.
+	 */
+	public void reverseSnake() {
+		this.speculation.finish();
+		this.theData.reverseSnake();
+	}
+
+	/* ------------------------ */
+	/* Moving the snake, eating */
+	/* ------------------------ */
+
+	/**
+	 *  Moves the snake forward once every config.getRefreshRate() cycles,
+	 *  either in the current direction, or as directed by
+	 *  the AI's pathfinder.
+	 */
+	public void updateSnake() {
+		if (this.cycleNum % this.config.getRefreshRate() == 0) {
+			this.speculation.finish();
+			BoardCell nextCell;
+			if (this.theData.inAImode()) {
+				nextCell = this.getNextCellFromPathfinder();
+			} else {
+				nextCell = this.theData.getNextCellInDir();
+			}
+			this.advanceTheSnake(nextCell);
+		}
+	}
+
+	/**
+	 * Move the snake into the next cell (and possibly eat food)
+	 *
+	 * @param nextCell  New location of the snake head (which
+	 *                  must be horizontally or vertically adjacent
+	 *                  to the old location of the snake head).
+	 */
+	public void advanceTheSnake(BoardCell nextCell) {
+		if (nextCell.isWall() || nextCell.isBody()) {
+			// Oops...we hit something.
+			this.gameOver();
+			return;
+		} else if (nextCell.isFood()) {
+			for (GameListener listener : this.listeners) {
+				listener.foodEaten(this);
+			}
+			this.theData.eatFoodAndGrow(nextCell);
+		} else {
+			// just regular movement into an open space
+			this.theData.moveSnake(nextCell);
+		}
+	}
+
+	/**
+	 * Declares the game over.
+	 */
+	public void gameOver() {
+		this.theData.setGameOver();
+		for (GameListener listener : this.listeners) {
+			listener.gameOver(this);
+		}
+	}
+
+	/**
+	 * Every config.getFoodAddRate() cycles, tries to add one new food.
+	 */
+	public void updateFood() {
+		this.speculation.finish();
+		if (this.theData.noFood()) {
+			this.theData.addFood();
+		} else if (this.cycleNum % this.config.getFoodAddRate() == 0) {
+			this.theData.addFood();
+		}
+	}
+
+	/* -- */
+	/* AI */
+	/* -- */
+
+	/**
+	 * Uses BFS to search for the food closest to the snake head.
+	 *
+	 * @return Where to move the snake head, if we want to head
+	 *         *one step* along the shortest path to (the nearest)
+	 *         food cell.
+	 */
+	public BoardCell getNextCellFromBFS() {
+		int nextIndex = this.search.findNextStep(this.theData);
+		if (nextIndex >= 0) {
+			return this.theData.getCell(nextIndex);
+		}
+
+		// If the search fails, just move somewhere.
+		return this.theData.getRandomNeighboringCell(this.theData.getSnakeHead());
+	}
+
+	/**
+	 * Asks the current pathfinder where the snake head should go,
+	 * keeping track of how much work it did (if it already worked that
+	 * out between cycles, and nothing has changed, its answer is used
+	 * as it is; see speculate). Unless the pathfinder avoids traps by
+	 * itself, its choice is checked first, and replaced if it would
+	 * shut the snake in (see Controller.MoveSafety).
+	 *
+	 * @return Where to move the snake head.
+	 */
+	public BoardCell getNextCellFromPathfinder() {
+		int head = this.theData.getSnakeHeadIndex();
+		int nextIndex = this.speculation.take(this.theData, this.pathfinder);
+		if (nextIndex == SpeculativeMove.NO_GUESS) {
+			this.searchStats.startSearch();
+			nextIndex = this.pathfinder.findNextStep(this.theData, head, this.searchStats);
+			this.searchStats.endSearch(nextIndex);
+		}
+		if (this.config.isSafeMoves() && !this.pathfinder.avoidsTraps()) {
+			nextIndex = this.safety.chooseMove(this.theData, head, nextIndex);
+		}
+		if (nextIndex >= 0) {
+			return this.theData.getCell(nextIndex);
+		}
+
+		// If the pathfinder has nothing to suggest, just move somewhere.
+		return this.theData.getRandomNeighboringCell(this.theData.getSnakeHead());
+	}
+
+	/**
+	 * Switches the AI to the next registered pathfinder (the search
+	 * statistics start over). Which one that is can be read with
+	 * getPathfinder.
+	 */
+	public void switchToNextPathfinder() {
+		this.setPathfinder(PathfinderRegistry.create(
+				PathfinderRegistry.getNextName(this.pathfinder.getName())));
+	}
+
+	/**
+	 * Makes the AI use the given pathfinder (the statistics start over),
+	 * with the configured planning time as its time budget.
+	 */
+	public void setPathfinder(Pathfinder newPathfinder) {
+		this.speculation.discard();
+		newPathfinder.setTimeBudget(this.config.getPlanningTime());
+		this.pathfinder = newPathfinder;
+		this.searchStats.reset();
+		this.prepareGame();
+	}
+
+	/**
+	 * Has the game build whatever the pathfinder (and, if its moves are
+	 * checked, Controller.MoveSafety) will read from it, and nothing else.
+	 */
+	private void prepareGame() {
+		if (this.theData == null) {
+			return;
+		}
+		this.pathfinder.prepare(this.theData);
+		if (this.config.isSafeMoves() && !this.pathfinder.avoidsTraps()) {
+			this.safety.prepare(this.theData);
+		}
+	}
+
+	/* --------- */
+	/* Accessors */
+	/* --------- */
+
+	/** @return the game being played */
+	public SnakeProData getData() {
+		return this.theData;
+	}
+
+	/** @return the settings used for every game */
+	public GameConfig getConfig() {
+		return this.config;
+	}
+
+	/** @return the number of cycles played so far */
+	public int getCycleNum() {
+		return this.cycleNum;
+	}
+
+	/** @return the pathfinder the AI is using */
+	public Pathfinder getPathfinder() {
+		return this.pathfinder;
+	}
+
+	/** @return how much work the current pathfinder has done */
+	public SearchStats getSearchStats() {
+		return this.searchStats;
+	}
+
+	/** @return the moves the AI worked out between cycles */
+	public SpeculativeMove getSpeculation() {
+		return this.speculation;
+	}
+
+	/** @return the parent of every cell reached by the last BFS, as text */
+	public String testing_toStringParent() {
+		return this.search.toStringParents(this.theData);
+	}
+}
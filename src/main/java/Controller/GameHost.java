@@ -0,0 +1,277 @@
+package Controller;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import Model.GameConfig;
+
+/**
+ * Controller.GameHost - Plays lots of games at once, each at its own
+ * pace, on a few shared threads.
+ * <p>
+ * A game played in the applet has a thread of its own, which spends
+ * nearly all its time asleep between cycles. Here, each game
+ * (a Controller.GameSession) has a timer instead: a task on a shared
+ * ScheduledThreadPoolExecutor that fires once every tick period and
+ * plays the ticks that are due. A tick of a small game takes
+ * microseconds, so a handful of threads can keep tens of thousands of
+ * games going, as long as the ticks all add up to less than the time
+ * the threads have (see getLoad).
+ * <p>
+ * Each session has its own Controller.TickScheduler accumulator, so a
+ * session whose timer fires late catches up (by at most
+ * TickScheduler.MAX_CATCH_UP ticks), and stays on its schedule. A
+ * session stops ticking when its game ends, or when it's destroyed;
+ * finished sessions stay on the host (so their results can be read)
+ * until they're destroyed.
+ */
+public class GameHost {
+	/** the threads that play the ticks */
+	private final ScheduledThreadPoolExecutor timers;
+
+	/** the number of threads */
+	private final int threads;
+
+	/** every session on the host, by number */
+	private final Map<Long, GameSession> sessions = new ConcurrentHashMap<Long, GameSession>();
+
+	/** the number of the next session */
+	private final AtomicLong nextId = new AtomicLong(1);
+
+	/** the number of sessions still playing ticks */
+	private final AtomicInteger running = new AtomicInteger();
+
+	/** where the seeds come from, for sessions that aren't given one */
+	private final SplittableRandom seeds = new SplittableRandom();
+
+	/** when the host was made (by System.nanoTime) */
+	private final long startNanos = System.nanoTime();
+
+	// Statistics (added to by all the threads)
+	private final LongAdder created = new LongAdder();
+	private final LongAdder destroyed = new LongAdder();
+	private final LongAdder finished = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	private final LongAdder ticks = new LongAdder();
+	private final LongAdder overruns = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder busyNanos = new LongAdder();
+
+	/**
+	 * Constructor.
+	 * @param inputThreads  how many threads to play the ticks on (at least 1)
+	 */
+	public GameHost(int inputThreads) {
+		if (inputThreads < 1) {
+			throw new IllegalArgumentException("A host needs at least 1 thread, not " + inputThreads);
+		}
+		this.threads = inputThreads;
+		AtomicInteger threadNum = new AtomicInteger();
+		this.timers = new ScheduledThreadPoolExecutor(inputThreads, task -> {
+			Thread thread = new Thread(task, "SnakePro host " + threadNum.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.timers.setRemoveOnCancelPolicy(true); // (or destroyed sessions pile up)
+	}
+
+	/** Constructor; one thread per core. */
+	public GameHost() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/* -------------------------------- */
+	/* Creating and destroying sessions */
+	/* -------------------------------- */
+
+	/**
+	 * Starts a new game, with a seed of its own.
+	 * @param config  the settings for the game
+	 * @return the new session
+	 */
+	public GameSession createSession(GameConfig config) {
+		long seed;
+		synchronized (this.seeds) {
+			seed = this.seeds.nextLong();
+		}
+		return this.createSession(config, seed);
+	}
+
+	/**
+	 * Starts a new game, which ticks once every sleep time (divided by
+	 * the speed) from now on.
+	 * @param config  the settings for the game (the sleep time must be
+	 *                more than 0, and unthrottled is ignored)
+	 * @param seed    the game's seed (see Model.SnakeProData.getSeed)
+	 * @return the new session
+	 */
+	public GameSession createSession(GameConfig config, long seed) {
+		if (config.getSleepTime() == 0) {
+			throw new IllegalArgumentException("Hosted games need a sleep time of at least 1 ms");
+		}
+		if (this.timers.isShutdown()) {
+			throw new IllegalStateException("The host has been shut down");
+		}
+		GameSession session = new GameSession(this.nextId.getAndIncrement(), config, seed);
+		this.sessions.put(session.getId(), session);
+		this.running.incrementAndGet();
+		this.created.increment();
+		long period = session.getPeriodNanos();
+		session.start(this.timers.scheduleAtFixedRate(() -> this.tick(session),
+				period, period, TimeUnit.NANOSECONDS), System.nanoTime());
+		return session;
+	}
+
+	/**
+	 * Stops the given session's ticks (after the one in progress, if
+	 * any), and takes it off the host.
+	 * @return Was the session on the host?
+	 */
+	public boolean destroySession(long id) {
+		GameSession session = this.sessions.remove(id);
+		if (session == null) {
+			return false;
+		}
+		if (session.end()) {
+			this.running.decrementAndGet();
+		}
+		this.destroyed.increment();
+		return true;
+	}
+
+	/** @return the session with the given number (null if there's none on the host) */
+	public GameSession getSession(long id) {
+		return this.sessions.get(id);
+	}
+
+	/** @return every session on the host (a live view) */
+	public Collection<GameSession> getSessions() {
+		return this.sessions.values();
+	}
+
+	/** Stops every session, and the threads (sessions can't be created after this). */
+	public void shutdown() {
+		this.timers.shutdownNow();
+		for (GameSession session : this.sessions.values()) {
+			if (session.end()) {
+				this.running.decrementAndGet();
+			}
+		}
+	}
+
+	/* ------------- */
+	/* Playing ticks */
+	/* ------------- */
+
+	/** Plays the ticks the given session has due (this is what its timer does). */
+	private void tick(GameSession session) {
+		long start = System.nanoTime();
+		long droppedBefore = session.getDroppedTicks();
+		int played = session.playTicksDue(start);
+		long took = System.nanoTime() - start;
+
+		this.ticks.add(played);
+		this.busyNanos.add(took);
+		this.dropped.add(session.getDroppedTicks() - droppedBefore);
+		if (played > 0 && took > played * session.getPeriodNanos()) {
+			this.overruns.increment();
+		}
+		if (session.isFinished() || session.getFailure() != null) {
+			if (session.end()) {
+				this.running.decrementAndGet();
+				if (session.getFailure() != null) {
+					this.failed.increment();
+				} else {
+					this.finished.increment();
+				}
+			}
+		}
+	}
+
+	/* ---------- */
+	/* Statistics */
+	/* ---------- */
+
+	/** @return the number of threads playing the ticks */
+	public int getThreads() {
+		return this.threads;
+	}
+
+	/** @return the number of sessions on the host (including finished ones) */
+	public int getSessionCount() {
+		return this.sessions.size();
+	}
+
+	/** @return the number of sessions still playing ticks */
+	public int getRunningCount() {
+		return this.running.get();
+	}
+
+	/** @return the number of sessions ever created */
+	public long getCreated() {
+		return this.created.sum();
+	}
+
+	/** @return the number of sessions destroyed */
+	public long getDestroyed() {
+		return this.destroyed.sum();
+	}
+
+	/** @return the number of sessions whose game ended with the snake hitting something */
+	public long getFinished() {
+		return this.finished.sum();
+	}
+
+	/** @return the number of sessions stopped because a tick failed */
+	public long getFailed() {
+		return this.failed.sum();
+	}
+
+	/** @return the number of ticks played, over all sessions */
+	public long getTicks() {
+		return this.ticks.sum();
+	}
+
+	/** @return the number of timer firings whose ticks took longer than their periods */
+	public long getOverruns() {
+		return this.overruns.sum();
+	}
+
+	/** @return the number of ticks dropped, rather than caught up on, after stalls */
+	public long getDroppedTicks() {
+		return this.dropped.sum();
+	}
+
+	/** @return ticks played per second, since the host was made */
+	public double getTicksPerSecond() {
+		long elapsed = System.nanoTime() - this.startNanos;
+		return elapsed == 0 ? 0 : this.getTicks() * 1e9 / elapsed;
+	}
+
+	/**
+	 * @return the fraction of the threads' time spent playing ticks since
+	 *         the host was made (near 1, the host is full: sessions start
+	 *         falling behind and dropping ticks)
+	 */
+	public double getLoad() {
+		long elapsed = System.nanoTime() - this.startNanos;
+		return elapsed == 0 ? 0 : this.busyNanos.sum() / ((double) elapsed * this.threads);
+	}
+
+	public String toString() {
+		return String.format("%d sessions (%d running) on %d threads: %d created, %d destroyed, "
+				+ "%d finished, %d failed%n"
+				+ "%d ticks (%.0f ticks/s), %d overruns, %d dropped, load %.1f%%",
+				this.getSessionCount(), this.getRunningCount(), this.threads,
+				this.getCreated(), this.getDestroyed(), this.getFinished(), this.getFailed(),
+				this.getTicks(), this.getTicksPerSecond(), this.getOverruns(),
+				this.getDroppedTicks(), this.getLoad() * 100);
+	}
+}
@@ -0,0 +1,26 @@
+package Controller;
+
+/**
+ * Controller.GameListener - Something that wants to hear what happens in
+ * a game run by a Controller.GameEngine (e.g. a display that redraws the
+ * board, or something that plays sounds).
+ * <p>
+ * Listeners are called on the thread that runs the game, and may look
+ * at the game (see Controller.GameEngine.getData) but not change it.
+ */
+public interface GameListener {
+
+	/**
+	 * Called at the end of every cycle of the game.
+	 * @param game  the game that moved on
+	 */
+	void cycleDone(GameEngine game);
+
+	/** Called when the snake is about to eat food. */
+	default void foodEaten(GameEngine game) {
+	}
+
+	/** Called when the snake has hit something and the game is over. */
+	default void gameOver(GameEngine game) {
+	}
+}
@@ -0,0 +1,182 @@
+package Controller;
+
+import java.util.concurrent.ScheduledFuture;
+
+import Model.GameConfig;
+
+/**
+ * Controller.GameSession - One game hosted by a Controller.GameHost.
+ * <p>
+ * The game's Controller.GameEngine is only ever touched by the host's
+ * threads, one tick at a time. From other threads, send commands (they
+ * wait for the next tick) and read the summary getters, which are
+ * brought up to date after every tick.
+ */
+public class GameSession implements GameListener {
+	/** the session's number, unique within its host */
+	private final long id;
+
+	/** the game */
+	private final GameEngine engine;
+
+	/** works out how many ticks are due (only its accumulator is used) */
+	private final TickScheduler timer;
+
+	/** the session's tick period, in nanoseconds */
+	private final long periodNanos;
+
+	/** the timer task that plays the ticks (null until the host schedules it) */
+	private ScheduledFuture<?> task = null;
+
+	/** Has the session stopped playing ticks (for good)? */
+	private boolean ended = false;
+
+	/** the number of ticks played so far */
+	private volatile long ticks = 0;
+
+	/** the length of the snake after the last tick */
+	private volatile int length;
+
+	/** Has the snake hit something? */
+	private volatile boolean finished = false;
+
+	/** what went wrong, if a tick failed (null if none did) */
+	private volatile RuntimeException failure = null;
+
+	/**
+	 * Constructor; sets up a new game.
+	 * @param inputId  the session's number
+	 * @param config   the settings for the game (its sleep time, divided
+	 *                 by its speed, is the tick period)
+	 * @param seed     the game's seed (see Model.SnakeProData.getSeed)
+	 */
+	GameSession(long inputId, GameConfig config, long seed) {
+		this.id = inputId;
+		this.engine = new GameEngine(config);
+		this.engine.startNewGame(seed);
+		this.engine.addListener(this);
+		this.length = this.engine.getData().getSnakeLength();
+		this.timer = new TickScheduler(() -> { }, config.getSleepTime());
+		this.timer.setSpeed(config.getSpeed());
+		this.periodNanos = Math.max(1, (long) (config.getSleepTime() * 1e6 / config.getSpeed()));
+	}
+
+	/* ---------------------- */
+	/* Called by the GameHost */
+	/* ---------------------- */
+
+	/**
+	 * Remembers the timer task that plays the ticks, and starts owing
+	 * ticks from the given time (by System.nanoTime).
+	 */
+	synchronized void start(ScheduledFuture<?> inputTask, long now) {
+		this.task = inputTask;
+		this.timer.resetClock(now);
+		if (this.ended) {
+			inputTask.cancel(false);
+		}
+	}
+
+	/**
+	 * Stops the ticks for good (the one in progress, if any, finishes).
+	 * @return Was the session still going until now?
+	 */
+	synchronized boolean end() {
+		if (this.ended) {
+			return false;
+		}
+		this.ended = true;
+		if (this.task != null) {
+			this.task.cancel(false);
+		}
+		return true;
+	}
+
+	/**
+	 * Plays the ticks that are due (at most TickScheduler.MAX_CATCH_UP,
+	 * after a stall), stopping if the game ends.
+	 * @param now  the time (by System.nanoTime)
+	 * @return the number of ticks played
+	 */
+	int playTicksDue(long now) {
+		int due = this.timer.ticksDue(now);
+		int played = 0;
+		try {
+			while (played < due && !this.finished) {
+				this.engine.step();
+				played++;
+			}
+		} catch (RuntimeException e) {
+			this.failure = e;
+		}
+		this.ticks += played;
+		this.length = this.engine.getData().getSnakeLength();
+		return played;
+	}
+
+	public void gameOver(GameEngine game) {
+		this.finished = true;
+	}
+
+	public void cycleDone(GameEngine game) {
+	}
+
+	/* ---------------------- */
+	/* Called from any thread */
+	/* ---------------------- */
+
+	/** Queues a command for the game's next tick. */
+	public void send(GameEngine.Command command) {
+		this.engine.send(command);
+	}
+
+	/** @return the session's number */
+	public long getId() {
+		return this.id;
+	}
+
+	/** @return the game's seed */
+	public long getSeed() {
+		return this.engine.getData().getSeed();
+	}
+
+	/** @return the session's tick period, in nanoseconds */
+	public long getPeriodNanos() {
+		return this.periodNanos;
+	}
+
+	/** @return the number of ticks played so far */
+	public long getTicks() {
+		return this.ticks;
+	}
+
+	/** @return the length of the snake after the last tick */
+	public int getLength() {
+		return this.length;
+	}
+
+	/** @return Has the snake hit something? */
+	public boolean isFinished() {
+		return this.finished;
+	}
+
+	/** @return Has the session stopped playing ticks (game over, failed or destroyed)? */
+	public synchronized boolean isEnded() {
+		return this.ended;
+	}
+
+	/** @return what went wrong, if a tick failed (null if none did) */
+	public RuntimeException getFailure() {
+		return this.failure;
+	}
+
+	/** @return the number of ticks dropped, rather than caught up on, after stalls */
+	public long getDroppedTicks() {
+		return this.timer.getDroppedTicks();
+	}
+
+	/** @return the longest any tick started after its slot, in nanoseconds */
+	public long getMaxLateNanos() {
+		return this.timer.getMaxLateNanos();
+	}
+}
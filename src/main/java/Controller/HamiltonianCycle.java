@@ -0,0 +1,132 @@
+package Controller;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Controller.HamiltonianCycle - A route through every interior (non-wall)
+ * cell of a board that ends where it starts, moving one cell north,
+ * south, east or west at a time.
+ * <p>
+ * The cycle only depends on the board's dimensions (the walls are the
+ * ones Model.SnakeProData puts around the edge), so each cycle is built
+ * once and shared by every game on a board of that size.
+ * <p>
+ * The cycle goes along the top interior row, then snakes back and forth
+ * across the remaining rows (leaving out the first column), and returns
+ * up the first column. That needs an even number of rows; if the number
+ * of rows is odd but the number of columns is even, the same is done
+ * with rows and columns swapped. If both are odd, there is no such
+ * cycle at all (colour the cells like a chessboard: each move changes
+ * colour, so a cycle has as many cells of one colour as the other).
+ */
+final class HamiltonianCycle {
+	/** cycles built so far, by board dimensions */
+	private static final ConcurrentHashMap<Long, HamiltonianCycle> CACHE =
+			new ConcurrentHashMap<Long, HamiltonianCycle>();
+
+	/** the cells in the order the cycle visits them (empty if there is no cycle) */
+	private final int[] cells;
+
+	/** where each cell comes in the cycle, or -1 for wall cells */
+	private final int[] positions;
+
+	/**
+	 * @return the cycle for a board of the given size (including walls);
+	 *         check exists(), since some sizes have no cycle
+	 */
+	static HamiltonianCycle forBoard(int numRows, int numColumns) {
+		Long key = ((long) numRows << 32) | numColumns;
+		return CACHE.computeIfAbsent(key, k -> new HamiltonianCycle(numRows, numColumns));
+	}
+
+	/** Constructor; builds the cycle for a board of the given size. */
+	private HamiltonianCycle(int numRows, int numColumns) {
+		this.positions = new int[numRows * numColumns];
+		Arrays.fill(this.positions, -1);
+
+		int tall = numRows - 2;
+		int wide = numColumns - 2;
+		boolean swap = tall % 2 != 0;
+		int across = swap ? tall : wide;
+		int down = swap ? wide : tall;
+		if (tall < 2 || wide < 2 || down % 2 != 0) {
+			this.cells = new int[0];
+			return;
+		}
+
+		// Lay out the cycle with "down" even, then map back to the board.
+		this.cells = new int[tall * wide];
+		int position = 0;
+		for (int b = 0; b < across; b++) {
+			this.cells[position++] = this.toIndex(0, b, swap, numColumns);
+		}
+		for (int a = 1; a < down; a++) {
+			for (int i = 1; i < across; i++) {
+				int b = a % 2 == 1 ? across - i : i;
+				this.cells[position++] = this.toIndex(a, b, swap, numColumns);
+			}
+		}
+		for (int a = down - 1; a > 0; a--) {
+			this.cells[position++] = this.toIndex(a, 0, swap, numColumns);
+		}
+
+		// The snake starts out heading east along the top row, so make
+		// sure the cycle goes that way too.
+		if (this.cells[1] != numColumns + 2) {
+			for (int i = 1, j = this.cells.length - 1; i < j; i++, j--) {
+				int cell = this.cells[i];
+				this.cells[i] = this.cells[j];
+				this.cells[j] = cell;
+			}
+		}
+		for (int i = 0; i < this.cells.length; i++) {
+			this.positions[this.cells[i]] = i;
+		}
+	}
+
+	/**
+	 * @return the board index of interior cell (a, b), where a counts rows
+	 *         and b columns (or the other way round, if swap is true)
+	 */
+	private int toIndex(int a, int b, boolean swap, int numColumns) {
+		int row = swap ? b : a;
+		int column = swap ? a : b;
+		return (row + 1) * numColumns + column + 1;
+	}
+
+	/** @return Is there a cycle for this board size? */
+	boolean exists() {
+		return this.cells.length > 0;
+	}
+
+	/** @return the number of cells in the cycle */
+	int size() {
+		return this.cells.length;
+	}
+
+	/** @return the cell at the given position in the cycle */
+	int getCell(int position) {
+		return this.cells[position];
+	}
+
+	/** @return where the given cell comes in the cycle, or -1 if it's a wall */
+	int getPosition(int cell) {
+		return this.positions[cell];
+	}
+
+	/** @return the cell after the given one in the cycle */
+	int getNext(int cell) {
+		int next = this.positions[cell] + 1;
+		return this.cells[next == this.cells.length ? 0 : next];
+	}
+
+	/**
+	 * @return how many steps along the cycle it takes to get from one
+	 *         cell to the other (both must be in the cycle)
+	 */
+	int distance(int from, int to) {
+		int distance = this.positions[to] - this.positions[from];
+		return distance < 0 ? distance + this.cells.length : distance;
+	}
+}
@@ -0,0 +1,141 @@
+package Controller;
+
+import Model.BoardView;
+import Model.Direction;
+
+/**
+ * Controller.HamiltonianPathfinder - Follows a fixed cycle through every
+ * cell of the board (see Controller.HamiltonianCycle), so the snake can
+ * never trap itself and can go on until it fills the board.
+ * <p>
+ * Following the cycle, the snake's body always lies on the stretch of
+ * the cycle from the tail to the head; the stretch from the head on to
+ * the tail is empty. So the head may safely skip ahead to any neighbor
+ * that lies on that empty stretch, as long as it leaves enough room
+ * behind it for the snake to grow (by one cell for each piece of food
+ * on the board, plus a margin). The pathfinder takes the longest such
+ * shortcut that doesn't go past the nearest food ahead, and stops taking
+ * shortcuts once the snake fills half the board.
+ * <p>
+ * Each move takes constant time (apart from looking through the food
+ * cells). The snake's body is always the cells its head has been in over
+ * its last few moves, so the snake is known to be laid out along the
+ * cycle once this pathfinder has steered it along the cycle for as many
+ * moves as it is long. Until then (at the start, after a reverse, or
+ * when the AI takes over mid-game), it just follows the cycle, with no
+ * shortcuts, checking each move with Controller.MoveSafety. On boards
+ * with no cycle (an odd number of interior rows and of interior
+ * columns), or when the next cell on the cycle is taken, it falls back
+ * on breadth-first search, also checked by Controller.MoveSafety.
+ */
+public class HamiltonianPathfinder implements Pathfinder {
+	/** the name this pathfinder is registered under */
+	public static final String NAME = "hamiltonian";
+
+	/**
+	 * Cells kept free between head and tail (on top of one for each
+	 * piece of food) when taking a shortcut
+	 */
+	static final int SAFETY_MARGIN = 4;
+
+	/** what to do when the cycle can't be used */
+	private final BFSPathfinder fallback = new BFSPathfinder();
+
+	/** checks the moves made before the snake is laid out along the cycle */
+	private final MoveSafety safety = new MoveSafety();
+
+	/** where the head was last time (-1 at first) */
+	private int lastHead = -1;
+
+	/** the move chosen last time, if it went forward along the cycle (-1 if not) */
+	private int lastMove = -1;
+
+	/**
+	 * how many moves in a row, up to lastHead, this pathfinder has
+	 * steered the head forward along the cycle
+	 */
+	private int movesAlongCycle = 0;
+
+	public String getName() {
+		return NAME;
+	}
+
+	/** @return true (moves that might not be safe are checked here) */
+	public boolean avoidsTraps() {
+		return true;
+	}
+
+	public void prepare(BoardView board) {
+		this.fallback.prepare(board);
+		this.safety.prepare(board);
+	}
+
+	public int findNextStep(BoardView board, int head, SearchStats stats) {
+		// (asked again about the same position: nothing has moved)
+		if (head != this.lastHead) {
+			this.movesAlongCycle = head == this.lastMove ? this.movesAlongCycle + 1 : 0;
+			this.lastHead = head;
+		}
+		this.lastMove = -1;
+
+		HamiltonianCycle cycle = HamiltonianCycle.forBoard(
+				board.getNumRows(), board.getNumColumns());
+		if (!cycle.exists() || cycle.getPosition(head) < 0) {
+			return this.safety.chooseMove(board, head,
+					this.fallback.findNextStep(board, head, stats));
+		}
+		int next = cycle.getNext(head);
+		if (!board.isOpen(next)) {
+			return this.safety.chooseMove(board, head,
+					this.fallback.findNextStep(board, head, stats));
+		}
+		stats.recordCellsExpanded(1);
+
+		// Find the nearest food ahead along the cycle.
+		int foodDistance = Integer.MAX_VALUE;
+		for (int k = 0; k < board.getNumFood(); k++) {
+			foodDistance = Math.min(foodDistance, cycle.distance(head, board.getFood(k)));
+		}
+		if (foodDistance != Integer.MAX_VALUE) {
+			stats.recordPathLength(foodDistance);
+		}
+
+		if (this.movesAlongCycle < board.getSnakeLength() - 1) {
+			// Not laid out along the cycle yet: follow it, carefully.
+			int move = this.safety.chooseMove(board, head, next);
+			if (move == next) {
+				this.lastMove = next;
+			}
+			return move;
+		}
+
+		// Take the longest safe shortcut toward it, if any.
+		int tail = board.getSnakeTailIndex();
+		int best = next;
+		if (board.getSnakeLength() * 2 < cycle.size()) {
+			int maxSkip = Math.min(foodDistance,
+					cycle.distance(head, tail) - 1 - board.getNumFood() - SAFETY_MARGIN);
+			int bestSkip = 1;
+			int walls = board.getWallMask(head);
+			for (int direction = 0; direction < Direction.COUNT; direction++) {
+				if ((walls & Direction.bit(direction)) != 0) {
+					continue;
+				}
+				int neighbor = board.getNeighborIndex(head, direction);
+				if (!board.isOpen(neighbor)) {
+					continue;
+				}
+				int skip = cycle.distance(head, neighbor);
+				if (skip > bestSkip && skip <= maxSkip) {
+					best = neighbor;
+					bestSkip = skip;
+				}
+			}
+			if (foodDistance != Integer.MAX_VALUE) {
+				stats.recordPathLength(foodDistance - bestSkip + 1);
+			}
+		}
+		this.lastMove = best;
+		return best;
+	}
+}
@@ -0,0 +1,268 @@
+package Controller;
+
+import java.util.Arrays;
+
+import Model.BoardView;
+import Model.Direction;
+
+/**
+ * Controller.JumpPointPathfinder - Heads for the nearest food along a
+ * shortest path, found by Jump Point Search (the version for grids
+ * without diagonal moves).
+ * <p>
+ * Like Controller.AStarPathfinder, this is a best-first search guided by
+ * Controller.FoodEstimate. The difference is what goes on the heap:
+ * instead of every cell next to the one being expanded, the search runs
+ * straight along each direction worth trying and only stops at a "jump
+ * point", which is
+ * <ul>
+ * <li>a food cell;</li>
+ * <li>a cell where an obstacle beside the run ends, so a new way opens up
+ *     to the side (a "forced neighbor");</li>
+ * <li>when running north or south, a cell from which a run east or west
+ *     reaches a jump point.</li>
+ * </ul>
+ * On open boards, the cells in between are scanned but never put on the
+ * heap, so the number of expansions drops sharply. The paths found are
+ * as short as the ones BFS finds.
+ */
+public class JumpPointPathfinder implements PathPlanner {
+	/** the name this pathfinder is registered under */
+	public static final String NAME = "jps";
+
+	/** the jump points waiting to be expanded, by estimated path length */
+	private final CellHeap open = new CellHeap();
+
+	/** for each reached jump point, the jump point we reached it from */
+	private int[] parents = new int[0];
+
+	/** for each reached jump point, the length of the best path to it so far */
+	private int[] distances = new int[0];
+
+	/** the search in which each cell was reached (0 never matches) */
+	private int[] reachedStamps = new int[0];
+
+	/** the search in which each cell was expanded (0 never matches) */
+	private int[] expandedStamps = new int[0];
+
+	/** the current search */
+	private int epoch = 0;
+
+	/** the lower bound on the distance left to food */
+	private final FoodEstimate estimate = new FoodEstimate();
+
+	/** the board being searched */
+	private BoardView board;
+
+	/** the width of the board being searched */
+	private int numColumns = 1;
+
+	public String getName() {
+		return NAME;
+	}
+
+	public int findNextStep(BoardView board, int head, SearchStats stats) {
+		int found = this.search(board, head, stats);
+		if (found < 0) {
+			return -1;
+		}
+		int firstJumpPoint = found;
+		while (this.parents[firstJumpPoint] != head) {
+			firstJumpPoint = this.parents[firstJumpPoint];
+		}
+		return board.getNeighborIndex(head, this.directionBetween(head, firstJumpPoint));
+	}
+
+	public int findPath(BoardView board, int head, int[] path, SearchStats stats) {
+		int found = this.search(board, head, stats);
+		if (found < 0) {
+			return -1;
+		}
+		// Fill in the straight runs between jump points, back to front.
+		int length = this.distances[found];
+		int position = length - 1;
+		int jumpPoint = found;
+		while (jumpPoint != head) {
+			int parent = this.parents[jumpPoint];
+			int back = Direction.opposite(this.directionBetween(parent, jumpPoint));
+			for (int cell = jumpPoint; cell != parent; cell = board.getNeighborIndex(cell, back)) {
+				path[position--] = cell;
+			}
+			jumpPoint = parent;
+		}
+		return length;
+	}
+
+	/**
+	 * Runs Jump Point Search from head until the nearest food is expanded.
+	 * @return the index of the food found, or -1 if there is none
+	 */
+	private int search(BoardView board, int head, SearchStats stats) {
+		if (board.getNumFood() == 0) {
+			return -1;
+		}
+		this.startSearch(board);
+		int epoch = this.epoch;
+		int expanded = 0;
+		int found = -1;
+
+		this.reachedStamps[head] = epoch;
+		this.parents[head] = -1;
+		this.distances[head] = 0;
+		this.open.addOrLower(head, this.estimate.priority(head, 0));
+		while (!this.open.isEmpty()) {
+			int current = this.open.poll();
+			if (board.isFood(current)) {
+				found = current;
+				break;
+			}
+			this.expandedStamps[current] = epoch;
+			expanded++;
+
+			int parent = this.parents[current];
+			for (int direction = 0; direction < Direction.COUNT; direction++) {
+				if (!this.isWorthTrying(current, parent, direction)) {
+					continue;
+				}
+				int jumpPoint = this.jump(current, direction);
+				if (jumpPoint < 0 || this.expandedStamps[jumpPoint] == epoch) {
+					continue;
+				}
+				int distance = this.distances[current] + this.distanceBetween(current, jumpPoint);
+				if (this.reachedStamps[jumpPoint] != epoch || distance < this.distances[jumpPoint]) {
+					this.reachedStamps[jumpPoint] = epoch;
+					this.parents[jumpPoint] = current;
+					this.distances[jumpPoint] = distance;
+					this.open.addOrLower(jumpPoint, this.estimate.priority(jumpPoint, distance));
+				}
+			}
+		}
+
+		this.board = null;
+		stats.recordCellsExpanded(expanded);
+		if (found >= 0) {
+			stats.recordPathLength(this.distances[found]);
+		}
+		return found;
+	}
+
+	/**
+	 * @return Should the search run from cell in the given direction?
+	 *         From the head, every open direction is tried; after that,
+	 *         the search never turns back, but may carry on or turn to
+	 *         either side.
+	 */
+	private boolean isWorthTrying(int cell, int parent, int direction) {
+		if (!this.isOpenToward(cell, direction)) {
+			return false;
+		}
+		if (parent < 0) {
+			return true;
+		}
+		return direction != Direction.opposite(this.directionBetween(parent, cell));
+	}
+
+	/* ------- */
+	/* Jumping */
+	/* ------- */
+
+	/**
+	 * Runs from the given cell in the given direction.
+	 * @return the first jump point along the way, or -1 if the run hits
+	 *         an obstacle first
+	 */
+	private int jump(int from, int direction) {
+		if (direction == Direction.EAST || direction == Direction.WEST) {
+			return this.jumpAcross(from, direction);
+		}
+		int previous = from;
+		while (this.isOpenToward(previous, direction)) {
+			int cell = this.board.getNeighborIndex(previous, direction);
+			if (this.board.isFood(cell)
+					|| this.opensUp(cell, previous, Direction.EAST)
+					|| this.opensUp(cell, previous, Direction.WEST)
+					|| this.jumpAcross(cell, Direction.EAST) >= 0
+					|| this.jumpAcross(cell, Direction.WEST) >= 0) {
+				return cell;
+			}
+			previous = cell;
+		}
+		return -1;
+	}
+
+	/**
+	 * Runs east or west from the given cell.
+	 * @return the first jump point along the way, or -1 if the run hits
+	 *         an obstacle first
+	 */
+	private int jumpAcross(int from, int direction) {
+		int previous = from;
+		while (this.isOpenToward(previous, direction)) {
+			int cell = this.board.getNeighborIndex(previous, direction);
+			if (this.board.isFood(cell)
+					|| this.opensUp(cell, previous, Direction.NORTH)
+					|| this.opensUp(cell, previous, Direction.SOUTH)) {
+				return cell;
+			}
+			previous = cell;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return Is the way to the given side open at cell, but blocked at
+	 *         the cell the run came from? (i.e., is there a forced
+	 *         neighbor on that side?)
+	 */
+	private boolean opensUp(int cell, int previous, int side) {
+		return this.isOpenToward(cell, side) && !this.isOpenToward(previous, side);
+	}
+
+	/* --------------- */
+	/* Private helpers */
+	/* --------------- */
+
+	/** @return Is the neighbor of cell in the given direction open (or food)? */
+	private boolean isOpenToward(int cell, int direction) {
+		return (this.board.getWallMask(cell) & Direction.bit(direction)) == 0
+				&& this.board.isOpen(this.board.getNeighborIndex(cell, direction));
+	}
+
+	/** @return the number of moves between two cells in the same row or column */
+	private int distanceBetween(int from, int to) {
+		int difference = Math.abs(to - from);
+		if (from / this.numColumns == to / this.numColumns) {
+			return difference;
+		}
+		return difference / this.numColumns;
+	}
+
+	/** @return the direction from one cell to another in the same row or column */
+	private int directionBetween(int from, int to) {
+		if (from / this.numColumns == to / this.numColumns) {
+			return to > from ? Direction.EAST : Direction.WEST;
+		}
+		return to > from ? Direction.SOUTH : Direction.NORTH;
+	}
+
+	/** Gets the arrays and the food targets ready for a new search. */
+	private void startSearch(BoardView board) {
+		int numCells = board.getNumCells();
+		if (this.reachedStamps.length < numCells) {
+			this.parents = new int[numCells];
+			this.distances = new int[numCells];
+			this.reachedStamps = new int[numCells];
+			this.expandedStamps = new int[numCells];
+			this.epoch = 0;
+		} else if (this.epoch == Integer.MAX_VALUE) {
+			Arrays.fill(this.reachedStamps, 0);
+			Arrays.fill(this.expandedStamps, 0);
+			this.epoch = 0;
+		}
+		this.epoch++;
+		this.open.clear(numCells);
+		this.estimate.reset(board);
+		this.board = board;
+		this.numColumns = board.getNumColumns();
+	}
+}
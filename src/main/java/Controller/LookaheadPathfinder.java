@@ -0,0 +1,396 @@
+package Controller;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Model.BoardView;
+import Model.Direction;
+import Model.FoodDistanceField;
+import Model.PlayableBoard;
+
+/**
+ * Controller.LookaheadPathfinder - Looks several moves ahead before
+ * choosing where the head goes.
+ * <p>
+ * For each of the (up to three) moves open to the head, the game is
+ * played forward every possible way on a copy (see
+ * Model.BoardView.copy), to a fixed depth. Each line of play is scored by how much food it
+ * eats (sooner is better), how far it ends up from the next food, and
+ * whether the snake still has room to move at the end; running out of
+ * moves is worst of all, and the later it happens the better. The head
+ * takes the first move of the best line. No new food appears while
+ * looking ahead.
+ * <p>
+ * The search is shared out among the threads of a ForkJoinPool by
+ * the first few moves of each line: each thread keeps its own copy of the
+ * game from one move to the next (see Controller.BoardCopies), and plays
+ * each line out on it, and takes it back, one at a time.
+ * <p>
+ * lookAhead can also be given a deadline, after which the search gives
+ * up (see Controller.AnytimePathfinder).
+ */
+public class LookaheadPathfinder implements Pathfinder {
+	/** the name this pathfinder is registered under */
+	public static final String NAME = "lookahead";
+
+	/** how many moves ahead to look, unless told otherwise */
+	public static final int DEFAULT_DEPTH = 7;
+
+	/** what lookAhead returns if it runs out of time */
+	public static final int OUT_OF_TIME = -2;
+
+	/** the deadline that never comes */
+	public static final long NO_DEADLINE = Long.MAX_VALUE;
+
+	/** how many moves into each line the search splits the work up among its threads */
+	private static final int PARALLEL_DEPTH = 2;
+
+	/**
+	 * the most lines of PARALLEL_DEPTH moves there can be (the head has
+	 * at most three moves, since the snake's neck is never open)
+	 */
+	private static final int MAX_LINES = 9;
+
+	/** the score of a line the search gave up on */
+	private static final long GAVE_UP = Long.MIN_VALUE;
+
+	/** the score of running out of moves right away */
+	private static final long DEAD = -1000000000L;
+
+	/** the score of ending up with less room than the snake's length */
+	private static final long CRAMPED = -1000000L;
+
+	/** the score of eating food on the last move looked at */
+	private static final long FOOD = 10000L;
+
+	/** how many moves ahead to look */
+	private final int depth;
+
+	/** the threads the search runs on (besides the caller) */
+	private final ForkJoinPool pool;
+
+	/** a copy of the game for each thread the search runs on */
+	private final BoardCopies copies;
+
+	/** Constructor; looks DEFAULT_DEPTH moves ahead, using the common pool. */
+	public LookaheadPathfinder() {
+		this(DEFAULT_DEPTH, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor.
+	 * @param inputDepth  how many moves ahead to look (at least 1)
+	 * @param inputPool   the threads to search on
+	 */
+	public LookaheadPathfinder(int inputDepth, ForkJoinPool inputPool) {
+		if (inputDepth < 1) {
+			throw new IllegalArgumentException("Lookahead depth must be at least 1");
+		}
+		this.depth = inputDepth;
+		this.pool = inputPool;
+		this.copies = new BoardCopies(Math.min(inputPool.getParallelism(), MAX_LINES));
+	}
+
+	public String getName() {
+		return NAME;
+	}
+
+	/** @return how many moves ahead this pathfinder looks */
+	public int getDepth() {
+		return this.depth;
+	}
+
+	public void prepare(BoardView board) {
+		this.copies.prepare(board);
+	}
+
+	public int findNextStep(BoardView board, int head, SearchStats stats) {
+		return this.lookAhead(board, head, this.depth, NO_DEADLINE, stats);
+	}
+
+	/**
+	 * Brings the copies of the game that the search plays out on up to
+	 * date, without searching (or making any new ones), so copies not
+	 * searched on for a while don't have to be made again.
+	 * @return roughly how long the next search would be held up making
+	 *         copies, in nanoseconds (0 if they're all up to date)
+	 */
+	public long catchUpCopies(BoardView board) {
+		return this.copies.catchUp(board) ? 0 : this.copies.estimateNanos(board);
+	}
+
+	/**
+	 * Chooses a move by looking the given number of moves ahead, giving
+	 * up if the search is still going at the deadline.
+	 * 
+	 * @param searchDepth  how many moves ahead to look (at least 1)
+	 * @param deadline     when to give up (by System.nanoTime), or
+	 *                     NO_DEADLINE to finish however long it takes
+	 * @return the index of a neighbor of head to move into, -1 if there
+	 *         is none, or OUT_OF_TIME if the search gave up
+	 */
+	public int lookAhead(BoardView board, int head, int searchDepth, long deadline,
+			SearchStats stats) {
+		// Every line of the first few moves, worked out on the caller's copy
+		PlayableBoard first = this.copies.get(0, board);
+		List<int[]> lines = new ArrayList<int[]>();
+		findLines(first, new int[PARALLEL_DEPTH], 0, Math.min(searchDepth, PARALLEL_DEPTH), lines);
+
+		// Search them on as many threads as there are copies (or lines)
+		AtomicInteger nextLine = new AtomicInteger();
+		long[] scores = new long[lines.size()];
+		Arrays.fill(scores, GAVE_UP);
+		List<Worker> workers = new ArrayList<Worker>();
+		List<ForkJoinTask<?>> helpers = new ArrayList<ForkJoinTask<?>>();
+		for (int k = 0; k < Math.min(this.copies.size(), lines.size()); k++) {
+			Worker worker = new Worker(this.copies, k, board, lines, nextLine, scores,
+					searchDepth, deadline);
+			workers.add(worker);
+			if (k > 0) {
+				helpers.add(this.pool.submit(worker));
+			}
+		}
+		if (!workers.isEmpty()) {
+			workers.get(0).run();
+		}
+		for (ForkJoinTask<?> helper : helpers) {
+			helper.join();
+		}
+		long positions = 0;
+		for (Worker worker : workers) {
+			positions += worker.positions;
+		}
+		stats.recordCellsExpanded((int) Math.min(positions, Integer.MAX_VALUE));
+
+		// The best line decides (the first of the best, in direction order)
+		int best = -1;
+		long bestScore = Long.MIN_VALUE;
+		for (int i = 0; i < lines.size(); i++) {
+			if (scores[i] == GAVE_UP) {
+				return OUT_OF_TIME;
+			}
+			if (best < 0 || scores[i] > bestScore) {
+				best = lines.get(i)[0];
+				bestScore = scores[i];
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Adds every line of play of the given length from the current
+	 * position to lines, in direction order, plus any shorter line
+	 * that runs out of moves (which is taken back afterwards).
+	 * @param game       the game the lines are played out on
+	 * @param line       the moves made so far (room for the whole line)
+	 * @param length     how many moves have been made so far
+	 * @param maxLength  how long a line to find
+	 */
+	private static void findLines(PlayableBoard game, int[] line, int length, int maxLength,
+			List<int[]> lines) {
+		if (length == maxLength) {
+			lines.add(Arrays.copyOf(line, length));
+			return;
+		}
+		int head = game.getSnakeHeadIndex();
+		boolean anyMove = false;
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			int next = game.getOpenNeighbor(head, direction);
+			if (next < 0) {
+				continue;
+			}
+			line[length] = next;
+			int undo = game.simulateMove(next);
+			findLines(game, line, length + 1, maxLength, lines);
+			game.undoMove(undo);
+			anyMove = true;
+		}
+		if (!anyMove && length > 0) {
+			lines.add(Arrays.copyOf(line, length));
+		}
+	}
+
+	/* ------- */
+	/* Scoring */
+	/* ------- */
+
+	/**
+	 * @param moves  how many moves have been made so far in this line
+	 * @return the score of a line in which the snake has nowhere to go
+	 *         after the given number of moves
+	 */
+	private static long deadScore(int moves) {
+		return DEAD + moves;
+	}
+
+	/**
+	 * @param moves        how many moves have been made so far in this line
+	 * @param searchDepth  how many moves ahead the search looks
+	 * @return what eating food on the given move adds to a line's score
+	 */
+	private static long foodScore(int moves, int searchDepth) {
+		return FOOD * (searchDepth + 1 - moves);
+	}
+
+	/**
+	 * @param game   the game at the end of a line of play
+	 * @param eaten  the food score collected along the line
+	 * @return the score of the line
+	 */
+	private static long leafScore(PlayableBoard game, long eaten) {
+		long score = eaten;
+		int head = game.getSnakeHeadIndex();
+		int room = game.countCellsReachableFromHead();
+		if (room < game.getSnakeLength()) {
+			score += CRAMPED + room;
+		}
+		if (game.getNumFood() > 0) {
+			int closest = FoodDistanceField.UNREACHABLE;
+			for (int direction = 0; direction < Direction.COUNT; direction++) {
+				if ((game.getWallMask(head) & Direction.bit(direction)) == 0) {
+					int next = game.getNeighborIndex(head, direction);
+					closest = Math.min(closest, game.getFoodDistances().getDistance(next));
+				}
+			}
+			if (closest != FoodDistanceField.UNREACHABLE) {
+				score -= closest;
+			}
+		}
+		return score;
+	}
+
+	/* ------- */
+	/* Workers */
+	/* ------- */
+
+	/**
+	 * One of the threads of a search: it takes the next line nobody has
+	 * taken yet, plays it out on its own copy of the game, searches
+	 * every line from there (taking each move back afterwards), and goes
+	 * on to the next, until there are none left or the deadline passes.
+	 */
+	private static final class Worker implements Runnable {
+		/** where this worker's copy of the game comes from */
+		private final BoardCopies copies;
+
+		/** which of the copies is this worker's */
+		private final int copyIndex;
+
+		/** the game being searched */
+		private final BoardView board;
+
+		/** the lines of the first few moves, shared by all the workers */
+		private final List<int[]> lines;
+
+		/** the next line nobody has taken yet */
+		private final AtomicInteger nextLine;
+
+		/** the best score from the end of each line (GAVE_UP until it's known) */
+		private final long[] scores;
+
+		/** how many moves ahead the search looks */
+		private final int depth;
+
+		/** when to give up (by System.nanoTime), or NO_DEADLINE */
+		private final long deadline;
+
+		/** this worker's copy of the game (once it has started) */
+		private PlayableBoard game;
+
+		/** the number of positions looked at by this worker */
+		long positions = 0;
+
+		Worker(BoardCopies inputCopies, int inputCopyIndex, BoardView inputBoard,
+				List<int[]> inputLines, AtomicInteger inputNextLine, long[] inputScores,
+				int inputDepth, long inputDeadline) {
+			this.copies = inputCopies;
+			this.copyIndex = inputCopyIndex;
+			this.board = inputBoard;
+			this.lines = inputLines;
+			this.nextLine = inputNextLine;
+			this.scores = inputScores;
+			this.depth = inputDepth;
+			this.deadline = inputDeadline;
+		}
+
+		public void run() {
+			this.game = this.copies.get(this.copyIndex, this.board);
+			int i;
+			while (!this.isPastDeadline() && (i = this.nextLine.getAndIncrement()) < this.lines.size()) {
+				this.scores[i] = this.scoreLine(this.lines.get(i));
+			}
+		}
+
+		/**
+		 * Plays the given line out, searches on from where it ends, and
+		 * takes it back.
+		 * @return the best score of any line from there, or GAVE_UP if
+		 *         the deadline passed first
+		 */
+		private long scoreLine(int[] line) {
+			long eaten = 0;
+			int[] undo = new int[line.length];
+			for (int move = 0; move < line.length; move++) {
+				if (this.game.isFood(line[move])) {
+					eaten += foodScore(move + 1, this.depth);
+				}
+				undo[move] = this.game.simulateMove(line[move]);
+				this.positions++;
+			}
+			long score = this.search(line.length, eaten);
+			for (int move = line.length - 1; move >= 0; move--) {
+				this.game.undoMove(undo[move]);
+			}
+			return score;
+		}
+
+		/**
+		 * Plays every line forward from the current position of this.game,
+		 * one at a time, taking each move back afterwards.
+		 * @param movesMade  how many moves have been made in this line
+		 * @param eatenNow   the food score collected along the line so far
+		 * @return the best score of any line from here, or GAVE_UP if the
+		 *         deadline passed first
+		 */
+		private long search(int movesMade, long eatenNow) {
+			if (movesMade >= this.depth) {
+				return leafScore(this.game, eatenNow);
+			}
+			if (this.isPastDeadline()) {
+				return GAVE_UP;
+			}
+			int head = this.game.getSnakeHeadIndex();
+			long best = Long.MIN_VALUE;
+			boolean anyMove = false;
+			for (int direction = 0; direction < Direction.COUNT; direction++) {
+				int next = this.game.getOpenNeighbor(head, direction);
+				if (next < 0) {
+					continue;
+				}
+				long eatenNext = eatenNow;
+				if (this.game.isFood(next)) {
+					eatenNext += foodScore(movesMade + 1, this.depth);
+				}
+				int undo = this.game.simulateMove(next);
+				this.positions++;
+				long score = this.search(movesMade + 1, eatenNext);
+				this.game.undoMove(undo);
+				if (score == GAVE_UP) {
+					return GAVE_UP;
+				}
+				best = Math.max(best, score);
+				anyMove = true;
+			}
+			return anyMove ? best : deadScore(movesMade);
+		}
+
+		/** @return Is it time to give up? */
+		private boolean isPastDeadline() {
+			return this.deadline != NO_DEADLINE && System.nanoTime() - this.deadline > 0;
+		}
+	}
+}
@@ -0,0 +1,413 @@
+package Controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import Model.BoardView;
+import Model.Direction;
+import Model.FoodDistanceField;
+import Model.PlayableBoard;
+import Model.Preferences;
+
+/**
+ * Controller.MonteCarloPathfinder - Chooses moves by Monte Carlo tree
+ * search: it plays lots of quick, partly random games forward from the
+ * current position until its time for this move is up, and then takes
+ * the move that was tried the most.
+ * <p>
+ * Each playout walks down a tree of moves shared by all the searching
+ * threads (choosing moves by the UCB1 rule), adds a new move to the tree,
+ * and then finishes the game up to HORIZON moves ahead, stepping toward
+ * food most of the time and at random otherwise. No new food appears in
+ * a playout. A playout is scored between 0 and 1:
+ * <ul>
+ * <li>running out of moves scores below any playout that survives, and
+ *     the later it happens the better;</li>
+ * <li>surviving scores more with more room left to move in;</li>
+ * <li>getting to food adds more the sooner it happens, compared to the
+ *     shortest way there (if the playout doesn't get there, it's
+ *     assumed to take the shortest way from where it ends up).</li>
+ * </ul>
+ * The tree is lock-free: children are added with a single
+ * compare-and-set, and visits and scores are atomic counters. A thread
+ * counts its visit on the way down, before its playout is scored, so
+ * other threads see that move as a little worse in the meantime and try
+ * something else. Each thread plays out on its own copy of the game,
+ * kept from one move to the next (see Controller.BoardCopies), with its
+ * own random numbers. A thread that starts after the deadline, or would
+ * have to copy the whole board and can't do so in time, doesn't play
+ * out at all; if no thread does, the head steps toward food.
+ * <p>
+ * The time budget is set with setTimeBudget (the game uses its planning
+ * time, see Model.GameConfig).
+ */
+public class MonteCarloPathfinder implements Pathfinder {
+	/** the name this pathfinder is registered under */
+	public static final String NAME = "mcts";
+
+	/** how many moves ahead a playout goes (counting the moves in the tree) */
+	public static final int HORIZON = 30;
+
+	/** the chance that a playout steps toward food, rather than at random */
+	private static final double GREEDY = 0.9;
+
+	/** how much UCB1 favors moves that have been tried less */
+	private static final double EXPLORATION = 0.5;
+
+	/** the scores in the tree are kept as fixed-point numbers with this scale */
+	private static final long SCALE = 1000000L;
+
+	/** the threads the search runs on (besides the caller) */
+	private final ForkJoinPool pool;
+
+	/** a copy of the game for each thread the search runs on */
+	private final BoardCopies copies;
+
+	/** how long each search may take, in nanoseconds */
+	private long budgetNanos;
+
+	/** Constructor; searches on the common pool, with the default planning time. */
+	public MonteCarloPathfinder() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor; uses the default planning time.
+	 * @param inputPool  the threads to search on (besides the caller)
+	 */
+	public MonteCarloPathfinder(ForkJoinPool inputPool) {
+		this.pool = inputPool;
+		this.copies = new BoardCopies(inputPool.getParallelism());
+		this.setTimeBudget(Preferences.PLANNING_TIME);
+	}
+
+	public String getName() {
+		return NAME;
+	}
+
+	public void setTimeBudget(int milliseconds) {
+		this.budgetNanos = Math.max(1, milliseconds) * 1000000L;
+	}
+
+	/** @return how long each search may take, in nanoseconds */
+	public long getBudgetNanos() {
+		return this.budgetNanos;
+	}
+
+	public void prepare(BoardView board) {
+		board.getFoodDistances();
+		this.copies.prepare(board);
+	}
+
+	public int findNextStep(BoardView board, int head, SearchStats stats) {
+		Node root = new Node(head);
+		Node[] moves = root.getChildren(board);
+		if (moves.length <= 1) {
+			// Nothing to think about.
+			return moves.length == 0 ? -1 : moves[0].cell;
+		}
+
+		long deadline = System.nanoTime() + this.budgetNanos;
+		List<ForkJoinTask<Integer>> helpers = new ArrayList<ForkJoinTask<Integer>>();
+		for (int k = 1; k < this.copies.size(); k++) {
+			helpers.add(this.pool.submit(new Worker(this.copies, k, board, root, deadline)));
+		}
+		int playouts = new Worker(this.copies, 0, board, root, deadline).call();
+		for (ForkJoinTask<Integer> helper : helpers) {
+			playouts += helper.join();
+		}
+		stats.recordCellsExpanded(playouts);
+		if (playouts == 0) {
+			// No time to play anything out: step toward food.
+			Node closest = moves[0];
+			FoodDistanceField distances = board.getFoodDistances();
+			for (Node move : moves) {
+				if (distances.getDistance(move.cell) < distances.getDistance(closest.cell)) {
+					closest = move;
+				}
+			}
+			return closest.cell;
+		}
+
+		Node best = moves[0];
+		for (Node move : moves) {
+			int visits = move.visits.get();
+			if (visits > best.visits.get()
+					|| (visits == best.visits.get() && move.value.get() > best.value.get())) {
+				best = move;
+			}
+		}
+		return best.cell;
+	}
+
+	/* -------- */
+	/* The tree */
+	/* -------- */
+
+	/** A position in the search tree: the snake head has just moved into cell. */
+	private static final class Node {
+		/** no moves at all */
+		private static final Node[] NONE = new Node[0];
+
+		/** where the head is */
+		final int cell;
+
+		/** how many playouts have passed through here */
+		final AtomicInteger visits = new AtomicInteger();
+
+		/** the total score of those playouts (times SCALE) */
+		final AtomicLong value = new AtomicLong();
+
+		/** the moves from here, once someone has looked */
+		private final AtomicReference<Node[]> children = new AtomicReference<Node[]>();
+
+		Node(int inputCell) {
+			this.cell = inputCell;
+		}
+
+		/**
+		 * @param game  the game, with the head at this.cell
+		 * @return the moves from here (added to the tree the first time)
+		 */
+		Node[] getChildren(BoardView game) {
+			Node[] known = this.children.get();
+			if (known != null) {
+				return known;
+			}
+			List<Node> moves = new ArrayList<Node>(Direction.COUNT);
+			for (int direction = 0; direction < Direction.COUNT; direction++) {
+				int next = game.getOpenNeighbor(this.cell, direction);
+				if (next >= 0) {
+					moves.add(new Node(next));
+				}
+			}
+			Node[] found = moves.isEmpty() ? NONE : moves.toArray(new Node[moves.size()]);
+			// If another thread got here first, use its children.
+			return this.children.compareAndSet(null, found) ? found : this.children.get();
+		}
+
+		/** @return the child to try next, by the UCB1 rule */
+		Node select(Node[] moves) {
+			double logVisits = Math.log(Math.max(1, this.visits.get()));
+			Node best = null;
+			double bestBound = Double.NEGATIVE_INFINITY;
+			for (Node move : moves) {
+				int n = move.visits.get();
+				if (n == 0) {
+					return move;
+				}
+				double mean = move.value.get() / (double) (n * SCALE);
+				double bound = mean + EXPLORATION * Math.sqrt(logVisits / n);
+				if (bound > bestBound) {
+					best = move;
+					bestBound = bound;
+				}
+			}
+			return best;
+		}
+	}
+
+	/* -------- */
+	/* Playouts */
+	/* -------- */
+
+	/**
+	 * Runs playouts until the deadline on its own copy of the game,
+	 * adding what it learns to the shared tree. The copy is brought up
+	 * to date on the worker's own thread, and only if there's time left.
+	 */
+	private static final class Worker implements Callable<Integer> {
+		/** where this worker's copy of the game comes from */
+		private final BoardCopies copies;
+
+		/** which of the copies is this worker's */
+		private final int copyIndex;
+
+		/** the game being searched */
+		private final BoardView board;
+
+		/** this worker's own copy of the game, always put back as it was (once it has started) */
+		private PlayableBoard game;
+
+		/** the top of the shared tree */
+		private final Node root;
+
+		/** when to stop (by System.nanoTime) */
+		private final long deadline;
+
+		/** for each move of the current playout, what undoes it */
+		private final int[] undo = new int[HORIZON];
+
+		/** the tree nodes passed through by the current playout */
+		private final Node[] path = new Node[HORIZON];
+
+		/** how far the head started from food */
+		private int startDistance;
+
+		Worker(BoardCopies inputCopies, int inputCopyIndex, BoardView inputBoard, Node inputRoot,
+				long inputDeadline) {
+			this.copies = inputCopies;
+			this.copyIndex = inputCopyIndex;
+			this.board = inputBoard;
+			this.root = inputRoot;
+			this.deadline = inputDeadline;
+		}
+
+		public Integer call() {
+			if (System.nanoTime() >= this.deadline) {
+				return 0;
+			}
+			this.game = this.copies.get(this.copyIndex, this.board, this.deadline);
+			if (this.game == null) {
+				return 0;
+			}
+			this.startDistance = distanceToFood(this.game);
+			int playouts = 0;
+			while (System.nanoTime() < this.deadline) {
+				this.playout();
+				playouts++;
+			}
+			return playouts;
+		}
+
+		/** Plays one game forward, scores it, and takes all its moves back. */
+		private void playout() {
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			int moves = 0;
+			int firstFood = -1;
+			boolean dead = false;
+
+			// Down the tree...
+			Node node = this.root;
+			node.visits.incrementAndGet();
+			while (moves < HORIZON) {
+				Node[] children = node.getChildren(this.game);
+				if (children.length == 0) {
+					dead = true;
+					break;
+				}
+				Node child = node.select(children);
+				boolean isNew = child.visits.incrementAndGet() == 1;
+				if (firstFood < 0 && this.game.isFood(child.cell)) {
+					firstFood = moves + 1;
+				}
+				this.undo[moves] = this.game.simulateMove(child.cell);
+				this.path[moves] = child;
+				moves++;
+				node = child;
+				if (isNew) {
+					break;
+				}
+			}
+			int treeMoves = moves;
+
+			// ... and on to the horizon.
+			while (!dead && moves < HORIZON) {
+				int next = this.chooseMove(random);
+				if (next < 0) {
+					dead = true;
+				} else {
+					if (firstFood < 0 && this.game.isFood(next)) {
+						firstFood = moves + 1;
+					}
+					this.undo[moves] = this.game.simulateMove(next);
+					moves++;
+				}
+			}
+
+			long score = Math.round(this.score(moves, dead, firstFood) * SCALE);
+			for (int i = 0; i < treeMoves; i++) {
+				this.path[i].value.addAndGet(score);
+			}
+			while (moves > 0) {
+				moves--;
+				this.game.undoMove(this.undo[moves]);
+			}
+		}
+
+		/**
+		 * @return the next move of a playout: usually the neighbor closest
+		 *         to food, otherwise a random open one; -1 if there is none
+		 */
+		private int chooseMove(ThreadLocalRandom random) {
+			int head = this.game.getSnakeHeadIndex();
+			FoodDistanceField distances = this.game.getFoodDistances();
+			boolean greedy = random.nextDouble() < GREEDY;
+			int chosen = -1;
+			int bestDistance = Integer.MAX_VALUE;
+			int numSeen = 0;
+			for (int direction = 0; direction < Direction.COUNT; direction++) {
+				int next = this.game.getOpenNeighbor(head, direction);
+				if (next < 0) {
+					continue;
+				}
+				numSeen++;
+				if (greedy) {
+					int distance = distances.getDistance(next);
+					if (chosen < 0 || distance < bestDistance) {
+						chosen = next;
+						bestDistance = distance;
+					}
+				} else if (random.nextInt(numSeen) == 0) {
+					chosen = next; // each open neighbor equally likely
+				}
+			}
+			return chosen;
+		}
+
+		/**
+		 * @param moves      how many moves the playout made
+		 * @param dead       Did the snake run out of moves?
+		 * @param firstFood  the move on which food was first eaten, or -1
+		 * @return the playout's score, between 0 and 1
+		 */
+		private double score(int moves, boolean dead, int firstFood) {
+			if (dead) {
+				return 0.3 * moves / HORIZON;
+			}
+			int room = this.game.countCellsReachableFromHead();
+			double score = 0.3 + 0.3 * Math.min(1.0, room / (double) this.game.getSnakeLength());
+			if (this.startDistance == FoodDistanceField.UNREACHABLE) {
+				return score;
+			}
+
+			// How long did (or will) it take to get to food, compared to
+			// the shortest way there?
+			int movesToFood = firstFood;
+			if (firstFood < 0) {
+				int distance = distanceToFood(this.game);
+				if (distance == FoodDistanceField.UNREACHABLE) {
+					return score;
+				}
+				movesToFood = moves + distance;
+			}
+			return score + 0.4 * Math.min(1.0,
+					(this.startDistance + 1) / (double) (movesToFood + 1));
+		}
+	}
+
+	/* --------------- */
+	/* Private helpers */
+	/* --------------- */
+
+	/** @return how many moves the head is from food, or UNREACHABLE */
+	private static int distanceToFood(BoardView game) {
+		int head = game.getSnakeHeadIndex();
+		FoodDistanceField distances = game.getFoodDistances();
+		int closest = FoodDistanceField.UNREACHABLE;
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			int next = game.getOpenNeighbor(head, direction);
+			if (next >= 0) {
+				closest = Math.min(closest, distances.getDistance(next));
+			}
+		}
+		return closest == FoodDistanceField.UNREACHABLE ? closest : closest + 1;
+	}
+}
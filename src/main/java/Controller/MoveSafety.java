@@ -0,0 +1,176 @@
+package Controller;
+
+import java.util.Arrays;
+
+import Model.BoardView;
+import Model.ComponentLabels;
+import Model.Direction;
+
+/**
+ * Controller.MoveSafety - Checks that a move won't shut the snake's head
+ * into a pocket it can't get out of.
+ * <p>
+ * A move is safe if, afterwards, the head can still reach the tail (which
+ * keeps moving away, freeing up room), or has at least as many open
+ * cells around it as the snake is long. The regions of open space come
+ * from the board's Model.ComponentLabels, so most checks just compare
+ * labels and sizes; only when the move could cut a region in two is a
+ * flood fill needed, and it stops as soon as it has seen enough.
+ */
+public class MoveSafety {
+	/** cells waiting to be expanded by the flood fill */
+	private int[] queue = new int[0];
+
+	/** the flood fill in which each cell was reached (0 never matches) */
+	private int[] stamps = new int[0];
+
+	/** the current flood fill */
+	private int epoch = 0;
+
+	/** number of moves replaced because they weren't safe */
+	private long movesReplaced = 0;
+
+	/**
+	 * Gets a game ready for checking moves: builds its region labels (on
+	 * the thread that runs the game; see Controller.Pathfinder.prepare).
+	 */
+	public void prepare(BoardView board) {
+		board.getComponentLabels();
+	}
+
+	/**
+	 * @param proposed  the move a pathfinder chose, or -1 if it had none
+	 * @return proposed, if it's safe; if not, the safe move (if any) into
+	 *         the biggest region of open space; failing that, proposed
+	 *         (or, if that's -1, any open neighbor of head)
+	 */
+	public int chooseMove(BoardView board, int head, int proposed) {
+		if (proposed >= 0 && this.isSafe(board, proposed)) {
+			return proposed;
+		}
+		ComponentLabels labels = board.getComponentLabels();
+		int best = -1;
+		int bestSize = -1;
+		int fallback = proposed;
+		int walls = board.getWallMask(head);
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			if ((walls & Direction.bit(direction)) != 0) {
+				continue;
+			}
+			int neighbor = board.getNeighborIndex(head, direction);
+			if (neighbor == proposed || !board.isOpen(neighbor)) {
+				continue;
+			}
+			if (fallback < 0) {
+				fallback = neighbor;
+			}
+			int size = labels.getSize(labels.getLabel(neighbor));
+			if (size > bestSize && this.isSafe(board, neighbor)) {
+				best = neighbor;
+				bestSize = size;
+			}
+		}
+		if (best >= 0 && proposed >= 0) {
+			this.movesReplaced++;
+		}
+		return best >= 0 ? best : fallback;
+	}
+
+	/**
+	 * @param next  an open cell next to the snake head
+	 * @return Would the head still be able to reach the tail, or enough
+	 *         open space to hold the snake, after moving into next?
+	 */
+	public boolean isSafe(BoardView board, int next) {
+		int tail = board.getSnakeTailIndex();
+		if (!board.isFood(next) && this.areNeighbors(board, next, tail)) {
+			return true; // just follow the tail
+		}
+		ComponentLabels labels = board.getComponentLabels();
+		int label = labels.getLabel(next);
+		if (label == ComponentLabels.NONE) {
+			return false;
+		}
+		int needed = board.getSnakeLength();
+		if (!labels.mightSplit(next)) {
+			// The rest of next's region stays in one piece.
+			return this.regionTouches(board, labels, label, tail, next)
+					|| labels.getSize(label) - 1 >= needed;
+		}
+		return this.floodFinds(board, next, tail, needed);
+	}
+
+	/** @return the number of moves replaced because they weren't safe */
+	public long getMovesReplaced() {
+		return this.movesReplaced;
+	}
+
+	/* --------------- */
+	/* Private helpers */
+	/* --------------- */
+
+	/** @return Is a cell (other than except) with the given label next to target? */
+	private boolean regionTouches(BoardView board, ComponentLabels labels,
+			int label, int target, int except) {
+		int walls = board.getWallMask(target);
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			if ((walls & Direction.bit(direction)) == 0) {
+				int neighbor = board.getNeighborIndex(target, direction);
+				if (neighbor != except && labels.getLabel(neighbor) == label) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Flood fills the open cells reachable from the neighbors of start
+	 * (without going through start itself).
+	 * @return Did the fill reach a cell next to target, or at least
+	 *         needed cells?
+	 */
+	private boolean floodFinds(BoardView board, int start, int target, int needed) {
+		int numCells = board.getNumCells();
+		if (this.stamps.length < numCells) {
+			this.queue = new int[numCells];
+			this.stamps = new int[numCells];
+			this.epoch = 0;
+		} else if (this.epoch == Integer.MAX_VALUE) {
+			Arrays.fill(this.stamps, 0);
+			this.epoch = 0;
+		}
+		this.epoch++;
+		int head = 0;
+		int tail = 0;
+		this.stamps[start] = this.epoch;
+		this.queue[tail++] = start;
+		while (head < tail) {
+			int cell = this.queue[head++];
+			int walls = board.getWallMask(cell);
+			for (int direction = 0; direction < Direction.COUNT; direction++) {
+				if ((walls & Direction.bit(direction)) != 0) {
+					continue;
+				}
+				int neighbor = board.getNeighborIndex(cell, direction);
+				if (this.stamps[neighbor] == this.epoch || !board.isOpen(neighbor)) {
+					continue;
+				}
+				if (tail > needed || this.areNeighbors(board, neighbor, target)) {
+					return true;
+				}
+				this.stamps[neighbor] = this.epoch;
+				this.queue[tail++] = neighbor;
+			}
+		}
+		return false;
+	}
+
+	/** @return Are the two cells next to each other? */
+	private boolean areNeighbors(BoardView board, int a, int b) {
+		int numColumns = board.getNumColumns();
+		int rowDifference = Math.abs(a / numColumns - b / numColumns);
+		int columnDifference = Math.abs(a % numColumns - b % numColumns);
+		return rowDifference + columnDifference == 1;
+	}
+}
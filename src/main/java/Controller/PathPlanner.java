@@ -0,0 +1,24 @@
+package Controller;
+
+import Model.BoardView;
+
+/**
+ * Controller.PathPlanner - A Controller.Pathfinder that can hand back the
+ * whole path to the food it's heading for, not just the first step, so
+ * the path can be reused on later moves (see Controller.CachingPathfinder).
+ */
+public interface PathPlanner extends Pathfinder {
+	/**
+	 * Finds a path from the head to (the nearest) food.
+	 * 
+	 * @param board  the board, which the planner must not change
+	 * @param head   the index of the cell containing the snake's head
+	 * @param path   gets the cells of the path, starting with the one
+	 *               next to head and ending with the food; must have
+	 *               room for board.getNumCells() cells
+	 * @param stats  where to record how much work the search took
+	 * @return the number of cells in the path, or -1 if no food can be
+	 *         reached
+	 */
+	int findPath(BoardView board, int head, int[] path, SearchStats stats);
+}
@@ -0,0 +1,61 @@
+package Controller;
+
+import Model.BoardView;
+
+/**
+ * Controller.Pathfinder - A strategy for choosing the AI snake's next move.
+ * <p>
+ * Pathfinders are created by name through Controller.PathfinderRegistry.
+ * A pathfinder may keep scratch space from one move to the next, so each
+ * game (or thread) should use its own.
+ * <p>
+ * A game only builds the structures a pathfinder reads from it (see
+ * prepare), so a game played by breadth-first search pays for no
+ * distance field or region labels.
+ */
+public interface Pathfinder {
+	/** @return the name the pathfinder is registered under */
+	String getName();
+
+	/**
+	 * Chooses where the snake head should move next.
+	 * 
+	 * @param board  the board, which the pathfinder must not change
+	 * @param head   the index of the cell containing the snake's head
+	 * @param stats  where to record how much work the search took
+	 * @return the index of a neighbor of head to move into, or -1 if
+	 *         the pathfinder can't find any food to head toward
+	 */
+	int findNextStep(BoardView board, int head, SearchStats stats);
+
+	/**
+	 * Gets a game ready for this pathfinder: asks the board for the
+	 * structures findNextStep will read from it (e.g. its distance field
+	 * or region labels), so that they're built now, on the thread that
+	 * runs the game, and not later (perhaps on another thread) in the
+	 * middle of a search. Called when the pathfinder is installed and
+	 * whenever a new game starts (see Controller.GameEngine).
+	 * 
+	 * @param board  the game that findNextStep will be asked about
+	 */
+	default void prepare(BoardView board) {
+	}
+
+	/**
+	 * @return Does this pathfinder already make sure the snake can't trap
+	 *         itself? If not, its moves are checked by Controller.MoveSafety.
+	 */
+	default boolean avoidsTraps() {
+		return false;
+	}
+
+	/**
+	 * Tells the pathfinder how long it may take to choose a move.
+	 * Pathfinders that search until a deadline use this as their time
+	 * budget; the others ignore it.
+	 * 
+	 * @param milliseconds  the time allowed for each call to findNextStep
+	 */
+	default void setTimeBudget(int milliseconds) {
+	}
+}
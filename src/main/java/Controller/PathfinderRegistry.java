@@ -0,0 +1,75 @@
+package Controller;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Controller.PathfinderRegistry - The pathfinders the AI can use, by name.
+ * <p>
+ * A game picks its pathfinder with the snakepro.pathfinder setting (see
+ * Model.GameConfig); while playing, the pathfinder key switches to the
+ * next one in registration order. New strategies only need to be
+ * registered here; the game loop doesn't change.
+ */
+public final class PathfinderRegistry {
+	/** factories for the registered pathfinders, in registration order */
+	private static final Map<String, Supplier<Pathfinder>> FACTORIES =
+			new LinkedHashMap<String, Supplier<Pathfinder>>();
+
+	static {
+		register(BFSPathfinder.NAME, BFSPathfinder::new);
+		register(DistanceFieldPathfinder.NAME, DistanceFieldPathfinder::new);
+		register(AStarPathfinder.NAME, AStarPathfinder::new);
+		register(JumpPointPathfinder.NAME, JumpPointPathfinder::new);
+		register(HamiltonianPathfinder.NAME, HamiltonianPathfinder::new);
+		register(BidirectionalPathfinder.NAME, BidirectionalPathfinder::new);
+		register(BFSPathfinder.NAME + CachingPathfinder.SUFFIX,
+				() -> new CachingPathfinder(new BFSPathfinder()));
+		register(AStarPathfinder.NAME + CachingPathfinder.SUFFIX,
+				() -> new CachingPathfinder(new AStarPathfinder()));
+		register(JumpPointPathfinder.NAME + CachingPathfinder.SUFFIX,
+				() -> new CachingPathfinder(new JumpPointPathfinder()));
+		register(LookaheadPathfinder.NAME, LookaheadPathfinder::new);
+		register(MonteCarloPathfinder.NAME, MonteCarloPathfinder::new);
+		register(AnytimePathfinder.NAME, AnytimePathfinder::new);
+	}
+
+	private PathfinderRegistry() {
+	}
+
+	/**
+	 * Makes a pathfinder available under the given name (replacing any
+	 * pathfinder already registered under that name).
+	 */
+	public static synchronized void register(String name, Supplier<Pathfinder> factory) {
+		FACTORIES.put(name, factory);
+	}
+
+	/** @return a new pathfinder of the kind registered under the given name */
+	public static synchronized Pathfinder create(String name) {
+		Supplier<Pathfinder> factory = FACTORIES.get(name);
+		if (factory == null) {
+			throw new IllegalArgumentException("Unknown pathfinder \"" + name
+					+ "\"; choose one of " + FACTORIES.keySet());
+		}
+		return factory.get();
+	}
+
+	/** @return the names of the registered pathfinders, in registration order */
+	public static synchronized List<String> getNames() {
+		return new ArrayList<String>(FACTORIES.keySet());
+	}
+
+	/**
+	 * @return the name registered after the given one (wrapping around
+	 *         to the first), for cycling through the pathfinders
+	 */
+	public static synchronized String getNextName(String name) {
+		List<String> names = getNames();
+		int position = names.indexOf(name);
+		return names.get((position + 1) % names.size());
+	}
+}
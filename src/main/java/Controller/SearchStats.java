@@ -0,0 +1,176 @@
+package Controller;
+
+/**
+ * Controller.SearchStats - Running totals of the work done by a
+ * Controller.Pathfinder, so that strategies can be compared.
+ * <p>
+ * Pathfinders call recordCellsExpanded and recordPathLength while they
+ * search; whoever asks for the move wraps the call in startSearch and
+ * endSearch, which count the searches and time them.
+ */
+public class SearchStats {
+	/** number of searches finished */
+	private long searches = 0;
+
+	/** number of searches that found no food */
+	private long failures = 0;
+
+	/** total number of cells expanded, over all searches */
+	private long cellsExpanded = 0;
+
+	/** number of moves taken from a cached path */
+	private long cacheHits = 0;
+
+	/** number of moves for which a cached path couldn't be used */
+	private long cacheMisses = 0;
+
+	/** number of searches that took longer than they were allowed */
+	private long deadlineMisses = 0;
+
+	/** total time spent searching, in nanoseconds */
+	private long nanos = 0;
+
+	/** when the current search started (from System.nanoTime) */
+	private long searchStart = 0;
+
+	/** cells expanded by the most recent search */
+	private int lastCellsExpanded = 0;
+
+	/** length of the path found by the most recent search, or -1 */
+	private int lastPathLength = -1;
+
+	/* ------------------ */
+	/* Recording a search */
+	/* ------------------ */
+
+	/** Call before asking a pathfinder for a move. */
+	public void startSearch() {
+		this.lastCellsExpanded = 0;
+		this.lastPathLength = -1;
+		this.searchStart = System.nanoTime();
+	}
+
+	/**
+	 * Call after the pathfinder has answered.
+	 * @param nextStep  what the pathfinder returned
+	 */
+	public void endSearch(int nextStep) {
+		this.nanos += System.nanoTime() - this.searchStart;
+		this.searches++;
+		if (nextStep < 0) {
+			this.failures++;
+		}
+	}
+
+	/** Records that the current search expanded the given number of cells. */
+	public void recordCellsExpanded(int count) {
+		this.lastCellsExpanded += count;
+		this.cellsExpanded += count;
+	}
+
+	/** Records the length of the path the current search chose. */
+	public void recordPathLength(int length) {
+		this.lastPathLength = length;
+	}
+
+	/** Records that the move came from a path cached by an earlier search. */
+	public void recordCacheHit() {
+		this.cacheHits++;
+	}
+
+	/** Records that there was no usable cached path, so a search was needed. */
+	public void recordCacheMiss() {
+		this.cacheMisses++;
+	}
+
+	/** Records that the current search went on past its deadline. */
+	public void recordDeadlineMiss() {
+		this.deadlineMisses++;
+	}
+
+	/** Sets every total back to zero. */
+	public void reset() {
+		this.searches = 0;
+		this.cacheHits = 0;
+		this.cacheMisses = 0;
+		this.deadlineMisses = 0;
+		this.failures = 0;
+		this.cellsExpanded = 0;
+		this.nanos = 0;
+		this.lastCellsExpanded = 0;
+		this.lastPathLength = -1;
+	}
+
+	/* -------------- */
+	/* Reading totals */
+	/* -------------- */
+
+	/** @return the number of searches finished */
+	public long getSearches() {
+		return this.searches;
+	}
+
+	/** @return the number of searches that found no food */
+	public long getFailures() {
+		return this.failures;
+	}
+
+	/** @return the total number of cells expanded */
+	public long getCellsExpanded() {
+		return this.cellsExpanded;
+	}
+
+	/** @return the total time spent searching, in nanoseconds */
+	public long getNanos() {
+		return this.nanos;
+	}
+
+	/** @return the number of cells expanded by the most recent search */
+	public int getLastCellsExpanded() {
+		return this.lastCellsExpanded;
+	}
+
+	/** @return the length of the most recent path found, or -1 */
+	public int getLastPathLength() {
+		return this.lastPathLength;
+	}
+
+	/** @return the number of moves taken from a cached path */
+	public long getCacheHits() {
+		return this.cacheHits;
+	}
+
+	/** @return the number of moves that needed a new search */
+	public long getCacheMisses() {
+		return this.cacheMisses;
+	}
+
+	/** @return the fraction of moves taken from a cached path (0 if none were cached) */
+	public double getCacheHitRate() {
+		long lookups = this.cacheHits + this.cacheMisses;
+		return lookups == 0 ? 0 : (double) this.cacheHits / lookups;
+	}
+
+	/** @return the number of searches that went on past their deadline */
+	public long getDeadlineMisses() {
+		return this.deadlineMisses;
+	}
+
+	/** @return the average time per search, in microseconds */
+	public double getAverageMicros() {
+		return this.searches == 0 ? 0 : this.nanos / 1000.0 / this.searches;
+	}
+
+	public String toString() {
+		String result = this.searches + " searches (" + this.failures + " failed), "
+				+ this.cellsExpanded + " cells expanded, "
+				+ String.format("%.1f", this.getAverageMicros()) + " us/search";
+		if (this.cacheHits + this.cacheMisses > 0) {
+			result += String.format(", %.0f%% cache hits", 100 * this.getCacheHitRate());
+		}
+		if (this.deadlineMisses > 0) {
+			result += ", " + this.deadlineMisses + " deadlines missed";
+		}
+		return result;
+	}
+}
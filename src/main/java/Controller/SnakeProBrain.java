@@ -1,31 +1,27 @@
 package Controller;
 
 import Model.BoardCell;
-import Model.Preferences;
+import Model.GameConfig;
 import Model.SnakeProData;
 import View.SnakeProDisplay;
 
 import java.awt.event.KeyEvent;
-import java.util.LinkedList;
-import java.util.Queue;
 
 /**
- * Controller.SnakeProBrain - The "Controller" in MVC, which includes all of the AI and
- * handling key presses
+ * Controller.SnakeProBrain - The "Controller" in MVC, which shows a game
+ * in the applet and handles key presses. The game itself, AI included,
+ * is run by a Controller.GameEngine, which doesn't need a screen.
  * 
  * @author Edwin Lagos and Nitu Nahar, adapted from CS60 at HMC
  */
-public class SnakeProBrain extends SnakeProBrainParent
+public class SnakeProBrain extends SnakeProBrainParent implements GameListener
 {
 
 	/** The "View" in MVC */
 	private SnakeProDisplay theDisplay;
-	
-	/** The "Model" in MVC */
-	private SnakeProData theData;
-	
-	/** Number of animated frames displayed so far */
-	private int cycleNum = 0;
+
+	/** The game: the "Model" in MVC, and the AI */
+	private final GameEngine engine;
 
 	// Mapping between direction (names) and keys
 	private static final char REVERSE = 'r';
@@ -34,18 +30,44 @@ public class SnakeProBrain extends SnakeProBrainParent
 	private static final char LEFT    = 'j';
 	private static final char RIGHT    = 'l';
 	private static final char AI_MODE = 'a';
+	private static final char NEXT_PATHFINDER = 'p';
 	private static final char PLAY_FOOD_NOISE = 's';
+	private static final char FASTER = ']';
+	private static final char SLOWER = '[';
+	private static final char FULL_SPEED = 'u';
+	private static final char STEP = 'n';
+
+	// How far FASTER and SLOWER can go
+	private static final double MIN_SPEED = 1.0 / 64;
+	private static final double MAX_SPEED = 64;
+
+
+	/**
+	 * Constructor; games use the default settings, overridden by
+	 * any snakepro.* system properties (see Model.GameConfig).
+	 */
+	public SnakeProBrain() {
+		this(GameConfig.fromSystemProperties());
+	}
 
+	/**
+	 * Constructor.
+	 * @param inputConfig  the settings to use for every game
+	 */
+	public SnakeProBrain(GameConfig inputConfig) {
+		this.engine = new GameEngine(inputConfig);
+		this.engine.addListener(this);
+		this.scheduler.setSpeed(inputConfig.getSpeed());
+		this.scheduler.setUnthrottled(inputConfig.isUnthrottled());
+	}
 
 	/**
 	 * Starts a new game.
 	 */
 	public void startNewGame() {
-		this.theData = new SnakeProData();
-		this.theData.placeSnakeAtStartLocation();
-		this.theData.setStartDirection();
+		this.engine.startNewGame();
 		
-		this.theDisplay = new SnakeProDisplay(this.theData, this.screen,
+		this.theDisplay = new SnakeProDisplay(this.engine.getData(), this.screen,
 				this.getSize().width, getSize().height);
 		this.theDisplay.updateGraphics();
 		
@@ -65,37 +87,52 @@ public class SnakeProBrain extends SnakeProBrainParent
 	 * Declares the game over.
 	 */
 	public void gameOver() {
-		super.pause(); // pause the game
-		this.theData.setGameOver(); // tell the model that the game is over
-		if (this.audioMeow != null) { // play a sound
-			this.audioMeow.play();
-		}
+		this.engine.gameOver();
 	}
-	
+
 	/* -------- */
 	/* Gameplay */
 	/* -------- */
 	
 	/**
 	 * Moves the game forward one step (i.e., one frame of animation,
-	 * which occurs every Model.Preferences.SLEEP_TIME milliseconds)
+	 * which occurs every config.getSleepTime() milliseconds)
 	 */
 	public void cycle() {
 
-		// move the snake
-		this.updateSnake();
+		// move the game on (which redraws the board; see cycleDone)
+		this.engine.step();
 
-		// update the list of Food
-		this.updateFood();
+		// if the snake moves next cycle (and there's a wait first), get a
+		// head start on the AI's move
+		if (!this.scheduler.isUnthrottled()) {
+			this.engine.speculate();
+		}
+	}
 
+	/** Draws the board after every cycle of the game. */
+	public void cycleDone(GameEngine game) {
 		// draw the board
 		this.theDisplay.updateGraphics();
 
 		// make the new display visible - sends the drawing to the screen
 		this.repaint();
+	}
 
-		// update the cycle counter
-		this.cycleNum++;
+	/** Crunches when the snake eats. */
+	public void foodEaten(GameEngine game) {
+		this.playSound_foodEaten();
+	}
+
+	/**
+	 * Pauses the game and meows when the snake hits something (how well
+	 * it kept time can be read with getScheduler).
+	 */
+	public void gameOver(GameEngine game) {
+		super.pause(); // pause the game
+		if (this.audioMeow != null) { // play a sound
+			this.audioMeow.play();
+		}
 	}
 
     /** 
@@ -107,6 +144,8 @@ public class SnakeProBrain extends SnakeProBrainParent
      * So, whenever the user presses a key,
      * Java automatically calls this keyPressed method and
      * passes it a KeyEvent describing the specific keypress.
+     * Commands for the game are carried out at the start of its
+     * next cycle (see Controller.GameEngine.send).
      */
 	public void keyPressed(KeyEvent evt) {
 		
@@ -116,37 +155,42 @@ public class SnakeProBrain extends SnakeProBrainParent
 		
 	    // TODO: Add cases to handle other keys (set the direction!)
 		case REVERSE:
-			this.reverseSnake();
+			this.engine.send(GameEngine.Command.REVERSE);
 			break;
 		case AI_MODE:
-			this.theData.setMode_AI();
+			this.engine.send(GameEngine.Command.AI_MODE);
+			break;
+		case NEXT_PATHFINDER:
+			this.engine.send(GameEngine.Command.NEXT_PATHFINDER);
 			break;
 		case PLAY_FOOD_NOISE:
 			this.playSound_food();
 			break;
+		case FASTER:
+			this.scheduler.setSpeed(Math.min(MAX_SPEED, this.scheduler.getSpeed() * 2));
+			break;
+		case SLOWER:
+			this.scheduler.setSpeed(Math.max(MIN_SPEED, this.scheduler.getSpeed() / 2));
+			break;
+		case FULL_SPEED:
+			this.scheduler.setUnthrottled(!this.scheduler.isUnthrottled());
+			break;
+		case STEP:
+			this.scheduler.step();
+			break;
 		default:
-			this.theData.setDirectionEast();
+			this.engine.send(GameEngine.Command.EAST);
 		}
 	}
 
 
 	/**
-	 *  Moves the snake forward once every REFRESH_RATE cycles,
+	 *  Moves the snake forward once every config.getRefreshRate() cycles,
 	 *  either in the current direction, or as directed by
-	 *  the AI's breadth-first search.
-	 *  <p>
-	 *  TODO: Called by ???
+	 *  the AI's pathfinder (see Controller.GameEngine.updateSnake).
 	 */
 	public void updateSnake() {
-		if (this.cycleNum % Preferences.REFRESH_RATE == 0) {
-			BoardCell nextCell;
-			if (this.theData.inAImode()) {
-				nextCell = this.getNextCellFromBFS();
-			} else {
-				nextCell = this.theData.getNextCellInDir();
-			}
-			this.advanceTheSnake(nextCell);
-		}
+		this.engine.updateSnake();
 	}
 
 	/**
@@ -160,34 +204,15 @@ public class SnakeProBrain extends SnakeProBrainParent
 	 *                  to the old location of the snake head).
 	 */
 	public void advanceTheSnake(BoardCell nextCell) {
-		// Note - do not modify provided code.
-		if (nextCell.isWall() || nextCell.isBody()) {
-			// Oops...we hit something.
-			this.gameOver();
-			return;
-		} else if (nextCell.isFood()) {
-			this.playSound_foodEaten();
-			// TODO: Possibly add code here to tell theData 
-			//       the snake ate food!
-		} else {
-			// just regular movement into an open space
-			// TODO: Possibly add code to tell theData the snake moved
-		}
-		// TODO: Possibly add code here too!
-		// You'll need to add helper methods to Model.SnakeProData.java
-		// Look for the header: "snake movement methods" for where to put these
+		this.engine.advanceTheSnake(nextCell);
 	}
 
 
 	/** 
-	 * Every FOOD_ADD_RATE cycles, tries to add one new food.
+	 * Every config.getFoodAddRate() cycles, tries to add one new food.
 	 */
 	public void updateFood() {
-		if (this.theData.noFood()) {
-			this.theData.addFood();
-		} else if (this.cycleNum % Preferences.FOOD_ADD_RATE == 0) {
-			this.theData.addFood();
-		}
+		this.engine.updateFood();
 	}
 
 
@@ -199,47 +224,54 @@ public class SnakeProBrain extends SnakeProBrainParent
 	 *         food cell.
 	 */
 	public BoardCell getNextCellFromBFS() {
-		// Initialize the search.
-		theData.resetCellsForNextSearch();
-		
-		// Initialize the cellsToSearch queue with the snake head;
-		// as with any cell, we mark the head cells as having been added
-		// to the queue
-		Queue<BoardCell> cellsToSearch = new LinkedList<BoardCell>();
-		BoardCell snakeHead = theData.getSnakeHead();
-		snakeHead.setAddedToSearchList();
-		cellsToSearch.add(snakeHead);
-		
-        // Variable to hold the closest food cell, once we've found it.
-		BoardCell closestFoodCell = null;
-		
-		// Search!
-		// TODO: Make sure you understand the code above and then implement your
-		// search here!
-		
-		// Note: we encourage you to write the helper method 
-		// getFirstCellInPath below to do the backtracking to calculate the next cell!
+		return this.engine.getNextCellFromBFS();
+	}
+
+
+	/**
+	 * Asks the current pathfinder where the snake head should go (see
+	 * Controller.GameEngine.getNextCellFromPathfinder).
+	 * 
+	 * @return Where to move the snake head.
+	 */
+	public BoardCell getNextCellFromPathfinder() {
+		return this.engine.getNextCellFromPathfinder();
+	}
 
-		// If the search fails, just move somewhere.
-		return this.theData.getRandomNeighboringCell(snakeHead);
+	/**
+	 * Switches the AI to the next registered pathfinder (the search
+	 * statistics start over).
+	 */
+	public void switchToNextPathfinder() {
+		this.engine.switchToNextPathfinder();
 	}
 
 	/**
-	 * Follows parent pointers back from the closest food cell
-	 * to decide where the head should move. Specifically,
-	 * follows the parent pointers back from the food until we find
-	 * the cell whose parent is the snake head (and which must therefore
-	 * be adjacent to the previous snake head location).
-	 * <p>
-	 * Recursive or looping solutions are possible.
-	 *  
-	 * @param start   where to start following food pointers; this will
-	 *                 be (at least initially, if you use recursion) the
-	 *                 location of the food closest to the head.
-	 * @return the new cell for the snake head.
+	 * Makes the AI use the given pathfinder (the statistics start over),
+	 * with the configured planning time as its time budget.
 	 */
-	private BoardCell getFirstCellInPath(BoardCell start) {
-		return null;  // TODO
+	public void setPathfinder(Pathfinder newPathfinder) {
+		this.engine.setPathfinder(newPathfinder);
+	}
+
+	/** @return the pathfinder the AI is using */
+	public Pathfinder getPathfinder() {
+		return this.engine.getPathfinder();
+	}
+
+	/** @return how much work the current pathfinder has done */
+	public SearchStats getSearchStats() {
+		return this.engine.getSearchStats();
+	}
+
+	/** @return what runs the cycles, and how well it's keeping time */
+	public TickScheduler getScheduler() {
+		return this.scheduler;
+	}
+
+	/** @return the game this applet shows */
+	public GameEngine getEngine() {
+		return this.engine;
 	}
 
 
@@ -248,9 +280,7 @@ public class SnakeProBrain extends SnakeProBrainParent
 	 * mode appropriately.
 	 */
 	public void reverseSnake() {
-		// TODO: Write helper methods in Model.SnakeProData.java and call them here!
-		// Note - we provided suggestions for helper methods. Look for the
-		// section: "Helper methods for reverse"
+		this.engine.reverseSnake();
 	}
 
 	
@@ -279,6 +309,11 @@ public class SnakeProBrain extends SnakeProBrainParent
 		}
 	}
 
+	/** @return the number of milliseconds between cycles */
+	int getSleepTime() {
+		return this.engine.getConfig().getSleepTime();
+	}
+
 	// not used - a variable added to remove a Java warning:
 	private static final long serialVersionUID = 1L;
 
@@ -288,20 +323,20 @@ public class SnakeProBrain extends SnakeProBrainParent
 	/* ---------------------- */
 
 	public static SnakeProBrain getTestGame(TestGame gameNum) {
-		SnakeProBrain brain = new SnakeProBrain();
-		brain.theData = new SnakeProData(gameNum);
+		SnakeProBrain brain = new SnakeProBrain(new GameConfig());
+		brain.engine.startGame(new SnakeProData(gameNum));
 		return brain;
 	}
 	
 	public String testing_toStringParent() {
-		return this.theData.toStringParents();
+		return this.engine.testing_toStringParent();
 	}
 
 	public BoardCell testing_getNextCellInDir() {
-		return this.theData.getNextCellInDir();
+		return this.engine.getData().getNextCellInDir();
 	}
 
 	public String testing_toStringSnakeProData() {
-		return this.theData.toString();
+		return this.engine.getData().toString();
 	}
 }
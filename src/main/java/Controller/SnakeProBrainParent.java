@@ -156,30 +156,15 @@ public abstract class SnakeProBrainParent extends JApplet implements
 	 * interface and to support pausing and resuming the applet.
 	 */
 	Thread thread; // the thread controlling the updates
-	boolean threadSuspended; // whether or not the thread is suspended
-	boolean running; // whether or not the thread is stopped
+	// calls cycle() at a steady rate, and handles pausing and resuming
+	final TickScheduler scheduler = new TickScheduler(this::cycle, Preferences.SLEEP_TIME);
 
 	/*
 	 * This is the method that calls the "cycle()" method every so often (every
-	 * sleepTime milliseconds).
+	 * sleepTime milliseconds, however long each cycle takes).
 	 */
 	public void run() {
-		while (this.running) {
-			try {
-				if (this.thread != null) {
-					Thread.sleep(Preferences.SLEEP_TIME);
-					synchronized (this) {
-						while (this.threadSuspended) {
-							this.wait(); // sleeps until notify() wakes it up
-						}
-					}
-				}
-			} catch (InterruptedException e) {
-				;
-			}
-
-			this.cycle(); // this represents 1 update cycle for the environment
-		}
+		this.scheduler.run();
 		this.thread = null;
 	}
 
@@ -187,26 +172,19 @@ public abstract class SnakeProBrainParent extends JApplet implements
 	 * This is the method attached to the "Start" button
 	 */
 	public synchronized void go() {
+		this.scheduler.setPeriod(this.getSleepTime());
+		this.scheduler.go();
 		if (this.thread == null) {
 			this.thread = new Thread(this);
-			this.running = true;
 			this.thread.start();
-			this.threadSuspended = false;
-		} else {
-			this.threadSuspended = false;
 		}
-		this.notify(); // wakes up the call to wait(), above
 	}
 
 	/*
 	 * This is the method attached to the "Pause" button
 	 */
 	public void pause() {
-		if (this.thread == null) {
-			;
-		} else {
-			this.threadSuspended = true;
-		}
+		this.scheduler.pause();
 	}
 
 	/*
@@ -214,8 +192,7 @@ public abstract class SnakeProBrainParent extends JApplet implements
 	 * It stops the thread altogether.
 	 */
 	public synchronized void stop() {
-		this.running = false;
-		this.notify();
+		this.scheduler.stop();
 	}
 
 	/*
@@ -226,6 +203,11 @@ public abstract class SnakeProBrainParent extends JApplet implements
 
 	abstract void startNewGame();
 
+	// milliseconds between calls to cycle()
+	int getSleepTime() {
+		return Preferences.SLEEP_TIME;
+	}
+
 	public abstract void keyPressed(KeyEvent evt);
 
 	private static final long serialVersionUID = 1L;
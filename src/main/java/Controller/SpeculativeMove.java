@@ -0,0 +1,148 @@
+package Controller;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import Model.SnakeProData;
+
+/**
+ * Controller.SpeculativeMove - Works out the AI's next move in the
+ * background, while the game loop is sleeping between cycles.
+ * <p>
+ * Right after a cycle, the board is just as it will be when the snake
+ * next moves, unless food appears or a key is pressed in the meantime.
+ * So start asks the pathfinder for that move on a background thread,
+ * and take hands the answer over when the move is due, as long as
+ * nothing on the board has changed since (see
+ * Model.SnakeProData.getChangeCount). Otherwise the guess is thrown
+ * away, and the move has to be worked out the usual way.
+ * <p>
+ * The search reads the real board, so while a guess is being worked
+ * out, nobody may change the board: call finish first. The pathfinder
+ * and its Controller.SearchStats belong to the background thread until
+ * the guess is finished, too.
+ */
+public class SpeculativeMove {
+	/** what take returns when there's no guess it can use */
+	public static final int NO_GUESS = Integer.MIN_VALUE;
+
+	/** the background thread (started the first time it's needed) */
+	private ExecutorService thread = null;
+
+	/** the guess being worked out, if any */
+	private Future<Integer> pending = null;
+
+	/** the last guess that was finished, or NO_GUESS */
+	private int guess = NO_GUESS;
+
+	/** the board the guess is for */
+	private SnakeProData board = null;
+
+	/** the pathfinder that made the guess */
+	private Pathfinder pathfinder = null;
+
+	/** the board's change count when the guess was started */
+	private long changeCount = -1;
+
+	/** number of guesses used */
+	private long used = 0;
+
+	/** number of guesses thrown away */
+	private long wasted = 0;
+
+	/**
+	 * Starts working out, in the background, where the pathfinder would
+	 * move the head of the snake on the given board (any earlier guess
+	 * is finished and thrown away first).
+	 * @param stats  where to record the search
+	 */
+	public void start(final SnakeProData inputBoard, final Pathfinder inputPathfinder,
+			final SearchStats stats) {
+		this.discard();
+		if (this.thread == null) {
+			this.thread = Executors.newSingleThreadExecutor(runnable -> {
+				Thread daemon = new Thread(runnable, "SnakePro speculation");
+				daemon.setDaemon(true); // don't keep the program running
+				return daemon;
+			});
+		}
+		this.board = inputBoard;
+		this.pathfinder = inputPathfinder;
+		this.changeCount = inputBoard.getChangeCount();
+		final int head = inputBoard.getSnakeHeadIndex();
+		this.pending = this.thread.submit(() -> {
+			stats.startSearch();
+			int next = inputPathfinder.findNextStep(inputBoard, head, stats);
+			stats.endSearch(next);
+			return next;
+		});
+	}
+
+	/**
+	 * Waits for the guess being worked out (if any) to be finished,
+	 * after which the board may be changed.
+	 */
+	public void finish() {
+		if (this.pending == null) {
+			return;
+		}
+		try {
+			this.guess = this.pending.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			this.guess = NO_GUESS;
+		} catch (ExecutionException e) {
+			// The pathfinder threw; pass it on as if it had been called here.
+			this.guess = NO_GUESS;
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			this.pending = null;
+		}
+	}
+
+	/** Finishes the current guess (if any) and throws it away. */
+	public void discard() {
+		this.finish();
+		if (this.guess != NO_GUESS) {
+			this.wasted++;
+			this.guess = NO_GUESS;
+		}
+	}
+
+	/**
+	 * Finishes the current guess, and hands it over if it was made by
+	 * the given pathfinder for the board as it is now.
+	 * @return the index of the cell the pathfinder would move the head
+	 *         into (or -1 if it found none), or NO_GUESS
+	 */
+	public int take(SnakeProData currentBoard, Pathfinder currentPathfinder) {
+		this.finish();
+		if (this.guess == NO_GUESS) {
+			return NO_GUESS;
+		}
+		if (currentBoard != this.board || currentPathfinder != this.pathfinder
+				|| currentBoard.getChangeCount() != this.changeCount) {
+			this.discard();
+			return NO_GUESS;
+		}
+		int next = this.guess;
+		this.guess = NO_GUESS;
+		this.used++;
+		return next;
+	}
+
+	/** @return the number of guesses that were used */
+	public long getUsed() {
+		return this.used;
+	}
+
+	/** @return the number of guesses that were thrown away */
+	public long getWasted() {
+		return this.wasted;
+	}
+}
@@ -0,0 +1,313 @@
+package Controller;
+
+/**
+ * Controller.TickScheduler - Runs a game's cycles ("ticks") at a steady
+ * rate, however long each one takes.
+ * <p>
+ * The scheduler keeps an accumulator of game time owed: the time that
+ * has passed (times the speed multiplier) that hasn't been used up by
+ * ticks yet. Whenever a whole tick period is owed, a tick runs; if
+ * ticks are slow, or the thread is held up, several run back to back
+ * to catch up. A long stall would mean a long burst, so at most
+ * MAX_CATCH_UP ticks are ever owed, and the rest are dropped.
+ * <p>
+ * The loop (run) goes on the thread that plays the game; pause, go,
+ * step and the settings can be called from any thread. Each tick is
+ * timed: a tick that starts after its slot is late, and a tick that
+ * takes longer than a whole period is an overrun.
+ */
+public class TickScheduler implements Runnable {
+	/** the most ticks ever run back to back to catch up */
+	public static final int MAX_CATCH_UP = 5;
+
+	/** what a tick does */
+	private final Runnable tick;
+
+	/** how often ticks should come, in nanoseconds of game time (0 for as fast as possible) */
+	private long periodNanos;
+
+	/** how many times faster than normal the game runs */
+	private double speed = 1.0;
+
+	/** Run ticks back to back, without waiting? */
+	private boolean unthrottled = false;
+
+	/** Is the game paused? */
+	private boolean paused = false;
+
+	/** Has the loop been told to stop? */
+	private boolean stopped = false;
+
+	/** ticks asked for (with step) while paused */
+	private int stepsWanted = 0;
+
+	/** game time owed, in nanoseconds */
+	private long accumulator = 0;
+
+	/** when the accumulator was last brought up to date (by System.nanoTime) */
+	private long lastUpdate = 0;
+
+	/** number of ticks run */
+	private long ticks = 0;
+
+	/** number of ticks that took longer than a period */
+	private long overruns = 0;
+
+	/** number of ticks dropped after a stall */
+	private long dropped = 0;
+
+	/** total time ticks started after their slot, in nanoseconds */
+	private long totalLateNanos = 0;
+
+	/** the longest a tick started after its slot, in nanoseconds */
+	private long maxLateNanos = 0;
+
+	/**
+	 * Constructor.
+	 * @param inputTick          what each tick does
+	 * @param periodMilliseconds how often ticks should come (0 for as
+	 *                           fast as possible)
+	 */
+	public TickScheduler(Runnable inputTick, int periodMilliseconds) {
+		this.tick = inputTick;
+		this.setPeriod(periodMilliseconds);
+	}
+
+	/* -------- */
+	/* Settings */
+	/* -------- */
+
+	/** Sets how often ticks should come, in milliseconds (0 for as fast as possible). */
+	public synchronized void setPeriod(int milliseconds) {
+		if (milliseconds < 0) {
+			throw new IllegalArgumentException("The tick period can't be negative");
+		}
+		this.periodNanos = milliseconds * 1000000L;
+		this.resetClock(System.nanoTime());
+		this.notifyAll();
+	}
+
+	/** Sets how many times faster than normal the game runs (e.g. 0.5 for half speed). */
+	public synchronized void setSpeed(double multiplier) {
+		if (!(multiplier > 0) || Double.isInfinite(multiplier)) {
+			throw new IllegalArgumentException("The speed must be a positive number, not "
+					+ multiplier);
+		}
+		this.speed = multiplier;
+		this.notifyAll();
+	}
+
+	/** @return how many times faster than normal the game runs */
+	public synchronized double getSpeed() {
+		return this.speed;
+	}
+
+	/** Sets whether ticks run back to back, as fast as they can. */
+	public synchronized void setUnthrottled(boolean flatOut) {
+		this.unthrottled = flatOut;
+		this.resetClock(System.nanoTime());
+		this.notifyAll();
+	}
+
+	/** @return Do ticks run back to back, as fast as they can? */
+	public synchronized boolean isUnthrottled() {
+		return this.unthrottled || this.periodNanos == 0;
+	}
+
+	/* -------------------- */
+	/* Controlling the game */
+	/* -------------------- */
+
+	/** Starts (or carries on with) the ticks, after a pause or a stop. */
+	public synchronized void go() {
+		if (this.paused || this.stopped) {
+			this.resetClock(System.nanoTime()); // no catching up on the pause
+		}
+		this.paused = false;
+		this.stopped = false;
+		this.stepsWanted = 0;
+		this.notifyAll();
+	}
+
+	/** Holds off the ticks until go (or step) is called. */
+	public synchronized void pause() {
+		this.paused = true;
+		this.notifyAll();
+	}
+
+	/** @return Is the game paused? */
+	public synchronized boolean isPaused() {
+		return this.paused;
+	}
+
+	/** Pauses the game, and runs one tick. */
+	public synchronized void step() {
+		this.paused = true;
+		this.stepsWanted++;
+		this.notifyAll();
+	}
+
+	/** Makes run return (after the tick in progress, if any). */
+	public synchronized void stop() {
+		this.stopped = true;
+		this.notifyAll();
+	}
+
+	/* -------- */
+	/* The loop */
+	/* -------- */
+
+	/** Runs ticks, at the right times, until stop is called. */
+	public void run() {
+		synchronized (this) {
+			this.resetClock(System.nanoTime());
+		}
+		while (true) {
+			int due;
+			synchronized (this) {
+				try {
+					due = this.waitForTicks();
+				} catch (InterruptedException e) {
+					this.stopped = true;
+					due = 0;
+				}
+				if (this.stopped) {
+					return;
+				}
+			}
+			// (after a pause or a stop, the rest of a burst is skipped)
+			for (int i = 0; i < due && (i == 0 || this.isRunning()); i++) {
+				this.runTick();
+			}
+		}
+	}
+
+	/**
+	 * Waits until there's something to do.
+	 * @return the number of ticks to run now (0 to stop)
+	 */
+	private int waitForTicks() throws InterruptedException {
+		while (!this.stopped) {
+			if (this.paused) {
+				if (this.stepsWanted > 0) {
+					this.stepsWanted--;
+					return 1;
+				}
+				this.wait();
+			} else if (this.isUnthrottled()) {
+				return 1;
+			} else {
+				int due = this.ticksDue(System.nanoTime());
+				if (due > 0) {
+					return due;
+				}
+				long waitNanos = this.nanosUntilNextTick();
+				this.wait(waitNanos / 1000000, (int) (waitNanos % 1000000));
+			}
+		}
+		return 0;
+	}
+
+	/** @return Should ticks go on running (neither paused nor stopped)? */
+	private synchronized boolean isRunning() {
+		return !this.stopped && !this.paused;
+	}
+
+	/** Runs a tick, and times it. */
+	private void runTick() {
+		long start = System.nanoTime();
+		this.tick.run();
+		long took = System.nanoTime() - start;
+		synchronized (this) {
+			this.ticks++;
+			if (!this.isUnthrottled() && took * this.speed > this.periodNanos) {
+				this.overruns++;
+			}
+		}
+	}
+
+	/**
+	 * Brings the accumulator up to date: adds the game time that has
+	 * passed since it was last updated, drops any ticks beyond
+	 * MAX_CATCH_UP, and takes off the ticks that are now due.
+	 *
+	 * @param now  the time (by System.nanoTime)
+	 * @return the number of ticks that are due
+	 */
+	public synchronized int ticksDue(long now) {
+		long elapsed = now - this.lastUpdate;
+		this.lastUpdate = now;
+		if (this.periodNanos == 0) {
+			return 1;
+		}
+		this.accumulator += (long) (elapsed * this.speed);
+		if (this.accumulator < this.periodNanos) {
+			return 0;
+		}
+
+		// The oldest tick owed should have started this long ago.
+		long late = (long) ((this.accumulator - this.periodNanos) / this.speed);
+		this.totalLateNanos += late;
+		this.maxLateNanos = Math.max(this.maxLateNanos, late);
+
+		// Drop any ticks beyond MAX_CATCH_UP (the rest stay on schedule).
+		long extra = this.accumulator / this.periodNanos - MAX_CATCH_UP;
+		if (extra > 0) {
+			this.dropped += extra;
+			this.accumulator -= extra * this.periodNanos;
+		}
+		int due = (int) (this.accumulator / this.periodNanos);
+		this.accumulator -= due * this.periodNanos;
+		return due;
+	}
+
+	/** @return the real time until the next tick is due, in nanoseconds (at least 1) */
+	private long nanosUntilNextTick() {
+		long owed = this.periodNanos - this.accumulator;
+		return Math.max(1, (long) Math.ceil(owed / this.speed));
+	}
+
+	/**
+	 * Starts owing game time again from the given time (by
+	 * System.nanoTime), with nothing owed yet. The loop does this
+	 * itself; it's public so the timing can be tested without waiting.
+	 */
+	public synchronized void resetClock(long now) {
+		this.accumulator = 0;
+		this.lastUpdate = now;
+	}
+
+	/* ---------- */
+	/* Statistics */
+	/* ---------- */
+
+	/** @return the number of ticks run */
+	public synchronized long getTicks() {
+		return this.ticks;
+	}
+
+	/** @return the number of ticks that took longer than a tick period */
+	public synchronized long getOverruns() {
+		return this.overruns;
+	}
+
+	/** @return the number of ticks dropped, rather than caught up on, after stalls */
+	public synchronized long getDroppedTicks() {
+		return this.dropped;
+	}
+
+	/** @return the longest any tick started after its slot, in nanoseconds */
+	public synchronized long getMaxLateNanos() {
+		return this.maxLateNanos;
+	}
+
+	/** @return the total time ticks started after their slots, in nanoseconds */
+	public synchronized long getTotalLateNanos() {
+		return this.totalLateNanos;
+	}
+
+	public synchronized String toString() {
+		return String.format("%d ticks, %d overruns, %d dropped, latest start %.1f ms late",
+				this.ticks, this.overruns, this.dropped, this.maxLateNanos / 1e6);
+	}
+}
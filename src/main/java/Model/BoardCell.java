@@ -15,10 +15,17 @@ public class BoardCell {
 	/** the column of this cell within the Board ( >= 0 ) */
 	private int column; 
 	
-	/** the current contents of this cell */
+	/** the board storing this cell's contents (null for a stand-alone cell) */
+	private final PackedBoard board;
+
+	/** the index of this cell within this.board */
+	private final int index;
+
+	/** the current contents of this cell (stand-alone cells only) */
 	private CellType myCellType;
 	
 	// Additional instance variables to be used during search
+	// (stand-alone cells only; cells of a board keep these in the board)
 	
 	/** Has this cell been added to the search queue yet? */
 	private boolean addedToSearchList = false; 
@@ -28,7 +35,7 @@ public class BoardCell {
 
 	
 	/**
-	 * Constructor.
+	 * Constructor for a stand-alone cell.
 	 * @param inputRow     the row of this cell
 	 * @param inputColumn  the column of this cell
 	 * @param type         the initial contents of this cell
@@ -37,6 +44,21 @@ public class BoardCell {
 		this.row = inputRow; 
 		this.column = inputColumn; 
 		this.myCellType = type;
+		this.board = null;
+		this.index = -1;
+	}
+
+	/**
+	 * Constructor for a view onto one cell of a Model.PackedBoard.
+	 * Only the board creates these (see PackedBoard.getView).
+	 * @param inputBoard  the board holding the cell's contents
+	 * @param inputIndex  the index of the cell within the board
+	 */
+	BoardCell (PackedBoard inputBoard, int inputIndex){
+		this.row = inputBoard.rowOf(inputIndex);
+		this.column = inputBoard.columnOf(inputIndex);
+		this.board = inputBoard;
+		this.index = inputIndex;
 	}
 	
 
@@ -54,47 +76,58 @@ public class BoardCell {
 	public int getColumn() {
 		return this.column;
 	}
+
+	/** @return the index of this cell within its board (-1 if stand-alone) */
+	public int getIndex() {
+		return this.index;
+	}
+
+	/** @return the current contents of this cell */
+	private CellType getType() {
+		if (this.board != null) {
+			return this.board.getType(this.index);
+		}
+		return this.myCellType;
+	}
+
+	/** Changes the contents of this cell */
+	private void setType(CellType type) {
+		if (this.board != null) {
+			this.board.setType(this.index, type);
+		} else {
+			this.myCellType = type;
+		}
+	}
 	
 	/** @return Is this cell a wall? */
 	public boolean isWall() {
-		return this.myCellType == CellType.WALL;
+		return this.getType() == CellType.WALL;
 	}
 	
 	/** @return Is this cell open (not a wall or a snake body part)? */
 	public boolean isOpen() {
-		return this.myCellType == CellType.OPEN || this.isFood();
+		CellType type = this.getType();
+		return type == CellType.OPEN || type == CellType.FOOD;
 	}
 	
 	/** @return Does this cell contain food? */
 	public boolean isFood() {
-		return this.myCellType == CellType.FOOD;
+		return this.getType() == CellType.FOOD;
 	}
 	
 	/** @return Does this cell contain part of the snake (not the head)? */
 	public boolean isBody() {
-		return this.myCellType == CellType.BODY;
+		return this.getType() == CellType.BODY;
 	}
 
 	/** @return Does this cell contain the head of the snake? */
 	public boolean isHead() {
-		return this.myCellType == CellType.HEAD;
+		return this.getType() == CellType.HEAD;
 	}
 	
 	/** @return The color for drawing this cell */
 	public Color getCellColor(){
-		if (this.isWall()) {
-			return Preferences.COLOR_WALL;
-		} else if (this.isFood()) {
-			return Preferences.COLOR_FOOD;
-		} else if (this.isOpen()) {
-			return Preferences.COLOR_OPEN;
-		} else if (this.isHead()) {
-			return Preferences.COLOR_HEAD;
-		} else if (this.isBody()) {
-			return Preferences.COLOR_BODY;
-		} else {
-			return Preferences.COLOR_OPEN;
-		}
+		return PackedBoard.colorOf(this.getType());
 	}
 	
 	/* ------------------------------ */
@@ -103,21 +136,21 @@ public class BoardCell {
 
 	/** Marks this Model.BoardCell as food. */
 	public void becomeFood() {
-		this.myCellType = CellType.FOOD;
+		this.setType(CellType.FOOD);
 	}
 
 	/** Marks this Model.BoardCell as open */
 	public void becomeOpen() {
-		this.myCellType = CellType.OPEN;
+		this.setType(CellType.OPEN);
 	}
 	
 	/** Marks this Model.BoardCell as the snake's head */
 	public void becomeHead() {
-		this.myCellType = CellType.HEAD;
+		this.setType(CellType.HEAD);
 	}
 	/** Marks this Model.BoardCell as part of the snake's body */
 	public void becomeBody() {
-		this.myCellType = CellType.BODY;
+		this.setType(CellType.BODY);
 	}
 
 	/* ------------------------------------------ */
@@ -126,27 +159,50 @@ public class BoardCell {
 	
 	/** Marks this cell as having been added to our BFS search queue */
 	public void setAddedToSearchList() {
-		this.addedToSearchList = true;
+		if (this.board != null) {
+			this.board.setAddedToSearchList(this.index);
+		} else {
+			this.addedToSearchList = true;
+		}
 	}
 
 	/** @return Has this cell been added to our BFS search queue yet? */
 	public boolean inSearchListAlready() {
+		if (this.board != null) {
+			return this.board.inSearchListAlready(this.index);
+		}
 		return this.addedToSearchList;
 	}
 
 	/** Clear the search-related info for this cell (to allow a new search) */
 	public void clear_RestartSearch() {
-		this.addedToSearchList = false;
-		this.parent = null;
+		if (this.board != null) {
+			this.board.clearSearch(this.index);
+		} else {
+			this.addedToSearchList = false;
+			this.parent = null;
+		}
 	}
 
-	/** Set the parent of this cell */
+	/** 
+	 * Set the parent of this cell; for a cell of a board, the parent
+	 * must be null or a cell of the same board, and this cell joins
+	 * the board's current search list.
+	 */
 	public void setParent(BoardCell p) {
-		this.parent = p;
+		if (this.board != null) {
+			this.board.setParent(this.index, p == null ? -1 : p.index);
+		} else {
+			this.parent = p;
+		}
 	}
 	
 	/** @return the parent of this cell */
 	public BoardCell getParent() {
+		if (this.board != null) {
+			int parentIndex = this.board.getParent(this.index);
+			return parentIndex < 0 ? null : this.board.getView(parentIndex);
+		}
 		return this.parent;
 	}
 	
@@ -161,16 +217,17 @@ public class BoardCell {
 	
 	/** @return the contents of the cell, as a single character. */
 	public String toStringType() {
-		return this.myCellType.getDisplayChar();
+		return this.getType().getDisplayChar();
 	}
 	
 	/** @return  the parent of a cell, as a string */
 	public String toStringParent(){
-		if (this.parent == null){
+		BoardCell myParent = this.getParent();
+		if (myParent == null){
 			return "[null]";
 		}
 		else {
-			return "[" + this.parent.row + ", " + this.parent.column + "]";
+			return "[" + myParent.row + ", " + myParent.column + "]";
 		}
 	}
 
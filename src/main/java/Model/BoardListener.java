@@ -0,0 +1,18 @@
+package Model;
+
+/**
+ * Model.BoardListener - Something that keeps its own summary of a Board
+ * (e.g. Model.OccupancyBitboard) and needs to hear about every change to
+ * the Board's cells.
+ */
+public interface BoardListener {
+
+	/**
+	 * Called after the contents of a cell change.
+	 * 
+	 * @param index    the index of the cell in the Model.PackedBoard
+	 * @param oldType  what the cell contained before
+	 * @param newType  what the cell contains now
+	 */
+	void cellChanged(int index, CellType oldType, CellType newType);
+}
@@ -0,0 +1,101 @@
+package Model;
+
+/**
+ * Model.BoardView - Read-only, index-based access to the game board, for
+ * the AI's pathfinders (see Controller.Pathfinder).
+ * <p>
+ * Every cell has an index between 0 and getNumCells()-1; the cell in row r,
+ * column c has index r*getNumColumns()+c. None of these methods change
+ * what's on the board; but getFoodDistances and getComponentLabels build
+ * the distance field and region labels the first time they're asked for
+ * (so games that don't need them don't pay for them), and then keep them
+ * up to date. That first call must come from the thread that changes the
+ * board: a pathfinder that needs them asks for them in
+ * Controller.Pathfinder.prepare. (A copy of a game belongs to the thread
+ * that made it, which may ask whenever it likes.)
+ * <p>
+ * A board is not safe to read while it's being changed: a pathfinder
+ * may read it on another thread only while the game waits for its
+ * answer (see Controller.SpeculativeMove).
+ */
+public interface BoardView {
+	/** @return the height of the board (including walls) in cells */
+	int getNumRows();
+
+	/** @return the width of the board (including walls) in cells */
+	int getNumColumns();
+
+	/** @return the number of cells in the board (including walls) */
+	int getNumCells();
+
+	/** @return the index of the cell in row r, column c */
+	int getIndex(int r, int c);
+
+	/** @return Is the cell at the given index open (or food)? */
+	boolean isOpen(int index);
+
+	/** @return Does the cell at the given index contain food? */
+	boolean isFood(int index);
+
+	/** @return the number of cells that contain food */
+	int getNumFood();
+
+	/**
+	 * @param k  between 0 and getNumFood()-1 inclusive
+	 * @return the index of the k-th food cell (in no particular order)
+	 */
+	int getFood(int k);
+
+	/**
+	 * @return the index of the neighbor in the given Model.Direction; the
+	 *         neighbor must exist (check getWallMask first)
+	 */
+	int getNeighborIndex(int index, int direction);
+
+	/**
+	 * @return a Model.Direction mask of the neighbors of the given cell 
+	 *         that are walls (or off the board)
+	 */
+	int getWallMask(int index);
+
+	/**
+	 * @return the index of the open (or food) neighbor of the given cell
+	 *         in the given Model.Direction, or -1 if that neighbor is a
+	 *         wall or part of the snake
+	 */
+	default int getOpenNeighbor(int index, int direction) {
+		if ((this.getWallMask(index) & Direction.bit(direction)) != 0) {
+			return -1;
+		}
+		int next = this.getNeighborIndex(index, direction);
+		return this.isOpen(next) ? next : -1;
+	}
+
+	/** @return the index of the cell containing the snake's head */
+	int getSnakeHeadIndex();
+
+	/** @return the index of the cell containing the snake's tail */
+	int getSnakeTailIndex();
+
+	/** @return the number of cells in the snake */
+	int getSnakeLength();
+
+	/**
+	 * @return the distance from every cell to the nearest food, kept up
+	 *         to date by the board (built the first time it's asked for)
+	 */
+	FoodDistanceField getFoodDistances();
+
+	/**
+	 * @return the connected regions of open space, kept up to date by
+	 *         the board (built the first time they're asked for)
+	 */
+	ComponentLabels getComponentLabels();
+
+	/**
+	 * @return a copy of the board that moves can be tried out on, without
+	 *         changing this one (copying takes time proportional to the
+	 *         size of the board)
+	 */
+	PlayableBoard copy();
+}
@@ -0,0 +1,394 @@
+package Model;
+
+import java.util.Arrays;
+
+/**
+ * Model.ComponentLabels - Which connected region of open space each open
+ * (or food) cell of a board belongs to, and how big each region is.
+ * <p>
+ * Two open cells get the same label exactly when one can be reached from
+ * the other by moving north, south, east and west through open cells.
+ * The labels listen to the Model.PackedBoard they were built from and
+ * are repaired after every change, looking only at the regions involved:
+ * <ul>
+ * <li>When a cell opens up, it joins the regions around it; if there are
+ *     several, the smaller ones are relabeled to match the biggest.</li>
+ * <li>When a cell is blocked, a look at its eight surrounding cells
+ *     usually shows that the region can't have been cut in two. If it
+ *     might have been, a flood fill is started from each side at once,
+ *     one cell at a time each; as soon as all but one of them have either
+ *     met another or run out of cells, we know which pieces were cut off,
+ *     having only paid for the size of the smaller pieces.</li>
+ * </ul>
+ * Not thread-safe: updates use scratch space owned by the labels.
+ */
+public class ComponentLabels implements BoardListener {
+	/** the label of cells that aren't open */
+	public static final int NONE = -1;
+
+	/** the number of orthogonal neighbors, and so of possible floods in a split */
+	private static final int MAX_FLOODS = Direction.COUNT;
+
+	/** the orthogonal directions, going round clockwise */
+	private static final int[] CLOCKWISE = { Direction.NORTH, Direction.EAST,
+			Direction.SOUTH, Direction.WEST };
+
+	/** the board being tracked */
+	private final PackedBoard board;
+
+	/** the label of each cell */
+	private final int[] labels;
+
+	/** the number of cells with each label */
+	private final int[] sizes;
+
+	/** labels not in use, as a stack */
+	private final int[] freeLabels;
+
+	/** number of labels on the freeLabels stack */
+	private int numFree;
+
+	/** for each flood: the cells it has reached, in order */
+	private final int[][] floodCells = new int[MAX_FLOODS][];
+
+	/** for each flood: how many of its cells it has expanded */
+	private final int[] floodHeads = new int[MAX_FLOODS];
+
+	/** for each flood: how many cells it has reached */
+	private final int[] floodTails = new int[MAX_FLOODS];
+
+	/** for each flood: the flood it has joined up with (itself, if none) */
+	private final int[] floodParents = new int[MAX_FLOODS];
+
+	/** for each flood: has it been found to cover a region of its own? */
+	private final boolean[] floodDone = new boolean[MAX_FLOODS];
+
+	/** scratch space: one open neighbor from each local group */
+	private final int[] starts = new int[MAX_FLOODS];
+
+	/** scratch space: which orthogonal neighbors are open, clockwise */
+	private final boolean[] neighborOpen = new boolean[4];
+
+	/** the split in which each cell was last reached by a flood */
+	private final int[] markStamps;
+
+	/** which flood reached each cell (if its stamp is current) */
+	private final byte[] markFloods;
+
+	/** the current split (markStamps of 0 never match) */
+	private int markEpoch = 0;
+
+	/**
+	 * Constructor; labels the current contents of the board, and then
+	 * listens to the board for changes.
+	 */
+	public ComponentLabels(PackedBoard board) {
+		this.board = board;
+		int numCells = board.size();
+		this.labels = new int[numCells];
+		this.sizes = new int[numCells];
+		this.freeLabels = new int[numCells];
+		this.markStamps = new int[numCells];
+		this.markFloods = new byte[numCells];
+		for (int label = 0; label < numCells; label++) {
+			this.freeLabels[label] = numCells - 1 - label;
+		}
+		this.numFree = numCells;
+
+		Arrays.fill(this.labels, NONE);
+		for (int index = 0; index < numCells; index++) {
+			if (board.isOpen(index) && this.labels[index] == NONE) {
+				int label = this.newLabel();
+				this.labels[index] = label;
+				this.sizes[label] = 1 + this.relabel(index, NONE, label);
+			}
+		}
+		board.addListener(this);
+	}
+
+	/* ------- */
+	/* Queries */
+	/* ------- */
+
+	/** @return the label of the given cell, or NONE if it isn't open */
+	public int getLabel(int index) {
+		return this.labels[index];
+	}
+
+	/** @return the number of cells with the given label */
+	public int getSize(int label) {
+		return this.sizes[label];
+	}
+
+	/**
+	 * @return Could blocking the given open cell split its region in two?
+	 *         (If not, the rest of the region stays connected.)
+	 */
+	public boolean mightSplit(int index) {
+		return this.countLocalGroups(index, null) > 1;
+	}
+
+	/* ------------------------------ */
+	/* Keeping in sync with the board */
+	/* ------------------------------ */
+
+	public void cellChanged(int index, CellType oldType, CellType newType) {
+		boolean wasOpen = oldType == CellType.OPEN || oldType == CellType.FOOD;
+		boolean isOpen = newType == CellType.OPEN || newType == CellType.FOOD;
+		if (isOpen && !wasOpen) {
+			this.join(index);
+		} else if (wasOpen && !isOpen) {
+			this.split(index);
+		}
+	}
+
+	/** Adds a newly opened cell to the regions around it, merging them. */
+	private void join(int index) {
+		int biggest = NONE;
+		int walls = this.board.getWallMask(index);
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			if ((walls & Direction.bit(direction)) == 0) {
+				int label = this.labels[this.board.getNeighbor(index, direction)];
+				if (label != NONE && (biggest == NONE || this.sizes[label] > this.sizes[biggest])) {
+					biggest = label;
+				}
+			}
+		}
+		if (biggest == NONE) {
+			biggest = this.newLabel();
+		}
+		this.labels[index] = biggest;
+		this.sizes[biggest]++;
+
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			if ((walls & Direction.bit(direction)) == 0) {
+				int neighbor = this.board.getNeighbor(index, direction);
+				int label = this.labels[neighbor];
+				if (label != NONE && label != biggest) {
+					this.labels[neighbor] = biggest;
+					this.sizes[biggest] += 1 + this.relabel(neighbor, label, biggest);
+					this.sizes[label] = 0;
+					this.freeLabel(label);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes a newly blocked cell from its region, giving new labels
+	 * to any pieces of the region it cut off.
+	 */
+	private void split(int index) {
+		int label = this.labels[index];
+		this.labels[index] = NONE;
+		this.sizes[label]--;
+		if (this.sizes[label] == 0) {
+			this.freeLabel(label);
+			return;
+		}
+		int[] starts = this.starts;
+		int numFloods = this.countLocalGroups(index, starts);
+		if (numFloods <= 1) {
+			return;
+		}
+
+		if (this.markEpoch == Integer.MAX_VALUE) {
+			Arrays.fill(this.markStamps, 0);
+			this.markEpoch = 0;
+		}
+		this.markEpoch++;
+		for (int k = 0; k < numFloods; k++) {
+			if (this.floodCells[k] == null) {
+				this.floodCells[k] = new int[this.labels.length];
+			}
+			this.floodCells[k][0] = starts[k];
+			this.floodHeads[k] = 0;
+			this.floodTails[k] = 1;
+			this.floodParents[k] = k;
+			this.floodDone[k] = false;
+			this.markStamps[starts[k]] = this.markEpoch;
+			this.markFloods[starts[k]] = (byte) k;
+		}
+
+		// Grow the floods in turn until only one group of them is left
+		// that could still be growing.
+		int stillGrowing = numFloods;
+		while (stillGrowing > 1) {
+			for (int k = 0; k < numFloods && stillGrowing > 1; k++) {
+				if (this.floodHeads[k] == this.floodTails[k]) {
+					continue;
+				}
+				stillGrowing -= this.expandOne(k);
+				int root = this.findFlood(k);
+				if (this.isFinished(root, numFloods)) {
+					// This group ran out of cells before meeting any
+					// other: it's a region of its own now.
+					int newLabel = this.newLabel();
+					for (int j = 0; j < numFloods; j++) {
+						if (!this.floodDone[j] && this.findFlood(j) == root) {
+							for (int i = 0; i < this.floodTails[j]; i++) {
+								this.labels[this.floodCells[j][i]] = newLabel;
+							}
+							this.sizes[newLabel] += this.floodTails[j];
+						}
+					}
+					for (int j = 0; j < numFloods; j++) {
+						if (!this.floodDone[j] && this.findFlood(j) == root) {
+							this.floodDone[j] = true;
+						}
+					}
+					this.sizes[label] -= this.sizes[newLabel];
+					stillGrowing--;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Expands the next cell of flood k.
+	 * @return how many groups of floods were merged into others
+	 */
+	private int expandOne(int k) {
+		int merged = 0;
+		int cell = this.floodCells[k][this.floodHeads[k]++];
+		int walls = this.board.getWallMask(cell);
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			if ((walls & Direction.bit(direction)) != 0) {
+				continue;
+			}
+			int neighbor = this.board.getNeighbor(cell, direction);
+			if (this.labels[neighbor] == NONE) {
+				continue;
+			}
+			if (this.markStamps[neighbor] != this.markEpoch) {
+				this.markStamps[neighbor] = this.markEpoch;
+				this.markFloods[neighbor] = (byte) k;
+				this.floodCells[k][this.floodTails[k]++] = neighbor;
+			} else {
+				int mine = this.findFlood(k);
+				int theirs = this.findFlood(this.markFloods[neighbor]);
+				if (mine != theirs) {
+					this.floodParents[theirs] = mine;
+					merged++;
+				}
+			}
+		}
+		return merged;
+	}
+
+	/** @return the flood at the head of flood k's group */
+	private int findFlood(int k) {
+		while (this.floodParents[k] != k) {
+			k = this.floodParents[k];
+		}
+		return k;
+	}
+
+	/** @return Has every flood in the group headed by root run out of cells? */
+	private boolean isFinished(int root, int numFloods) {
+		for (int j = 0; j < numFloods; j++) {
+			if (!this.floodDone[j] && this.findFlood(j) == root
+					&& this.floodHeads[j] < this.floodTails[j]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Looks at the eight cells around the given one: open orthogonal
+	 * neighbors next to each other round the circle are joined locally
+	 * if the diagonal cell between them is open too.
+	 *
+	 * @param starts  if not null, gets one open neighbor from each group
+	 * @return the number of locally separate groups of open neighbors
+	 */
+	private int countLocalGroups(int index, int[] starts) {
+		boolean[] open = this.neighborOpen;
+		int walls = this.board.getWallMask(index);
+		int numOpen = 0;
+		for (int i = 0; i < 4; i++) {
+			int direction = CLOCKWISE[i];
+			open[i] = (walls & Direction.bit(direction)) == 0
+					&& this.board.isOpen(this.board.getNeighbor(index, direction));
+			if (open[i]) {
+				numOpen++;
+			}
+		}
+		int numGroups = 0;
+		for (int i = 0; i < 4; i++) {
+			int before = (i + 3) % 4;
+			if (open[i] && !(open[before] && this.isDiagonalOpen(index, before, i))) {
+				if (starts != null) {
+					starts[numGroups] = this.board.getNeighbor(index, CLOCKWISE[i]);
+				}
+				numGroups++;
+			}
+		}
+		if (numGroups == 0 && numOpen > 0) {
+			// all four neighbors and diagonals are open: one ring
+			if (starts != null) {
+				starts[0] = this.board.getNeighbor(index, CLOCKWISE[0]);
+			}
+			numGroups = 1;
+		}
+		return numGroups;
+	}
+
+	/**
+	 * @return Is the diagonal cell between the open neighbors of index in
+	 *         clockwise positions i and j open?
+	 */
+	private boolean isDiagonalOpen(int index, int i, int j) {
+		int side = this.board.getNeighbor(index, CLOCKWISE[i]);
+		int direction = CLOCKWISE[j];
+		return (this.board.getWallMask(side) & Direction.bit(direction)) == 0
+				&& this.board.isOpen(this.board.getNeighbor(side, direction));
+	}
+
+	/* --------------- */
+	/* Private helpers */
+	/* --------------- */
+
+	/**
+	 * Gives newLabel to every cell connected to start through cells
+	 * labeled oldLabel (start itself must already be labeled).
+	 * @return the number of cells relabeled
+	 */
+	private int relabel(int start, int oldLabel, int newLabel) {
+		if (this.floodCells[0] == null) {
+			this.floodCells[0] = new int[this.labels.length];
+		}
+		int[] queue = this.floodCells[0];
+		int head = 0;
+		int tail = 0;
+		queue[tail++] = start;
+		while (head < tail) {
+			int cell = queue[head++];
+			int walls = this.board.getWallMask(cell);
+			for (int direction = 0; direction < Direction.COUNT; direction++) {
+				if ((walls & Direction.bit(direction)) != 0) {
+					continue;
+				}
+				int neighbor = this.board.getNeighbor(cell, direction);
+				if (this.labels[neighbor] == oldLabel && this.board.isOpen(neighbor)) {
+					this.labels[neighbor] = newLabel;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+		return tail - 1;
+	}
+
+	/** @return a label not in use */
+	private int newLabel() {
+		int label = this.freeLabels[--this.numFree];
+		this.sizes[label] = 0;
+		return label;
+	}
+
+	/** Puts a label that's no longer in use back on the stack. */
+	private void freeLabel(int label) {
+		this.freeLabels[this.numFree++] = label;
+	}
+}
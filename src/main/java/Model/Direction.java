@@ -0,0 +1,31 @@
+package Model;
+
+/**
+ * Model.Direction - The four directions the snake can move in, as small
+ * integers (0 to COUNT-1) so they can index the neighbor tables of a
+ * Model.PackedBoard and be packed into bit masks. (Model.SnakeMode is the
+ * enum used for the snake's movement mode.)
+ */
+public final class Direction {
+	public static final int NORTH = 0;
+	public static final int SOUTH = 1;
+	public static final int EAST = 2;
+	public static final int WEST = 3;
+
+	/** The number of directions */
+	public static final int COUNT = 4;
+
+	// Not meant to be instantiated
+	private Direction() {
+	}
+
+	/** @return the direction pointing the opposite way */
+	public static int opposite(int direction) {
+		return direction ^ 1;
+	}
+
+	/** @return the bit representing the given direction in a direction mask */
+	public static int bit(int direction) {
+		return 1 << direction;
+	}
+}
@@ -0,0 +1,302 @@
+package Model;
+
+import java.util.Arrays;
+
+/**
+ * Model.FoodDistanceField - For every open cell of a board, the length of
+ * the shortest path (through open cells) to the nearest food.
+ * <p>
+ * The field listens to the Model.PackedBoard it was built from and
+ * repairs itself after every change, touching only the cells whose
+ * distance actually changes:
+ * <ul>
+ * <li>When a cell opens up (the tail moves on, new food appears), shorter
+ *     distances spread out from it, breadth-first.</li>
+ * <li>When a cell is blocked (the head moves in, food is eaten), the cells
+ *     that got their distance through it and nowhere else are cleared,
+ *     and then filled in again from the cells around them.</li>
+ * </ul>
+ * Choosing the AI's next move is then just a matter of stepping to the
+ * neighbor of the head with the smallest distance.
+ * <p>
+ * Not thread-safe: updates use scratch space owned by the field.
+ */
+public class FoodDistanceField implements BoardListener {
+	/** distance of cells that can't reach any food (and of blocked cells) */
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	/** the board being tracked */
+	private final PackedBoard board;
+
+	/** the distance from each cell to the nearest food */
+	private final int[] distances;
+
+	/** circular queue of cells whose distance has gone down */
+	private final int[] queue;
+
+	/** where the next cell is taken off this.queue */
+	private int queueHead = 0;
+
+	/** how many cells are in this.queue */
+	private int queueSize = 0;
+
+	/** whether each cell is in this.queue */
+	private final boolean[] inQueue;
+
+	/** the cells cleared by the current update */
+	private final int[] cleared;
+
+	/** the update in which each cell was last looked at while clearing */
+	private final int[] clearStamps;
+
+	/** the current update (clearStamps of 0 never match) */
+	private int clearEpoch = 0;
+
+	/**
+	 * Constructor; computes the distances for the current contents of the
+	 * board, and then listens to the board for changes.
+	 */
+	public FoodDistanceField(PackedBoard board) {
+		this.board = board;
+		int numCells = board.size();
+		this.distances = new int[numCells];
+		this.queue = new int[numCells];
+		this.inQueue = new boolean[numCells];
+		this.cleared = new int[numCells];
+		this.clearStamps = new int[numCells];
+
+		Arrays.fill(this.distances, UNREACHABLE);
+		for (int index = 0; index < numCells; index++) {
+			if (board.isFood(index)) {
+				this.distances[index] = 0;
+				this.enqueue(index);
+			}
+		}
+		this.spreadDecreases();
+		board.addListener(this);
+	}
+
+	/* --------- */
+	/* Distances */
+	/* --------- */
+
+	/**
+	 * @return the length of the shortest path from the given cell to
+	 *         food, or UNREACHABLE if it's blocked or no food can be reached
+	 */
+	public int getDistance(int index) {
+		return this.distances[index];
+	}
+
+	/**
+	 * @param from  the cell to move from (e.g., the snake head)
+	 * @return the neighbor of from that is closest to food (the first one,
+	 *         in the order north, south, east, west, if there's a tie),
+	 *         or -1 if no neighbor can reach food
+	 */
+	public int getNextStep(int from) {
+		int best = -1;
+		int bestDistance = UNREACHABLE;
+		int walls = this.board.getWallMask(from);
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			if ((walls & Direction.bit(direction)) == 0) {
+				int neighbor = this.board.getNeighbor(from, direction);
+				if (this.distances[neighbor] < bestDistance) {
+					best = neighbor;
+					bestDistance = this.distances[neighbor];
+				}
+			}
+		}
+		return best;
+	}
+
+	/* ------------------------------ */
+	/* Keeping in sync with the board */
+	/* ------------------------------ */
+
+	public void cellChanged(int index, CellType oldType, CellType newType) {
+		boolean wasOpen = oldType == CellType.OPEN || oldType == CellType.FOOD;
+		boolean isOpen = newType == CellType.OPEN || newType == CellType.FOOD;
+		boolean wasFood = oldType == CellType.FOOD;
+		boolean isFood = newType == CellType.FOOD;
+		if ((wasOpen && !isOpen) || (wasFood && !isFood)) {
+			this.raise(index);
+		} else if (isOpen && (!wasOpen || isFood)) {
+			this.lower(index);
+		}
+	}
+
+	/**
+	 * Repairs the field after a cell opened up or became food: its own
+	 * distance can only go down, and so can the distances of cells whose
+	 * shortest path can now go through it.
+	 */
+	private void lower(int index) {
+		int distance = this.distanceFromNeighbors(index);
+		if (distance < this.distances[index]) {
+			this.distances[index] = distance;
+			this.enqueue(index);
+			this.spreadDecreases();
+		}
+	}
+
+	/**
+	 * Repairs the field after a cell was blocked or stopped being food.
+	 * <p>
+	 * First, clears the distance of the cell and of every cell that
+	 * depended on it: a cell depends on the cleared cells if all of its
+	 * neighbors one step closer to food have been cleared. The cells are
+	 * looked at in order of their old distance, so by the time a cell is
+	 * looked at, we know which of its closer neighbors have been cleared.
+	 * <p>
+	 * Then gives each cleared cell that is still open the best distance
+	 * offered by its neighbors, and lets those distances spread.
+	 */
+	private void raise(int index) {
+		if (this.distances[index] == UNREACHABLE) {
+			return; // nothing could have depended on it
+		}
+		this.startClearing();
+		int numCleared = 0;
+		this.clearStamps[index] = this.clearEpoch;
+		this.enqueue(index);
+		while (this.queueSize > 0) {
+			int cell = this.dequeue();
+			int oldDistance = this.distances[cell];
+			if (cell != index && this.hasCloserNeighbor(cell)) {
+				continue;
+			}
+			this.distances[cell] = UNREACHABLE;
+			this.cleared[numCleared++] = cell;
+
+			int walls = this.board.getWallMask(cell);
+			for (int direction = 0; direction < Direction.COUNT; direction++) {
+				if ((walls & Direction.bit(direction)) != 0) {
+					continue;
+				}
+				int neighbor = this.board.getNeighbor(cell, direction);
+				if (this.clearStamps[neighbor] != this.clearEpoch
+						&& this.distances[neighbor] == oldDistance + 1) {
+					this.clearStamps[neighbor] = this.clearEpoch;
+					this.enqueue(neighbor);
+				}
+			}
+		}
+
+		for (int i = 0; i < numCleared; i++) {
+			int cell = this.cleared[i];
+			int distance = this.distanceFromNeighbors(cell);
+			if (distance != UNREACHABLE) {
+				this.distances[cell] = distance;
+				this.enqueue(cell);
+			}
+		}
+		this.spreadDecreases();
+	}
+
+	/**
+	 * @return Is the given food or open cell next to a cell that is one
+	 *         step closer to food? (Food cells are always at distance 0.)
+	 */
+	private boolean hasCloserNeighbor(int index) {
+		if (this.board.isFood(index)) {
+			return true;
+		}
+		int closer = this.distances[index] - 1;
+		int walls = this.board.getWallMask(index);
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			if ((walls & Direction.bit(direction)) == 0) {
+				int neighbor = this.board.getNeighbor(index, direction);
+				if (this.distances[neighbor] == closer && this.board.isOpen(neighbor)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the distance the given cell should have, judging only by
+	 *         its type and its neighbors' current distances
+	 */
+	private int distanceFromNeighbors(int index) {
+		if (!this.board.isOpen(index)) {
+			return UNREACHABLE;
+		}
+		if (this.board.isFood(index)) {
+			return 0;
+		}
+		int best = UNREACHABLE;
+		int walls = this.board.getWallMask(index);
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			if ((walls & Direction.bit(direction)) == 0) {
+				int neighbor = this.board.getNeighbor(index, direction);
+				if (this.distances[neighbor] < best && this.board.isOpen(neighbor)) {
+					best = this.distances[neighbor];
+				}
+			}
+		}
+		return best == UNREACHABLE ? UNREACHABLE : best + 1;
+	}
+
+	/**
+	 * Lets the cells in the queue (whose distances have just gone down)
+	 * lower the distances of their open neighbors, and so on outward,
+	 * until no distance can go down any further.
+	 */
+	private void spreadDecreases() {
+		while (this.queueSize > 0) {
+			int cell = this.dequeue();
+			int next = this.distances[cell] + 1;
+			int walls = this.board.getWallMask(cell);
+			for (int direction = 0; direction < Direction.COUNT; direction++) {
+				if ((walls & Direction.bit(direction)) != 0) {
+					continue;
+				}
+				int neighbor = this.board.getNeighbor(cell, direction);
+				if (next < this.distances[neighbor] && this.board.isOpen(neighbor)) {
+					this.distances[neighbor] = next;
+					if (!this.inQueue[neighbor]) {
+						this.enqueue(neighbor);
+					}
+				}
+			}
+		}
+	}
+
+	/* --------------- */
+	/* Private helpers */
+	/* --------------- */
+
+	/** Starts a new round of clearing (see raise). */
+	private void startClearing() {
+		if (this.clearEpoch == Integer.MAX_VALUE) {
+			Arrays.fill(this.clearStamps, 0);
+			this.clearEpoch = 0;
+		}
+		this.clearEpoch++;
+	}
+
+	/** Adds a cell (which must not be in it already) to the back of the queue. */
+	private void enqueue(int index) {
+		int tail = this.queueHead + this.queueSize;
+		if (tail >= this.queue.length) {
+			tail -= this.queue.length;
+		}
+		this.queue[tail] = index;
+		this.inQueue[index] = true;
+		this.queueSize++;
+	}
+
+	/** @return the cell taken off the front of the queue */
+	private int dequeue() {
+		int index = this.queue[this.queueHead];
+		this.inQueue[index] = false;
+		this.queueHead++;
+		if (this.queueHead == this.queue.length) {
+			this.queueHead = 0;
+		}
+		this.queueSize--;
+		return index;
+	}
+}
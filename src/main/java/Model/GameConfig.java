@@ -0,0 +1,360 @@
+package Model;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Model.GameConfig - The settings of a single game that used to be
+ * compile-time constants in Model.Preferences: the board dimensions and
+ * the timing of the game loop.
+ * <p>
+ * A new Model.GameConfig starts out with the values from Model.Preferences.
+ * Settings can be changed with the setters, or read from a properties file
+ * or from system properties using these keys:
+ * <pre>
+ *   snakepro.cellsWide     snakepro.cellsTall
+ *   snakepro.refreshRate   snakepro.foodAddRate   snakepro.sleepTime
+ *   snakepro.pathfinder    snakepro.safeMoves     snakepro.planningTime
+ *   snakepro.speculate     snakepro.speed         snakepro.unthrottled
+ * </pre>
+ */
+public class GameConfig {
+	/** System property naming a properties file to read settings from */
+	public static final String CONFIG_FILE_PROPERTY = "snakepro.config";
+
+	// Keys used in properties files and system properties
+	public static final String CELLS_WIDE = "snakepro.cellsWide";
+	public static final String CELLS_TALL = "snakepro.cellsTall";
+	public static final String REFRESH_RATE = "snakepro.refreshRate";
+	public static final String FOOD_ADD_RATE = "snakepro.foodAddRate";
+	public static final String SLEEP_TIME = "snakepro.sleepTime";
+	public static final String PATHFINDER = "snakepro.pathfinder";
+	public static final String SAFE_MOVES = "snakepro.safeMoves";
+	public static final String PLANNING_TIME = "snakepro.planningTime";
+	public static final String SPECULATE = "snakepro.speculate";
+	public static final String SPEED = "snakepro.speed";
+	public static final String UNTHROTTLED = "snakepro.unthrottled";
+
+	/** the pathfinder used when none is chosen (see Controller.PathfinderRegistry) */
+	public static final String DEFAULT_PATHFINDER = "bfs";
+
+	/**
+	 * The largest number of cells a board may have (the packed board
+	 * stores them in Java arrays).
+	 */
+	public static final long MAX_CELLS = Integer.MAX_VALUE - 8;
+
+	/** width of the board (including walls) in cells */
+	private int numCellsWide = Preferences.NUM_CELLS_WIDE;
+
+	/** height of the board (including walls) in cells */
+	private int numCellsTall = Preferences.NUM_CELLS_TALL;
+
+	/** the snake moves once every refreshRate cycles */
+	private int refreshRate = Preferences.REFRESH_RATE;
+
+	/** food is added once every foodAddRate cycles */
+	private int foodAddRate = Preferences.FOOD_ADD_RATE;
+
+	/** milliseconds between cycles */
+	private int sleepTime = Preferences.SLEEP_TIME;
+
+	/** name of the pathfinder the AI uses */
+	private String pathfinder = DEFAULT_PATHFINDER;
+
+	/** whether the AI's moves are checked for traps (see Controller.MoveSafety) */
+	private boolean safeMoves = true;
+
+	/** milliseconds the AI may spend choosing each move (if it searches to a deadline) */
+	private int planningTime = Preferences.PLANNING_TIME;
+
+	/** whether the AI works out its next move between cycles (see Controller.SpeculativeMove) */
+	private boolean speculate = true;
+
+	/** how many times faster than normal (one cycle per sleepTime) the game runs */
+	private double speed = 1.0;
+
+	/** whether cycles run back to back, as fast as they can (ignoring sleepTime and speed) */
+	private boolean unthrottled = false;
+
+	/* -------------------- */
+	/* Creating GameConfigs */
+	/* -------------------- */
+
+	/**
+	 * Constructor; all settings start out with their default values
+	 * from Model.Preferences.
+	 */
+	public GameConfig() {
+	}
+
+	/**
+	 * @return the default settings, overridden by the properties file
+	 *         named by the snakepro.config system property (if any)
+	 *         and then by any snakepro.* system properties.
+	 */
+	public static GameConfig fromSystemProperties() {
+		GameConfig config = new GameConfig();
+		String fileName = System.getProperty(CONFIG_FILE_PROPERTY);
+		if (fileName != null) {
+			try {
+				config.load(fileName);
+			} catch (IOException e) {
+				throw new IllegalArgumentException("Can't read " + fileName, e);
+			}
+		}
+		config.apply(System.getProperties());
+		return config;
+	}
+
+	/**
+	 * @return the default settings, overridden by those in the given
+	 *         properties file.
+	 */
+	public static GameConfig fromFile(String fileName) throws IOException {
+		GameConfig config = new GameConfig();
+		config.load(fileName);
+		return config;
+	}
+
+	/** Overrides these settings with those in the given properties file. */
+	public void load(String fileName) throws IOException {
+		Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(fileName)) {
+			properties.load(in);
+		}
+		this.apply(properties);
+	}
+
+	/**
+	 * Overrides these settings with those present in the given properties
+	 * (settings whose key is missing are left alone).
+	 */
+	public void apply(Properties properties) {
+		this.setBoardSize(
+				readInt(properties, CELLS_TALL, this.numCellsTall),
+				readInt(properties, CELLS_WIDE, this.numCellsWide));
+		this.setRefreshRate(readInt(properties, REFRESH_RATE, this.refreshRate));
+		this.setFoodAddRate(readInt(properties, FOOD_ADD_RATE, this.foodAddRate));
+		this.setSleepTime(readInt(properties, SLEEP_TIME, this.sleepTime));
+		this.setPathfinder(properties.getProperty(PATHFINDER, this.pathfinder).trim());
+		this.setSafeMoves(readBoolean(properties, SAFE_MOVES, this.safeMoves));
+		this.setPlanningTime(readInt(properties, PLANNING_TIME, this.planningTime));
+		this.setSpeculate(readBoolean(properties, SPECULATE, this.speculate));
+		this.setSpeed(readDouble(properties, SPEED, this.speed));
+		this.setUnthrottled(readBoolean(properties, UNTHROTTLED, this.unthrottled));
+	}
+
+	/** @return the integer value of the given key, or the default if it's missing */
+	static int readInt(Properties properties, String key, int defaultValue) {
+		String value = properties.getProperty(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(key + " must be a whole number, not \""
+					+ value + "\"");
+		}
+	}
+
+	/** @return the number value of the given key, or the default if it's missing */
+	static double readDouble(Properties properties, String key, double defaultValue) {
+		String value = properties.getProperty(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Double.parseDouble(value.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(key + " must be a number, not \""
+					+ value + "\"");
+		}
+	}
+
+	/** @return the true/false value of the given key, or the default if it's missing */
+	static boolean readBoolean(Properties properties, String key, boolean defaultValue) {
+		String value = properties.getProperty(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		value = value.trim();
+		if (value.equalsIgnoreCase("true")) {
+			return true;
+		} else if (value.equalsIgnoreCase("false")) {
+			return false;
+		}
+		throw new IllegalArgumentException(key + " must be true or false, not \""
+				+ value + "\"");
+	}
+
+	/* ---------------------- */
+	/* Accessing the settings */
+	/* ---------------------- */
+
+	/** @return the width of the board (including walls) in cells */
+	public int getNumCellsWide() {
+		return this.numCellsWide;
+	}
+
+	/** @return the height of the board (including walls) in cells */
+	public int getNumCellsTall() {
+		return this.numCellsTall;
+	}
+
+	/** @return the number of cycles between snake moves */
+	public int getRefreshRate() {
+		return this.refreshRate;
+	}
+
+	/** @return the number of cycles between food additions */
+	public int getFoodAddRate() {
+		return this.foodAddRate;
+	}
+
+	/** @return the number of milliseconds between cycles */
+	public int getSleepTime() {
+		return this.sleepTime;
+	}
+
+	/** @return the name of the pathfinder the AI uses */
+	public String getPathfinder() {
+		return this.pathfinder;
+	}
+
+	/** @return Are the AI's moves checked for traps? */
+	public boolean isSafeMoves() {
+		return this.safeMoves;
+	}
+
+	/** @return the number of milliseconds the AI may spend choosing each move */
+	public int getPlanningTime() {
+		return this.planningTime;
+	}
+
+	/** @return Does the AI work out its next move while waiting between cycles? */
+	public boolean isSpeculate() {
+		return this.speculate;
+	}
+
+	/** @return how many times faster than normal the game runs */
+	public double getSpeed() {
+		return this.speed;
+	}
+
+	/** @return Do cycles run back to back, as fast as they can? */
+	public boolean isUnthrottled() {
+		return this.unthrottled;
+	}
+
+	/* --------------------- */
+	/* Changing the settings */
+	/* --------------------- */
+
+	/**
+	 * Sets the board dimensions (including walls). The board needs room
+	 * for the snake's starting position, so it must be at least 3 cells
+	 * tall and 4 cells wide.
+	 */
+	public void setBoardSize(int cellsTall, int cellsWide) {
+		if (cellsTall < 3 || cellsWide < 4) {
+			throw new IllegalArgumentException("The board must be at least 3x4 cells, not "
+					+ cellsTall + "x" + cellsWide);
+		}
+		if ((long) cellsTall * cellsWide > MAX_CELLS) {
+			throw new IllegalArgumentException("A " + cellsTall + "x" + cellsWide
+					+ " board has more than " + MAX_CELLS + " cells");
+		}
+		this.numCellsTall = cellsTall;
+		this.numCellsWide = cellsWide;
+	}
+
+	/** Sets the number of cycles between snake moves (at least 1). */
+	public void setRefreshRate(int cycles) {
+		this.refreshRate = requirePositive(REFRESH_RATE, cycles);
+	}
+
+	/** Sets the number of cycles between food additions (at least 1). */
+	public void setFoodAddRate(int cycles) {
+		this.foodAddRate = requirePositive(FOOD_ADD_RATE, cycles);
+	}
+
+	/** Sets the number of milliseconds between cycles (0 for no pause). */
+	public void setSleepTime(int milliseconds) {
+		if (milliseconds < 0) {
+			throw new IllegalArgumentException(SLEEP_TIME + " can't be negative");
+		}
+		this.sleepTime = milliseconds;
+	}
+
+	/**
+	 * Sets the name of the pathfinder the AI uses; the name is checked
+	 * when a game starts (see Controller.PathfinderRegistry).
+	 */
+	public void setPathfinder(String name) {
+		if (name == null || name.isEmpty()) {
+			throw new IllegalArgumentException(PATHFINDER + " can't be empty");
+		}
+		this.pathfinder = name;
+	}
+
+	/** Sets whether the AI's moves are checked for traps. */
+	public void setSafeMoves(boolean check) {
+		this.safeMoves = check;
+	}
+
+	/**
+	 * Sets the number of milliseconds the AI may spend choosing each move
+	 * (at least 1); only pathfinders that search to a deadline use it.
+	 */
+	public void setPlanningTime(int milliseconds) {
+		this.planningTime = requirePositive(PLANNING_TIME, milliseconds);
+	}
+
+	/** Sets whether the AI works out its next move while waiting between cycles. */
+	public void setSpeculate(boolean ahead) {
+		this.speculate = ahead;
+	}
+
+	/**
+	 * Sets how many times faster than normal the game runs (e.g. 2 for
+	 * twice as many cycles per second, 0.5 for half as many).
+	 */
+	public void setSpeed(double multiplier) {
+		if (!(multiplier > 0) || Double.isInfinite(multiplier)) {
+			throw new IllegalArgumentException(SPEED + " must be a positive number, not "
+					+ multiplier);
+		}
+		this.speed = multiplier;
+	}
+
+	/** Sets whether cycles run back to back, as fast as they can. */
+	public void setUnthrottled(boolean flatOut) {
+		this.unthrottled = flatOut;
+	}
+
+	/** @return value, if it's positive */
+	static int requirePositive(String key, int value) {
+		if (value < 1) {
+			throw new IllegalArgumentException(key + " must be at least 1, not " + value);
+		}
+		return value;
+	}
+
+	public String toString() {
+		return CELLS_TALL + "=" + this.numCellsTall + ", "
+				+ CELLS_WIDE + "=" + this.numCellsWide + ", "
+				+ REFRESH_RATE + "=" + this.refreshRate + ", "
+				+ FOOD_ADD_RATE + "=" + this.foodAddRate + ", "
+				+ SLEEP_TIME + "=" + this.sleepTime + ", "
+				+ PATHFINDER + "=" + this.pathfinder + ", "
+				+ SAFE_MOVES + "=" + this.safeMoves + ", "
+				+ PLANNING_TIME + "=" + this.planningTime + ", "
+				+ SPECULATE + "=" + this.speculate + ", "
+				+ SPEED + "=" + this.speed + ", "
+				+ UNTHROTTLED + "=" + this.unthrottled;
+	}
+}
@@ -0,0 +1,94 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Model.IndexedCellSet - A set of cell indices (between 0 and some fixed
+ * board size) with constant-time add, remove, membership test and
+ * random pick.
+ * <p>
+ * The members are kept densely packed in an array; a second array
+ * remembers where each cell sits in the first one, so removing a cell
+ * just moves the last member into its slot.
+ */
+public class IndexedCellSet {
+	/** the members, in positions 0 to size-1 */
+	private final int[] members;
+
+	/** where each cell sits in this.members, or -1 if it's not a member */
+	private final int[] positions;
+
+	/** the number of members */
+	private int size = 0;
+
+	/**
+	 * Constructor; creates an empty set.
+	 * @param numCells  the number of cells on the board (members must be
+	 *                  between 0 and numCells-1 inclusive)
+	 */
+	public IndexedCellSet(int numCells) {
+		this.members = new int[numCells];
+		this.positions = new int[numCells];
+		Arrays.fill(this.positions, -1);
+	}
+
+	/** Constructor; creates a set with the same members as the given one. */
+	public IndexedCellSet(IndexedCellSet original) {
+		this.members = original.members.clone();
+		this.positions = original.positions.clone();
+		this.size = original.size;
+	}
+
+	/** @return the number of cells in the set */
+	public int size() {
+		return this.size;
+	}
+
+	/** @return Is the set empty? */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/** @return Is the given cell in the set? */
+	public boolean contains(int cellIndex) {
+		return this.positions[cellIndex] >= 0;
+	}
+
+	/**
+	 * @param k  between 0 and size()-1 inclusive
+	 * @return the k-th member (in no particular order)
+	 */
+	public int get(int k) {
+		return this.members[k];
+	}
+
+	/** Adds the given cell to the set (if it isn't there already). */
+	public void add(int cellIndex) {
+		if (this.positions[cellIndex] < 0) {
+			this.members[this.size] = cellIndex;
+			this.positions[cellIndex] = this.size;
+			this.size++;
+		}
+	}
+
+	/** Removes the given cell from the set (if it's there). */
+	public void remove(int cellIndex) {
+		int position = this.positions[cellIndex];
+		if (position >= 0) {
+			this.size--;
+			int last = this.members[this.size];
+			this.members[position] = last;
+			this.positions[last] = position;
+			this.positions[cellIndex] = -1;
+		}
+	}
+
+	/**
+	 * @param random  where the random numbers come from
+	 * @return a member chosen uniformly at random (the set must not be empty)
+	 */
+	public int getRandom(SplittableRandom random) {
+		return this.members[random.nextInt(this.size)];
+	}
+}
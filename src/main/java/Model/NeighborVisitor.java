@@ -0,0 +1,19 @@
+package Model;
+
+/**
+ * Model.NeighborVisitor - Receives the neighbors of a cell, one at a time,
+ * from Model.PackedBoard.forEachNeighbor (or SnakeProData.forEachNeighbor).
+ * <p>
+ * Searches usually implement this themselves, so visiting neighbors
+ * creates no objects at all.
+ */
+public interface NeighborVisitor {
+
+	/**
+	 * Called once for each neighbor that isn't a wall.
+	 * 
+	 * @param neighborIndex  the index of the neighboring cell
+	 * @param direction      which way the neighbor is (see Model.Direction)
+	 */
+	void visitNeighbor(int neighborIndex, int direction);
+}
@@ -0,0 +1,257 @@
+package Model;
+
+import java.util.Arrays;
+
+/**
+ * Model.OccupancyBitboard - Which cells of a Board hold walls, snake and
+ * food, one bit per cell.
+ * <p>
+ * Each row of the board is stored in (width+63)/64 longs; bit b of word w
+ * of a row is the cell in column 64*w+b. The bitboard listens to the
+ * Model.PackedBoard it was built from, so it stays in sync with the game.
+ * <p>
+ * The flood fill works on whole words: within a row, runs of free cells
+ * are filled 64 cells at a time with an add-and-carry trick, and rows
+ * pass what they reached on to the rows above and below.
+ * <p>
+ * Not thread-safe: the flood fill uses scratch space owned by the bitboard.
+ */
+public class OccupancyBitboard implements BoardListener {
+	/** number of rows in the board */
+	private final int height;
+
+	/** number of columns in the board */
+	private final int width;
+
+	/** number of longs used to store a row */
+	private final int wordsPerRow;
+
+	/** the bits of the last word of a row that are real cells */
+	private final long lastWordMask;
+
+	/** wall cells */
+	private final long[] walls;
+
+	/** snake cells (body and head) */
+	private final long[] snake;
+
+	/** food cells */
+	private final long[] food;
+
+	/** scratch space for one row of the flood fill */
+	private final long[] rowScratch;
+
+	/** scratch space for reachableCount */
+	private long[] reachedScratch;
+
+	/**
+	 * Constructor; copies the current contents of the board, and
+	 * then listens to the board for changes.
+	 */
+	public OccupancyBitboard(PackedBoard board) {
+		this.height = board.getNumRows();
+		this.width = board.getNumColumns();
+		this.wordsPerRow = (this.width + 63) >>> 6;
+		int extraBits = this.width & 63;
+		this.lastWordMask = extraBits == 0 ? -1L : (1L << extraBits) - 1;
+		int numWords = this.height * this.wordsPerRow;
+		this.walls = new long[numWords];
+		this.snake = new long[numWords];
+		this.food = new long[numWords];
+		this.rowScratch = new long[this.wordsPerRow];
+
+		for (int index = 0; index < board.size(); index++) {
+			this.cellChanged(index, CellType.OPEN, board.getType(index));
+		}
+		board.addListener(this);
+	}
+
+	/* ------------------------------ */
+	/* Keeping in sync with the board */
+	/* ------------------------------ */
+
+	public void cellChanged(int index, CellType oldType, CellType newType) {
+		int word = this.wordOf(index);
+		long bit = this.bitOf(index);
+		long[] oldBits = this.bitsFor(oldType);
+		if (oldBits != null) {
+			oldBits[word] &= ~bit;
+		}
+		long[] newBits = this.bitsFor(newType);
+		if (newBits != null) {
+			newBits[word] |= bit;
+		}
+	}
+
+	/** @return the bits recording cells of the given type (null for OPEN) */
+	private long[] bitsFor(CellType type) {
+		switch (type) {
+		case WALL:
+			return this.walls;
+		case HEAD:
+		case BODY:
+			return this.snake;
+		case FOOD:
+			return this.food;
+		default:
+			return null;
+		}
+	}
+
+	/* ------------ */
+	/* Single cells */
+	/* ------------ */
+
+	/** @return the number of longs needed to hold one bit per cell */
+	public int getNumWords() {
+		return this.walls.length;
+	}
+
+	/** @return Is the cell at the given index a wall or part of the snake? */
+	public boolean isBlocked(int index) {
+		int word = this.wordOf(index);
+		return ((this.walls[word] | this.snake[word]) & this.bitOf(index)) != 0;
+	}
+
+	/** @return Does the cell at the given index contain food? */
+	public boolean isFood(int index) {
+		return (this.food[this.wordOf(index)] & this.bitOf(index)) != 0;
+	}
+
+	/** @return Is the bit for the given cell set in the given bitboard? */
+	public boolean contains(long[] bits, int index) {
+		return (bits[this.wordOf(index)] & this.bitOf(index)) != 0;
+	}
+
+	/** @return the word holding the given cell's bit */
+	private int wordOf(int index) {
+		int row = index / this.width;
+		int column = index - row * this.width;
+		return row * this.wordsPerRow + (column >>> 6);
+	}
+
+	/** @return the given cell's bit within its word */
+	private long bitOf(int index) {
+		return 1L << (index % this.width);
+	}
+
+	/* ---------- */
+	/* Flood fill */
+	/* ---------- */
+
+	/**
+	 * @return how many open cells (food included) can be reached from
+	 *         the given cell, which may itself be blocked (e.g. the head)
+	 */
+	public int reachableCount(int start) {
+		if (this.reachedScratch == null) {
+			this.reachedScratch = new long[this.getNumWords()];
+		}
+		return this.floodFill(start, this.reachedScratch);
+	}
+
+	/**
+	 * Finds every open cell (food included) that can be reached from
+	 * the given cell by moving north, south, east and west through open
+	 * cells. The start cell may itself be blocked (e.g. the snake head).
+	 *
+	 * @param start    the index of the cell to start from
+	 * @param reached  at least getNumWords() longs; on return, has a bit
+	 *                 set for the start cell and for every reachable cell
+	 * @return the number of reachable open cells (not counting start,
+	 *         unless it is open)
+	 */
+	public int floodFill(int start, long[] reached) {
+		Arrays.fill(reached, 0, this.getNumWords(), 0L);
+		reached[this.wordOf(start)] |= this.bitOf(start);
+
+		// Sweep down and then up the board until nothing changes; each
+		// sweep carries the fill around any number of corners that face
+		// the sweep direction.
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int row = 0; row < this.height; row++) {
+				changed |= this.expandRow(row, reached);
+			}
+			for (int row = this.height - 1; row >= 0; row--) {
+				changed |= this.expandRow(row, reached);
+			}
+		}
+
+		int count = 0;
+		for (int word = 0; word < this.getNumWords(); word++) {
+			count += Long.bitCount(reached[word] & this.freeWord(word));
+		}
+		return count;
+	}
+
+	/**
+	 * Adds to one row of reached every free cell that is connected
+	 * (within the row) to a reached cell of this row or to a reached
+	 * cell directly above or below.
+	 *
+	 * @return Did the row change?
+	 */
+	private boolean expandRow(int row, long[] reached) {
+		int base = row * this.wordsPerRow;
+		long[] seeds = this.rowScratch;
+
+		// Seeds: free cells that are reached, or next to a reached cell.
+		long carryIn = 0;
+		for (int w = 0; w < this.wordsPerRow; w++) {
+			long here = reached[base + w];
+			long next = w + 1 < this.wordsPerRow ? reached[base + w + 1] : 0;
+			long neighbors = here | (here << 1) | carryIn | (here >>> 1) | (next << 63);
+			if (row > 0) {
+				neighbors |= reached[base - this.wordsPerRow + w];
+			}
+			if (row < this.height - 1) {
+				neighbors |= reached[base + this.wordsPerRow + w];
+			}
+			seeds[w] = neighbors & this.freeWord(base + w);
+			carryIn = here >>> 63;
+		}
+
+		// Fill toward higher columns: within a word, adding the seeds to
+		// the free mask makes a carry ripple up through each run of free
+		// cells; a run that reaches bit 63 continues in the next word.
+		long carry = 0;
+		for (int w = 0; w < this.wordsPerRow; w++) {
+			long free = this.freeWord(base + w);
+			long s = seeds[w] | (carry & free);
+			long filled = (((free + s) ^ free) & free) | s;
+			seeds[w] = filled;
+			carry = filled >>> 63;
+		}
+
+		// Fill toward lower columns the same way, on bit-reversed words.
+		carry = 0;
+		for (int w = this.wordsPerRow - 1; w >= 0; w--) {
+			long free = Long.reverse(this.freeWord(base + w));
+			long s = Long.reverse(seeds[w]) | (carry & free);
+			long filled = (((free + s) ^ free) & free) | s;
+			seeds[w] = Long.reverse(filled);
+			carry = filled >>> 63;
+		}
+
+		boolean changed = false;
+		for (int w = 0; w < this.wordsPerRow; w++) {
+			long updated = reached[base + w] | seeds[w];
+			if (updated != reached[base + w]) {
+				reached[base + w] = updated;
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	/** @return the open (or food) cells of the given word */
+	private long freeWord(int word) {
+		long free = ~(this.walls[word] | this.snake[word]);
+		if (word % this.wordsPerRow == this.wordsPerRow - 1) {
+			free &= this.lastWordMask;
+		}
+		return free;
+	}
+}
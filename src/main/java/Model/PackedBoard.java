@@ -0,0 +1,495 @@
+package Model;
+
+import java.awt.Color;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Model.PackedBoard - Primitive storage for the contents of a Board.
+ * <p>
+ * Instead of one Model.BoardCell object per cell, the cell types live in a
+ * flat byte array in row-major order (index = row * width + column), and
+ * the search bookkeeping lives in parallel primitive arrays. BoardCells
+ * handed out by Model.SnakeProData are lightweight views onto this storage:
+ * they are only created when somebody asks for them, and the same view is
+ * returned for a given cell for as long as anyone holds on to it.
+ * <p>
+ * Only the cell types, the wall masks and the set of open cells take
+ * room for every cell (10 bytes a cell); the food and the views take
+ * room only for the cells that have them.
+ */
+public class PackedBoard {
+	/** Cell types, indexed by CellType.ordinal() */
+	private static final CellType[] TYPES = CellType.values();
+
+	/** how many of the latest changes are remembered (see catchUp); a power of two */
+	public static final int CHANGE_LOG = 64;
+
+	/** number of rows in the board */
+	private final int height;
+
+	/** number of columns in the board */
+	private final int width;
+
+	/** CellType ordinal of every cell, in row-major order */
+	private final byte[] cellTypes;
+
+	/**
+	 * The search epoch in which each cell was added to the search queue.
+	 * A cell is "in the search list" only if its stamp equals
+	 * this.searchEpoch, so starting a new search is a single increment
+	 * rather than a sweep over the whole board. Allocated by the first
+	 * search, since big boards that are only searched by the AI's own
+	 * engines never need it.
+	 */
+	private int[] searchStamps;
+
+	/** The current search epoch (stamps of 0 never match) */
+	private int searchEpoch = 1;
+
+	/**
+	 * Index of the cell search came from; only meaningful for cells
+	 * stamped with the current search epoch. Allocated with 
+	 * this.searchStamps.
+	 */
+	private int[] parents;
+
+	/**
+	 * What to add to a cell's index to get its neighbor, for each
+	 * Model.Direction (never changed, so copies share it).
+	 */
+	private final int[] neighborOffsets;
+
+	/**
+	 * For each cell, a Model.Direction mask of the neighbors that are
+	 * walls or off the board. A copy shares its original's, until it
+	 * changes a wall of its own.
+	 */
+	private byte[] wallMasks;
+
+	/** Is this.wallMasks this board's own (not shared with the board it was copied from)? */
+	private boolean ownsWallMasks = true;
+
+	/**
+	 * Views handed out and still in use, by index (created with the
+	 * first one); a view nobody holds any more is dropped
+	 */
+	private Map<Integer, ViewReference> views = null;
+
+	/** where views nobody holds any more turn up */
+	private ReferenceQueue<BoardCell> droppedViews = null;
+
+	/** The cells that are currently OPEN (not food, wall or snake) */
+	private final IndexedCellSet openCells;
+
+	/** The cells that currently contain food */
+	private final SparseCellSet foodCells;
+
+	/** Everyone who wants to hear about changes to the cells */
+	private BoardListener[] listeners = new BoardListener[0];
+
+	/** The number of changes made to the cells so far */
+	private long changeCount = 0;
+
+	/** the cell changed by each of the latest changes, by change number (mod CHANGE_LOG) */
+	private final int[] recentChanges = new int[CHANGE_LOG];
+
+	/**
+	 * Constructor; every cell starts out OPEN.
+	 * @param numRows     the height of the board, in cells
+	 * @param numColumns  the width of the board, in cells
+	 */
+	public PackedBoard(int numRows, int numColumns) {
+		this.height = numRows;
+		this.width = numColumns;
+		int size = numRows * numColumns;
+		this.cellTypes = new byte[size];
+		this.openCells = new IndexedCellSet(size);
+		this.foodCells = new SparseCellSet();
+		Arrays.fill(this.cellTypes, (byte) CellType.OPEN.ordinal());
+		for (int index = 0; index < size; index++) {
+			this.openCells.add(index);
+		}
+
+		this.neighborOffsets = new int[Direction.COUNT];
+		this.neighborOffsets[Direction.NORTH] = -numColumns;
+		this.neighborOffsets[Direction.SOUTH] = numColumns;
+		this.neighborOffsets[Direction.EAST] = 1;
+		this.neighborOffsets[Direction.WEST] = -1;
+
+		// Only the edges of the board start out with "wall" neighbors.
+		this.wallMasks = new byte[size];
+		for (int index = 0; index < size; index++) {
+			for (int direction = 0; direction < Direction.COUNT; direction++) {
+				if (!this.hasNeighbor(index, direction)) {
+					this.wallMasks[index] |= Direction.bit(direction);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Constructor; creates a board with the same contents as the given
+	 * one. Listeners and search state are not copied. The walls must
+	 * not change on the original while the copy is in use, except as
+	 * the copy catches up with it (see catchUp).
+	 */
+	public PackedBoard(PackedBoard original) {
+		this.height = original.height;
+		this.width = original.width;
+		this.cellTypes = original.cellTypes.clone();
+		this.openCells = new IndexedCellSet(original.openCells);
+		this.foodCells = new SparseCellSet(original.foodCells);
+		this.neighborOffsets = original.neighborOffsets;
+		this.wallMasks = original.wallMasks;
+		this.ownsWallMasks = false;
+	}
+
+	/* ------------------------------- */
+	/* Sizes and index <-> coordinates */
+	/* ------------------------------- */
+
+	/** @return the height of the board, in cells */
+	public int getNumRows() {
+		return this.height;
+	}
+
+	/** @return the width of the board, in cells */
+	public int getNumColumns() {
+		return this.width;
+	}
+
+	/** @return the total number of cells in the board */
+	public int size() {
+		return this.cellTypes.length;
+	}
+
+	/** @return the flat index of the cell in row r, column c */
+	public int indexOf(int r, int c) {
+		return r * this.width + c;
+	}
+
+	/** @return the row of the cell at the given index */
+	public int rowOf(int index) {
+		return index / this.width;
+	}
+
+	/** @return the column of the cell at the given index */
+	public int columnOf(int index) {
+		return index % this.width;
+	}
+
+	/**
+	 * @return the (unique) Model.BoardCell view of the cell at the given index
+	 */
+	public BoardCell getView(int index) {
+		if (this.views == null) {
+			this.views = new HashMap<Integer, ViewReference>();
+			this.droppedViews = new ReferenceQueue<BoardCell>();
+		}
+		ViewReference dropped;
+		while ((dropped = (ViewReference) this.droppedViews.poll()) != null) {
+			this.views.remove(dropped.index, dropped);
+		}
+		ViewReference reference = this.views.get(index);
+		BoardCell view = reference == null ? null : reference.get();
+		if (view == null) {
+			view = new BoardCell(this, index);
+			this.views.put(index, new ViewReference(view, index, this.droppedViews));
+		}
+		return view;
+	}
+
+	/** A view handed out by getView, which goes once nobody holds it. */
+	private static final class ViewReference extends WeakReference<BoardCell> {
+		/** the index of the view's cell */
+		final int index;
+
+		ViewReference(BoardCell view, int inputIndex, ReferenceQueue<BoardCell> queue) {
+			super(view, queue);
+			this.index = inputIndex;
+		}
+	}
+
+	/* ---------------- */
+	/* Neighbor lookups */
+	/* ---------------- */
+
+	/** @return Is there a cell (of any type) next to the given one in that direction? */
+	public boolean hasNeighbor(int index, int direction) {
+		switch (direction) {
+		case Direction.NORTH:
+			return index >= this.width;
+		case Direction.SOUTH:
+			return index < this.cellTypes.length - this.width;
+		case Direction.EAST:
+			return this.columnOf(index) < this.width - 1;
+		default:
+			return this.columnOf(index) > 0;
+		}
+	}
+
+	/** @return what to add to an index to move one cell in the given direction */
+	public int getNeighborOffset(int direction) {
+		return this.neighborOffsets[direction];
+	}
+
+	/**
+	 * @return the index of the neighbor in the given direction; no checks
+	 *         are made, so the neighbor must exist (see getWallMask)
+	 */
+	public int getNeighbor(int index, int direction) {
+		return index + this.neighborOffsets[direction];
+	}
+
+	/**
+	 * @return a Model.Direction mask of the neighbors of the given cell
+	 *         that are walls or off the board
+	 */
+	public int getWallMask(int index) {
+		return this.wallMasks[index];
+	}
+
+	/**
+	 * Calls the visitor for each neighbor of the given cell that isn't
+	 * a wall, in the order north, south, east, west.
+	 */
+	public void forEachNeighbor(int index, NeighborVisitor visitor) {
+		int walls = this.wallMasks[index];
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			if ((walls & Direction.bit(direction)) == 0) {
+				visitor.visitNeighbor(index + this.neighborOffsets[direction],
+						direction);
+			}
+		}
+	}
+
+	/* ---------- */
+	/* Cell types */
+	/* ---------- */
+
+	/** @return the contents of the cell at the given index */
+	public CellType getType(int index) {
+		return TYPES[this.cellTypes[index]];
+	}
+
+	/** 
+	 * Changes the contents of the cell at the given index.
+	 * Every change to the board goes through here, so this is where
+	 * the sets of open and food cells and any listeners are kept up to date.
+	 */
+	public void setType(int index, CellType type) {
+		CellType oldType = TYPES[this.cellTypes[index]];
+		this.cellTypes[index] = (byte) type.ordinal();
+		if ((oldType == CellType.WALL) != (type == CellType.WALL)) {
+			this.updateWallMasksAround(index, type == CellType.WALL);
+		}
+		if (type == CellType.OPEN) {
+			this.openCells.add(index);
+		} else {
+			this.openCells.remove(index);
+		}
+		if (type == CellType.FOOD) {
+			this.foodCells.add(index);
+		} else {
+			this.foodCells.remove(index);
+		}
+		this.recentChanges[(int) this.changeCount & (CHANGE_LOG - 1)] = index;
+		this.changeCount++;
+		for (BoardListener listener : this.listeners) {
+			listener.cellChanged(index, oldType, type);
+		}
+	}
+
+	/**
+	 * @return the number of changes made to the cells so far (if it
+	 *         hasn't moved, nothing on the board has changed)
+	 */
+	public long getChangeCount() {
+		return this.changeCount;
+	}
+
+	/**
+	 * @param original  the board this one was copied from
+	 * @param since     original's change count when the two last matched
+	 * @return Can catchUp bring this board up to date with original?
+	 */
+	public boolean canCatchUp(PackedBoard original, long since) {
+		long changes = original.changeCount - since;
+		return this.width == original.width && this.height == original.height
+				&& changes >= 0 && changes <= CHANGE_LOG;
+	}
+
+	/**
+	 * Makes this board match the given one again, by setting just the
+	 * cells changed on it since the two last matched (so listeners only
+	 * hear about those). Takes time in proportion to the number of
+	 * changes, not the size of the board.
+	 * 
+	 * @param original  the board this one was copied from
+	 * @param since     original's change count when the two last matched
+	 * @return false (changing nothing) if more than CHANGE_LOG changes
+	 *         have been made to original since then (see canCatchUp)
+	 */
+	public boolean catchUp(PackedBoard original, long since) {
+		if (!this.canCatchUp(original, since)) {
+			return false;
+		}
+		for (long change = since; change < original.changeCount; change++) {
+			int index = original.recentChanges[(int) change & (CHANGE_LOG - 1)];
+			if (this.cellTypes[index] != original.cellTypes[index]) {
+				this.setType(index, original.getType(index));
+			}
+		}
+		return true;
+	}
+
+	/** Tells the neighbors of a cell whether it's a wall now. */
+	private void updateWallMasksAround(int index, boolean isWall) {
+		if (!this.ownsWallMasks) {
+			this.wallMasks = this.wallMasks.clone();
+			this.ownsWallMasks = true;
+		}
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			if (this.hasNeighbor(index, direction)) {
+				int neighbor = index + this.neighborOffsets[direction];
+				int bit = Direction.bit(Direction.opposite(direction));
+				if (isWall) {
+					this.wallMasks[neighbor] |= bit;
+				} else {
+					this.wallMasks[neighbor] &= ~bit;
+				}
+			}
+		}
+	}
+
+	/** Registers a listener to hear about every later change to the cells. */
+	public void addListener(BoardListener listener) {
+		BoardListener[] bigger = Arrays.copyOf(this.listeners,
+				this.listeners.length + 1);
+		bigger[this.listeners.length] = listener;
+		this.listeners = bigger;
+	}
+
+	/** 
+	 * @return the set of cells that are currently OPEN (food doesn't
+	 *         count); callers must not modify it
+	 */
+	public IndexedCellSet getOpenCells() {
+		return this.openCells;
+	}
+
+	/** @return the set of cells that contain food; callers must not modify it */
+	public SparseCellSet getFoodCells() {
+		return this.foodCells;
+	}
+
+	/** @return Is the cell at the given index a wall? */
+	public boolean isWall(int index) {
+		return this.cellTypes[index] == CellType.WALL.ordinal();
+	}
+
+	/** @return Is the cell at the given index open (or food)? */
+	public boolean isOpen(int index) {
+		byte type = this.cellTypes[index];
+		return type == CellType.OPEN.ordinal() || type == CellType.FOOD.ordinal();
+	}
+
+	/** @return Does the cell at the given index contain food? */
+	public boolean isFood(int index) {
+		return this.cellTypes[index] == CellType.FOOD.ordinal();
+	}
+
+	/** @return The color for drawing the cell at the given index */
+	public Color getCellColor(int index) {
+		return colorOf(this.getType(index));
+	}
+
+	/** @return The color used to draw a cell of the given type */
+	static Color colorOf(CellType type) {
+		switch (type) {
+		case WALL:
+			return Preferences.COLOR_WALL;
+		case FOOD:
+			return Preferences.COLOR_FOOD;
+		case HEAD:
+			return Preferences.COLOR_HEAD;
+		case BODY:
+			return Preferences.COLOR_BODY;
+		default:
+			return Preferences.COLOR_OPEN;
+		}
+	}
+
+	/* ------------ */
+	/* Search state */
+	/* ------------ */
+
+	/** 
+	 * Marks the cell at the given index as added to the search queue 
+	 * (with no parent yet).
+	 */
+	public void setAddedToSearchList(int index) {
+		this.allocateSearchState();
+		if (this.searchStamps[index] != this.searchEpoch) {
+			this.searchStamps[index] = this.searchEpoch;
+			this.parents[index] = -1;
+		}
+	}
+
+	/** @return Has the cell at the given index been added to the search queue? */
+	public boolean inSearchListAlready(int index) {
+		return this.searchStamps != null
+				&& this.searchStamps[index] == this.searchEpoch;
+	}
+
+	/** 
+	 * Sets the parent of the cell at the given index (-1 for none).
+	 * A cell with a parent has been reached by the current search, so
+	 * this also puts the cell in the search list.
+	 */
+	public void setParent(int index, int parentIndex) {
+		this.allocateSearchState();
+		this.searchStamps[index] = this.searchEpoch;
+		this.parents[index] = parentIndex;
+	}
+
+	/** @return the index of the parent of the given cell, or -1 for none */
+	public int getParent(int index) {
+		if (!this.inSearchListAlready(index)) {
+			return -1;
+		}
+		return this.parents[index];
+	}
+
+	/** Clears the search-related info for a single cell */
+	public void clearSearch(int index) {
+		if (this.searchStamps != null) {
+			this.searchStamps[index] = 0;
+		}
+	}
+
+	/** 
+	 * Clears the search-related info for every cell, by moving on
+	 * to a new search epoch. Only when the epoch counter wraps around
+	 * do we have to actually sweep the stamps.
+	 */
+	public void clearSearch() {
+		if (this.searchEpoch == Integer.MAX_VALUE && this.searchStamps != null) {
+			Arrays.fill(this.searchStamps, 0);
+			this.searchEpoch = 0;
+		}
+		this.searchEpoch++;
+	}
+
+	/** Creates the search arrays, the first time they're needed. */
+	private void allocateSearchState() {
+		if (this.searchStamps == null) {
+			this.searchStamps = new int[this.size()];
+			this.parents = new int[this.size()];
+		}
+	}
+}
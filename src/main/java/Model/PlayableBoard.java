@@ -0,0 +1,53 @@
+package Model;
+
+/**
+ * Model.PlayableBoard - A board that moves can be tried out on and taken
+ * back, for pathfinders that look ahead (see
+ * Controller.LookaheadPathfinder). Any Model.BoardView can be copied into
+ * one with copy(), so the game itself is never changed.
+ */
+public interface PlayableBoard extends BoardView {
+	/**
+	 * @return a copy of this board that can be changed without
+	 *         affecting this one (and belongs to the thread that made it)
+	 */
+	PlayableBoard copy();
+
+	/**
+	 * @return Can catchUp bring this copy up to date with the given
+	 *         board (the one it was copied from)?
+	 */
+	boolean canCatchUp(BoardView original);
+
+	/**
+	 * Makes this copy match the board it was copied from again, taking
+	 * time in proportion to what has changed since they last matched,
+	 * not to the size of the board. Any moves simulated on the copy must
+	 * have been taken back first.
+	 *
+	 * @return false (changing nothing) if it can't (see canCatchUp)
+	 */
+	boolean catchUp(BoardView original);
+
+	/**
+	 * Moves the snake head into the given open (or food) cell, eating
+	 * the food if there is any, in a way that undoMove can take back.
+	 *
+	 * @return what undoMove needs to take the move back
+	 */
+	int simulateMove(int next);
+
+	/**
+	 * Takes back the latest move made by simulateMove (moves must be
+	 * taken back in the reverse order they were made).
+	 *
+	 * @param undo  what simulateMove returned
+	 */
+	void undoMove(int undo);
+
+	/**
+	 * @return how many open cells (food included) the snake head could
+	 *         reach, going around walls and the snake's body
+	 */
+	int countCellsReachableFromHead();
+}
@@ -16,6 +16,7 @@ public final class Preferences {
 	public static final int REFRESH_RATE = 2;
 	public static final int FOOD_ADD_RATE = 25;
 	public static final int SLEEP_TIME = 30; // milliseconds between updates
+	public static final int PLANNING_TIME = 20; // milliseconds the AI may think per move
 	// Sizing Constants:
 	public static final int NUM_CELLS_WIDE = 50;
 	public static final int NUM_CELLS_TALL = 30;
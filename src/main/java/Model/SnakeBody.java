@@ -0,0 +1,221 @@
+package Model;
+
+import java.util.Arrays;
+
+/**
+ * Model.SnakeBody - The cells occupied by the snake, as a growable circular
+ * buffer of (packed) cell indices.
+ * <p>
+ * Logically the body runs from the tail (position 0) to the head
+ * (position size()-1). Head, neck and tail access, growing at the head
+ * and sliding forward all take constant time and allocate nothing. Reversing
+ * the snake just flips a flag saying which end of the buffer is the head.
+ */
+public class SnakeBody {
+	/** the cell indices; the length is always a power of two */
+	private int[] cells;
+
+	/** physical position of the first element in this.cells */
+	private int start = 0;
+
+	/** number of cells in the snake */
+	private int size = 0;
+
+	/**
+	 * If false, the tail is at physical position this.start and the head
+	 * at the other end; if true, it's the other way round.
+	 */
+	private boolean reversed = false;
+
+	/** Constructor; creates an empty snake. */
+	public SnakeBody() {
+		this(16);
+	}
+
+	/**
+	 * Constructor; creates an empty snake with room for at least
+	 * the given number of cells before it has to grow.
+	 */
+	public SnakeBody(int initialCapacity) {
+		int capacity = 2;
+		while (capacity < initialCapacity) {
+			capacity *= 2;
+		}
+		this.cells = new int[capacity];
+	}
+
+	/** Constructor; creates a snake with the same cells as the given one. */
+	public SnakeBody(SnakeBody original) {
+		this.cells = original.cells.clone();
+		this.start = original.start;
+		this.size = original.size;
+		this.reversed = original.reversed;
+	}
+
+	/* ------ */
+	/* Access */
+	/* ------ */
+
+	/** @return the number of cells in the snake */
+	public int size() {
+		return this.size;
+	}
+
+	/** @return Does the snake have no cells at all? */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * @param position  between 0 (the tail) and size()-1 (the head)
+	 * @return the index of the cell at that position along the snake
+	 */
+	public int get(int position) {
+		if (position < 0 || position >= this.size) {
+			throw new IndexOutOfBoundsException("position " + position
+					+ " in a snake of length " + this.size);
+		}
+		return this.cells[this.physical(position)];
+	}
+
+	/** @return the index of the head cell */
+	public int getHead() {
+		return this.get(this.size - 1);
+	}
+
+	/** @return the index of the body cell next to the head */
+	public int getNeck() {
+		return this.get(this.size - 2);
+	}
+
+	/** @return the index of the tail cell */
+	public int getTail() {
+		return this.get(0);
+	}
+
+	/* ------------ */
+	/* Modification */
+	/* ------------ */
+
+	/** Adds a new head cell (the snake grows by one). */
+	public void addHead(int cellIndex) {
+		if (this.size == this.cells.length) {
+			this.grow();
+		}
+		int mask = this.cells.length - 1;
+		if (this.reversed) {
+			this.start = (this.start - 1) & mask;
+			this.cells[this.start] = cellIndex;
+		} else {
+			this.cells[(this.start + this.size) & mask] = cellIndex;
+		}
+		this.size++;
+	}
+
+	/**
+	 * Removes the tail cell (the snake shrinks by one).
+	 * @return the index of the cell that was the tail
+	 */
+	public int removeTail() {
+		int tail = this.getTail();
+		if (!this.reversed) {
+			this.start = (this.start + 1) & (this.cells.length - 1);
+		}
+		this.size--;
+		return tail;
+	}
+
+	/**
+	 * Removes the head cell (the snake shrinks by one); this undoes
+	 * addHead.
+	 * @return the index of the cell that was the head
+	 */
+	public int removeHead() {
+		int head = this.getHead();
+		if (this.reversed) {
+			this.start = (this.start + 1) & (this.cells.length - 1);
+		}
+		this.size--;
+		return head;
+	}
+
+	/** Adds a new tail cell (the snake grows by one); this undoes removeTail. */
+	public void addTail(int cellIndex) {
+		if (this.size == this.cells.length) {
+			this.grow();
+		}
+		int mask = this.cells.length - 1;
+		if (this.reversed) {
+			this.cells[(this.start + this.size) & mask] = cellIndex;
+		} else {
+			this.start = (this.start - 1) & mask;
+			this.cells[this.start] = cellIndex;
+		}
+		this.size++;
+	}
+
+	/**
+	 * Moves the snake forward: adds a new head and drops the tail.
+	 * @return the index of the cell the tail left
+	 */
+	public int slide(int newHead) {
+		int tail = this.removeTail();
+		this.addHead(newHead);
+		return tail;
+	}
+
+	/** Swaps head and tail (in constant time). */
+	public void reverse() {
+		this.reversed = !this.reversed;
+	}
+
+	/**
+	 * Makes this snake the same as the given one (reusing this one's
+	 * room, if it has the same amount).
+	 */
+	public void copyFrom(SnakeBody original) {
+		if (this.cells.length != original.cells.length) {
+			this.cells = new int[original.cells.length];
+		}
+		System.arraycopy(original.cells, 0, this.cells, 0, original.cells.length);
+		this.start = original.start;
+		this.size = original.size;
+		this.reversed = original.reversed;
+	}
+
+	/** Removes every cell from the snake. */
+	public void clear() {
+		this.start = 0;
+		this.size = 0;
+		this.reversed = false;
+	}
+
+	/* --------------- */
+	/* Private helpers */
+	/* --------------- */
+
+	/** @return the physical position in this.cells of a logical position */
+	private int physical(int position) {
+		int offset = this.reversed ? this.size - 1 - position : position;
+		return (this.start + offset) & (this.cells.length - 1);
+	}
+
+	/** Doubles the capacity, laying the cells out from position 0. */
+	private void grow() {
+		int[] bigger = new int[this.cells.length * 2];
+		for (int i = 0; i < this.size; i++) {
+			bigger[i] = this.cells[(this.start + i) & (this.cells.length - 1)];
+		}
+		this.cells = bigger;
+		this.start = 0;
+	}
+
+	/** @return the snake's cell indices, from tail to head, as a string */
+	public String toString() {
+		int[] inOrder = new int[this.size];
+		for (int i = 0; i < this.size; i++) {
+			inOrder[i] = this.get(i);
+		}
+		return Arrays.toString(inOrder);
+	}
+}
@@ -8,7 +8,7 @@ import Model.SnakeMode;
 
 import java.awt.Color;
 import java.lang.Math;
-import java.util.LinkedList;
+import java.util.SplittableRandom;
 
 /**
  * Model.SnakeProData - Representation of the Board. Outside of the model, no one knows
@@ -17,22 +17,36 @@ import java.util.LinkedList;
  * 
  * @author CS60 instructors
  */
-public class SnakeProData {
+public class SnakeProData implements PlayableBoard {
 	/** 
-	 * The collection of all the BoardCells in the program.
+	 * The contents of all the cells in the program.
 	 * <p>
-	 * All BoardCells needed by the program are created by the
-	 * Model.SnakeProData constructor, so you don't need to create any
-	 * new BoardCells in your code; you'll just pass around (references to)
-	 * existing cells, and change the contents of some of these cells.
+	 * Cell contents are stored packed (see Model.PackedBoard); the
+	 * BoardCells handed out by getCell are views onto that storage, so
+	 * you don't need to create any new BoardCells in your code; you'll
+	 * just pass around (references to) existing cells, and change the
+	 * contents of some of these cells.
 	 */
-	private BoardCell[][] boardCells2D;
+	private PackedBoard board;
 
 	
-	/** 
-	 * The number of non-wall cells in the initial Board.
+	/**
+	 * Bit-per-cell summary of the board, for fast reachability
+	 * queries (created when first asked for).
 	 */
-	private int freeSpots = 0;
+	private OccupancyBitboard occupancy = null;
+
+	/**
+	 * Distance from every cell to the nearest food, kept up to date
+	 * as the game goes on (created when first asked for).
+	 */
+	private FoodDistanceField foodDistances = null;
+
+	/**
+	 * Which connected region of open space each cell is in, kept up
+	 * to date as the game goes on (created when first asked for).
+	 */
+	private ComponentLabels componentLabels = null;
 
 	/**
 	 * The current movement "mode" of the snake, i.e., whether it's headed
@@ -40,46 +54,111 @@ public class SnakeProData {
 	 */
 	private SnakeMode currentMode = SnakeMode.GOING_EAST;
 	
-	/** 
-	 * A list of (references to) cells that currently contain food,
-	 * ordered from oldest (first) to youngest (last).
-	 * 
-	 */
-	private LinkedList<BoardCell> foodCells = new LinkedList<BoardCell>();
-	
 	/**
-	 * A list of (references to) the cells that contain the snake. 
-	 * The head is the last element of the list. 
+	 * The (indices of the) cells that contain the snake, from the
+	 * tail to the head.
 	 */
-	private LinkedList<BoardCell> snakeCells = new LinkedList<BoardCell>();
+	private SnakeBody snakeCells = new SnakeBody();
 
 	/**
 	 * Whether the game is done.
 	 */
 	private boolean gameOver = false;
 
+	/**
+	 * Where food gets placed comes from here. Each game has its own
+	 * generator (nothing is shared between games running at once), and
+	 * the same seed always places the same food, given the same moves.
+	 */
+	private SplittableRandom random;
+
+	/**
+	 * The seed this.random started from.
+	 */
+	private long seed;
+
+	/**
+	 * The game this one is a copy of (null if it isn't one), which it
+	 * can catch up with (see catchUp).
+	 */
+	private SnakeProData source = null;
+
+	/**
+	 * The source's board's change count when this copy last matched it.
+	 */
+	private long sourceChanges;
+
 	/* -------------------------------------- */
 	/* Constructor and initialization methods */
 	/* -------------------------------------- */
 	
+	/**
+	 * Constructor; creates a "Board" of the default size with walls 
+	 * on the boundary and open in the interior.
+	 */
+	public SnakeProData() {
+		this(new GameConfig());
+	}
+
 	/**
 	 * Constructor; creates a "Board" with walls on the boundary
 	 * and open in the interior.
+	 * 
+	 * @param config  the settings for this game (only the board 
+	 *                dimensions are used here)
 	 */
-	public SnakeProData() {
-		int height = Preferences.NUM_CELLS_TALL;
-		int width = Preferences.NUM_CELLS_WIDE;
-		this.boardCells2D = new BoardCell[height][width];
+	public SnakeProData(GameConfig config) {
+		this(config, newSeed());
+	}
 
-		// Place walls around the outside
+	/**
+	 * Constructor; creates a "Board" with walls on the boundary
+	 * and open in the interior, on which food is placed the same way
+	 * every time the same seed is used.
+	 * 
+	 * @param config     the settings for this game (only the board 
+	 *                   dimensions are used here)
+	 * @param inputSeed  where to start the random numbers
+	 */
+	public SnakeProData(GameConfig config, long inputSeed) {
+		this.seed = inputSeed;
+		this.random = new SplittableRandom(inputSeed);
+		int height = config.getNumCellsTall();
+		int width = config.getNumCellsWide();
+		this.board = new PackedBoard(height, width);
+
+		// Place walls around the outside (the rest starts out open)
 		this.addWalls();
+	}
 
-		// Fill the remaining cells not already filled!
-		this.fillRemainingCells();
+	/**
+	 * Constructor; creates a copy of the given game (see copy). The
+	 * copy's random numbers start over from the original's seed, so the
+	 * original's aren't disturbed.
+	 */
+	private SnakeProData(SnakeProData original) {
+		this.seed = original.seed;
+		this.random = new SplittableRandom(original.seed);
+		this.board = new PackedBoard(original.board);
+		this.currentMode = original.currentMode;
+		this.snakeCells = new SnakeBody(original.snakeCells);
+		this.gameOver = original.gameOver;
+		this.source = original;
+		this.sourceChanges = original.board.getChangeCount();
+	}
+
+	/** @return a seed for a game that didn't get one */
+	private static long newSeed() {
+		return new SplittableRandom().nextLong();
+	}
+
+	/** @return the seed this game's random numbers started from */
+	public long getSeed() {
+		return this.seed;
 	}
 
 	/**
-	 * Adds WALL Boardcells around the edges of this.boardCells2DD.
+	 * Makes the cells around the edges of this.board WALLs.
 	 */
 	private void addWalls() {
 		int height = this.getNumRows();
@@ -87,35 +166,14 @@ public class SnakeProData {
 
 		// Add Left and Right Walls
 		for (int row = 0; row < height; row++) {
-			this.boardCells2D[row][0] = new BoardCell(row, 0, CellType.WALL);
-			this.boardCells2D[row][width - 1] = new BoardCell(row, width - 1,
-					CellType.WALL);
+			this.board.setType(this.board.indexOf(row, 0), CellType.WALL);
+			this.board.setType(this.board.indexOf(row, width - 1), CellType.WALL);
 		}
 		// Add top and bottom walls
 		for (int column = 0; column < width; column++) {
-			this.boardCells2D[0][column] = new BoardCell(0, column, CellType.WALL);
-			this.boardCells2D[height - 1][column] = new BoardCell(height - 1,
-					column, CellType.WALL);
-		}
-	}
-
-	/** 
-	 * Finishes filling this.boardCells2D with OPEN BoardCells 
-	 * (and set this.freeSpots to the number of OPEN cells).
-	 */
-	private void fillRemainingCells() {
-		int height = this.getNumRows();
-		int width = this.getNumColumns();
-
-		this.freeSpots = 0;
-		for (int row = 0; row < height; row++) {
-			for (int column = 0; column < width; column++) {
-				if (this.boardCells2D[row][column] == null) {
-					this.boardCells2D[row][column] = 
-							new BoardCell(row, column, CellType.OPEN);
-					this.freeSpots++;
-				}
-			}
+			this.board.setType(this.board.indexOf(0, column), CellType.WALL);
+			this.board.setType(this.board.indexOf(height - 1, column),
+					CellType.WALL);
 		}
 	}
 
@@ -125,8 +183,8 @@ public class SnakeProData {
 	public void placeSnakeAtStartLocation() {
 		BoardCell body = this.getCell(1, 1);
 		BoardCell head = this.getCell(1, 2);
-		this.snakeCells.addLast(body);
-		this.snakeCells.addLast(head);
+		this.snakeCells.addHead(body.getIndex());
+		this.snakeCells.addHead(head.getIndex());
 		head.becomeHead();
 		body.becomeBody();
 	}
@@ -146,14 +204,86 @@ public class SnakeProData {
 	 * @return the height of the Board (including walls) in cells.
 	 */
 	public int getNumRows() {
-		return this.boardCells2D.length;
+		return this.board.getNumRows();
 	}
 
 	/**
 	 * @return The width of the Board (including walls) in cells.
 	 */
 	public int getNumColumns() {
-		return this.boardCells2D[0].length;
+		return this.board.getNumColumns();
+	}
+
+	/**
+	 * @return a bitboard of the walls, snake and food, which stays in
+	 *         sync with this board (built the first time it's asked for)
+	 */
+	public OccupancyBitboard getOccupancy() {
+		if (this.occupancy == null) {
+			this.occupancy = new OccupancyBitboard(this.board);
+		}
+		return this.occupancy;
+	}
+
+	/**
+	 * @return how many open cells (food included) the snake head could
+	 *         reach, going around walls and the snake's body
+	 */
+	public int countCellsReachableFromHead() {
+		// The regions next to the head, each counted once
+		ComponentLabels labels = this.getComponentLabels();
+		int head = this.snakeCells.getHead();
+		int[] seen = new int[Direction.COUNT];
+		int numSeen = 0;
+		int count = 0;
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			int next = this.getOpenNeighbor(head, direction);
+			if (next < 0) {
+				continue;
+			}
+			int label = labels.getLabel(next);
+			boolean counted = false;
+			for (int k = 0; k < numSeen; k++) {
+				counted |= seen[k] == label;
+			}
+			if (!counted) {
+				seen[numSeen++] = label;
+				count += labels.getSize(label);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return the distance from every cell to the nearest food, which
+	 *         stays in sync with this board (built the first time it's
+	 *         asked for; see Controller.Pathfinder.prepare)
+	 */
+	public FoodDistanceField getFoodDistances() {
+		if (this.foodDistances == null) {
+			this.foodDistances = new FoodDistanceField(this.board);
+		}
+		return this.foodDistances;
+	}
+
+	/**
+	 * @return the connected regions of open space, which stay in sync
+	 *         with this board (built the first time they're asked for;
+	 *         see Controller.Pathfinder.prepare)
+	 */
+	public ComponentLabels getComponentLabels() {
+		if (this.componentLabels == null) {
+			this.componentLabels = new ComponentLabels(this.board);
+		}
+		return this.componentLabels;
+	}
+
+	/**
+	 * @return the number of changes made to the cells so far; if it's
+	 *         the same as before, nothing on the board has changed
+	 */
+	public long getChangeCount() {
+		return this.board.getChangeCount();
 	}
 
 	/**
@@ -170,11 +300,103 @@ public class SnakeProData {
 	public BoardCell getCell(int r, int c) {
 		if (r >= this.getNumRows() || c >= this.getNumColumns() || r < 0
 				|| c < 0) {
-			System.err.println("Trying to access cell outside of the Board:");
-			System.err.println("row: " + r + " col: " + c);
-			System.exit(0);
+			throw new IndexOutOfBoundsException(
+					"Trying to access cell outside of the Board: row: " + r
+					+ " col: " + c);
 		}
-		return this.boardCells2D[r][c];
+		return this.board.getView(this.board.indexOf(r, c));
+	}
+
+	/* ------------------------------------------ */
+	/* Index-based access (for the AI's searches) */
+	/* ------------------------------------------ */
+
+	/*
+	 * Every cell also has an index, between 0 and getNumCells()-1 (see
+	 * BoardCell.getIndex()). Searches that visit many cells should use
+	 * these methods, which don't create or touch any Model.BoardCell;
+	 * pathfinders see them through the read-only Model.BoardView.
+	 */
+
+	/**
+	 * @return the number of cells in the Board (including walls)
+	 */
+	public int getNumCells() {
+		return this.board.size();
+	}
+
+	/**
+	 * @param index  between 0 and getNumCells()-1 inclusive
+	 * @return the cell with the given index
+	 */
+	public BoardCell getCell(int index) {
+		return this.board.getView(index);
+	}
+
+	/** @return the index of the cell in row r, column c */
+	public int getIndex(int r, int c) {
+		return this.board.indexOf(r, c);
+	}
+
+	/** @return Is the cell at the given index open (or food)? */
+	public boolean isOpen(int index) {
+		return this.board.isOpen(index);
+	}
+
+	/** @return Does the cell at the given index contain food? */
+	public boolean isFood(int index) {
+		return this.board.isFood(index);
+	}
+
+	/** @return the number of cells that contain food */
+	public int getNumFood() {
+		return this.board.getFoodCells().size();
+	}
+
+	/**
+	 * @param k  between 0 and getNumFood()-1 inclusive
+	 * @return the index of the k-th food cell (in no particular order)
+	 */
+	public int getFood(int k) {
+		return this.board.getFoodCells().get(k);
+	}
+
+	/**
+	 * @return the index of the neighbor in the given Model.Direction; the
+	 *         neighbor must exist (check getWallMask first)
+	 */
+	public int getNeighborIndex(int index, int direction) {
+		return this.board.getNeighbor(index, direction);
+	}
+
+	/**
+	 * @return a Model.Direction mask of the neighbors of the given cell 
+	 *         that are walls (or off the board)
+	 */
+	public int getWallMask(int index) {
+		return this.board.getWallMask(index);
+	}
+
+	/**
+	 * Calls the visitor for each neighbor of the given cell that isn't 
+	 * a wall (north, south, east, then west), without creating any objects.
+	 */
+	public void forEachNeighbor(int index, NeighborVisitor visitor) {
+		this.board.forEachNeighbor(index, visitor);
+	}
+
+	/**
+	 * @return the index of the cell containing the snake's head
+	 */
+	public int getSnakeHeadIndex() {
+		return this.snakeCells.getHead();
+	}
+
+	/**
+	 * @return the index of the cell containing the snake's tail
+	 */
+	public int getSnakeTailIndex() {
+		return this.snakeCells.getTail();
 	}
 
 	/* -------------------- */
@@ -185,48 +407,45 @@ public class SnakeProData {
 	 * @return Is there zero food?
 	 */
 	public boolean noFood() {
-		return this.foodCells.isEmpty();
+		return this.board.getFoodCells().isEmpty();
 	}
 
 	/**
 	 * Adds food to an open spot.
+	 * <p>
+	 * The spot is drawn directly from the board's set of open cells,
+	 * so this takes constant time however full the Board is.
+	 * 
+	 * @return Was food added? (Not if the Board is too full.)
 	 */
-	public void addFood() {
-		// Pick a random cell.
-		int row    = (int) (this.getNumRows()    * Math.random());
-		int column = (int) (this.getNumColumns() * Math.random());
-		BoardCell cell = this.getCell(row, column);
-		
-		if (cell.isOpen()) { 
-			// If the random cell is open, put food there.
-			cell.becomeFood();
-			foodCells.addLast(cell);
-		} else {
-			// If the random cell is occupied and the Board isn't already
-			// too full of food, try again to place food.
-			double totalSize = this.getNumColumns() * this.getNumRows();
-			double currentFreeSpots = this.freeSpots - this.snakeCells.size()
-					- this.foodCells.size();
-			double ratioFree = currentFreeSpots / totalSize;
-			if (ratioFree < 0.2) {
-				System.err.println("Not adding more food");
-			} else {
-				addFood();
-			}
+	public boolean addFood() {
+		IndexedCellSet openCells = this.board.getOpenCells();
+
+		// Don't add more food if the Board is already too full
+		// (unless there's no food at all).
+		double totalSize = this.getNumColumns() * this.getNumRows();
+		double ratioFree = openCells.size() / totalSize;
+		if (openCells.isEmpty() || (ratioFree < 0.2 && !this.noFood())) {
+			return false;
 		}
+
+		// Pick a random open cell and put food there.
+		this.board.setType(openCells.getRandom(this.random), CellType.FOOD);
+		return true;
 	}
 
 	/** 
-	 * Deletes the oldest piece of un-eaten food.
+	 * Deletes a piece of un-eaten food (the first in the board's set of
+	 * food cells, which is not necessarily the oldest).
 	 * <p>
 	 * The function is not used in the given code, but it might be
 	 * useful if you want to extend the game.
 	 */
 	@SuppressWarnings("unused")
 	private void removeFood() {
-		if (!foodCells.isEmpty()) {
-			foodCells.peekFirst().becomeOpen();
-			foodCells.removeFirst();
+		SparseCellSet food = this.board.getFoodCells();
+		if (!food.isEmpty()) {
+			this.board.setType(food.get(0), CellType.OPEN);
 		}
 	}
 
@@ -234,9 +453,119 @@ public class SnakeProData {
 	/* Snake movement methods */
 	/* --------------------- */
 
-	// TODO: Add method(s) here to support Controller.SnakeProBrain's advanceSnake method
+	/**
+	 * Moves the snake head into the given (open, non-food) cell;
+	 * the tail moves along behind it.
+	 */
+	public void moveSnake(BoardCell nextCell) {
+		this.moveSnake(nextCell.getIndex());
+	}
+
+	/** Moves the snake head into the given (open, non-food) cell. */
+	private void moveSnake(int next) {
+		this.moveHeadTo(next);
+		int oldTail = this.snakeCells.removeTail();
+		this.board.setType(oldTail, CellType.OPEN);
+	}
+
+	/**
+	 * Moves the snake head into the given food cell and eats the food;
+	 * the tail stays put, so the snake grows by one.
+	 */
+	public void eatFoodAndGrow(BoardCell foodCell) {
+		this.moveHeadTo(foodCell.getIndex());
+	}
+
+	/** Makes next the new head (and the old head part of the body). */
+	private void moveHeadTo(int next) {
+		this.board.setType(this.snakeCells.getHead(), CellType.BODY);
+		this.board.setType(next, CellType.HEAD);
+		this.snakeCells.addHead(next);
+	}
 
 	
+	/* ----------------------------- */
+	/* Simulation (for AI lookahead) */
+	/* ----------------------------- */
+
+	/**
+	 * @return a copy of this game that can be changed (e.g. by
+	 *         simulateMove) without affecting this one. Copying takes
+	 *         time proportional to the size of the board; the distance
+	 *         field, bitboard and region labels are not copied, but made
+	 *         again if the copy asks for them. The walls are shared
+	 *         with this game until the copy changes one.
+	 */
+	public SnakeProData copy() {
+		return new SnakeProData(this);
+	}
+
+	/**
+	 * @return Can catchUp bring this copy up to date with the given board
+	 *         (which must be the game it was copied from)?
+	 */
+	public boolean canCatchUp(BoardView original) {
+		return original == this.source
+				&& this.board.canCatchUp(this.source.board, this.sourceChanges);
+	}
+
+	/**
+	 * Makes this copy match the game it was copied from again, taking
+	 * time in proportion to the cells changed since they last matched
+	 * (and the length of the snake), so a copy can be kept from one move
+	 * to the next instead of made again. Any moves simulated on the copy
+	 * must have been taken back first.
+	 * 
+	 * @param original  the game this was copied from
+	 * @return false (changing nothing) if it can't (see canCatchUp)
+	 */
+	public boolean catchUp(BoardView original) {
+		if (!this.canCatchUp(original)) {
+			return false;
+		}
+		this.board.catchUp(this.source.board, this.sourceChanges);
+		this.sourceChanges = this.source.board.getChangeCount();
+		this.snakeCells.copyFrom(this.source.snakeCells);
+		this.currentMode = this.source.currentMode;
+		this.gameOver = this.source.gameOver;
+		return true;
+	}
+
+	/**
+	 * Moves the snake head into the given open (or food) cell, just as
+	 * moveSnake or eatFoodAndGrow would, in a way that undoMove can take
+	 * back. Meant for looking ahead on a copy of the game.
+	 * 
+	 * @return what undoMove needs to take the move back
+	 */
+	public int simulateMove(int next) {
+		if (this.board.isFood(next)) {
+			this.moveHeadTo(next);
+			return -1;
+		}
+		int tail = this.snakeCells.getTail();
+		this.moveSnake(next);
+		return tail;
+	}
+
+	/**
+	 * Takes back the latest move made by simulateMove (moves must be
+	 * taken back in the reverse order they were made).
+	 * 
+	 * @param undo  what simulateMove returned
+	 */
+	public void undoMove(int undo) {
+		int head = this.snakeCells.removeHead();
+		if (undo < 0) {
+			this.board.setType(head, CellType.FOOD);
+		} else {
+			this.board.setType(head, CellType.OPEN);
+			this.snakeCells.addTail(undo);
+			this.board.setType(undo, CellType.BODY);
+		}
+		this.board.setType(this.snakeCells.getHead(), CellType.HEAD);
+	}
+
 	/* -------------------------------------- */
 	/* Methods to support movement without AI */
 	/* -------------------------------------- */
@@ -246,7 +575,7 @@ public class SnakeProData {
 	 *         which must not be on the boundary.
 	 */
 	public BoardCell getNorthNeighbor(BoardCell cell) {
-		return null;  // TODO
+		return this.getNeighbor(cell, Direction.NORTH);
 	}
 
 	/**
@@ -254,7 +583,7 @@ public class SnakeProData {
 	 *         which must not be on the boundary.
 	 */	
 	public BoardCell getSouthNeighbor(BoardCell cell) {
-		return null;  // TODO
+		return this.getNeighbor(cell, Direction.SOUTH);
 	}
 
 	/**
@@ -262,7 +591,7 @@ public class SnakeProData {
 	 *         which must not be on the boundary.
 	 */	
 	public BoardCell getEastNeighbor(BoardCell cell) {
-		return null;  // TODO
+		return this.getNeighbor(cell, Direction.EAST);
 	}
 
 	/** 
@@ -270,7 +599,19 @@ public class SnakeProData {
 	 *         which must not be on the boundary.
 	 */
 	public BoardCell getWestNeighbor(BoardCell cell) {
-		return null;   // TODO
+		return this.getNeighbor(cell, Direction.WEST);
+	}
+
+	/**
+	 * @return the cell next to the given cell in the given Model.Direction
+	 */
+	private BoardCell getNeighbor(BoardCell cell, int direction) {
+		int index = cell.getIndex();
+		if (!this.board.hasNeighbor(index, direction)) {
+			throw new IndexOutOfBoundsException(cell
+					+ " has no neighbor in direction " + direction);
+		}
+		return this.board.getView(this.board.getNeighbor(index, direction));
 	}
 	
 	/** 
@@ -308,7 +649,16 @@ public class SnakeProData {
 	 *         Java wants this function to return a value even then.)
 	 */ 
 	public BoardCell getNextCellInDir() {
-		return null;  // TODO
+		switch (this.currentMode) {
+		case GOING_NORTH:
+			return this.getNorthNeighbor();
+		case GOING_SOUTH:
+			return this.getSouthNeighbor();
+		case GOING_WEST:
+			return this.getWestNeighbor();
+		default:
+			return this.getEastNeighbor();
+		}
 	}
 
 	/* -------------------------------------------------- */
@@ -396,22 +746,28 @@ public class SnakeProData {
 	 * @return the cell containing the snake's head
 	 */
 	public BoardCell getSnakeHead() {
-		return this.snakeCells.peekLast();
+		return this.board.getView(this.snakeCells.getHead());
 	}
 
 	/**
 	 * @return the cell containing the snake's tail
 	 */
 	public BoardCell getSnakeTail() {
-		return this.snakeCells.peekFirst();
+		return this.board.getView(this.snakeCells.getTail());
 	}
 	
 	/**
 	 * @return the snake body cell adjacent to the head
 	 */
 	public BoardCell getSnakeNeck() {
-		int lastSnakeCellIndex = this.snakeCells.size() - 1;
-		return this.snakeCells.get(lastSnakeCellIndex - 1);
+		return this.board.getView(this.snakeCells.getNeck());
+	}
+
+	/**
+	 * @return the length of the snake, head included
+	 */
+	public int getSnakeLength() {
+		return this.snakeCells.size();
 	}
 
 	/* ------------------------------ */
@@ -424,23 +780,50 @@ public class SnakeProData {
 	 * @return The color of cell c in row r.
 	 */
 	public Color getCellColor(int row, int col) {
-		BoardCell cell = getCell(row, col);
-		return cell.getCellColor();
+		return this.board.getCellColor(this.board.indexOf(row, col));
 	}
 
 	/* ---------------------------- */
 	/* Helper method(s) for reverse */
 	/* ---------------------------- */
 
-	// TODO
-	
-	// Step 1: unlabel the head
+	/**
+	 * Reverses the snake back-to-front (in constant time) and, unless
+	 * we're in AI mode, points it away from its new neck.
+	 */
+	public void reverseSnake() {
+		// Step 1: unlabel the head
+		this.getSnakeHead().becomeBody();
 
-	// Step 2: reverse the body parts
+		// Step 2: reverse the body parts
+		this.snakeCells.reverse();
 
-	// Step 3: relabel the head
+		// Step 3: relabel the head
+		this.getSnakeHead().becomeHead();
 
-	// Step 4: calculate the new direction after reversing!
+		// Step 4: calculate the new direction after reversing!
+		if (!this.inAImode()) {
+			this.setDirectionAwayFromNeck();
+		}
+	}
+
+	/**
+	 * Sets the direction of travel to continue the line from the
+	 * neck through the head.
+	 */
+	private void setDirectionAwayFromNeck() {
+		BoardCell head = this.getSnakeHead();
+		BoardCell neck = this.getSnakeNeck();
+		if (head.getRow() < neck.getRow()) {
+			this.setDirectionNorth();
+		} else if (head.getRow() > neck.getRow()) {
+			this.setDirectionSouth();
+		} else if (head.getColumn() > neck.getColumn()) {
+			this.setDirectionEast();
+		} else {
+			this.setDirectionWest();
+		}
+	}
 
 	/* ------------------------------------- */
 	/* Methods to reset the model for search */
@@ -449,13 +832,13 @@ public class SnakeProData {
 	/**
 	 * Clears the search-related fields in all the cells,
 	 * in preparation for a new breadth-first search. 
+	 * <p>
+	 * This takes constant time: the board just starts a new search
+	 * epoch, and every cell stamped with an older epoch counts as 
+	 * not searched.
 	 */
 	public void resetCellsForNextSearch() {
-		for (BoardCell[] row : this.boardCells2D) {
-			for (BoardCell cell : row) {
-				cell.clear_RestartSearch();
-			}
-		}
+		this.board.clearSearch();
 	}
 
 	/* ---------------- */
@@ -484,9 +867,10 @@ public class SnakeProData {
 	public SnakeProData(TestGame gameNum) {
 		// Want pictures of the test boards?
 		// http://tinyurl.com/snakeProTestBoards
-		this.boardCells2D = new BoardCell[6][6];
+		this.seed = newSeed();
+		this.random = new SplittableRandom(this.seed);
+		this.board = new PackedBoard(6, 6);
 		this.addWalls();
-		this.fillRemainingCells();
 		if (gameNum.snakeAtStart()) {
 			this.testing_snakeAtStartLocation(gameNum);
 			this.setDirectionEast();
@@ -526,17 +910,6 @@ public class SnakeProData {
 		} else if (gameNum == TestGame.G11) {
 			// No food :)
 		}
-		// Add all food to the food cells
-		int height = this.getNumRows();
-		int width = this.getNumColumns();
-		for (int row = 0; row < height; row++) {
-			for (int column = 0; column < width; column++) {
-				BoardCell cell = this.getCell(row, column);
-				if (cell.isFood()) {
-					this.foodCells.add(cell);
-				}
-			}
-		}
 	}
 
 	private void testing_snakeNotAtStartLocation(TestGame gameNum) {
@@ -544,9 +917,9 @@ public class SnakeProData {
 			BoardCell body2 = this.getCell(2, 3);
 			BoardCell body1 = this.getCell(2, 2);
 			BoardCell head = this.getCell(2, 1);
-			this.snakeCells.add(body2);
-			this.snakeCells.add(body1);
-			this.snakeCells.add(head);
+			this.snakeCells.addHead(body2.getIndex());
+			this.snakeCells.addHead(body1.getIndex());
+			this.snakeCells.addHead(head.getIndex());
 			head.becomeHead();
 			body2.becomeBody();
 			body1.becomeBody();
@@ -554,9 +927,9 @@ public class SnakeProData {
 			BoardCell body2 = this.getCell(3, 2);
 			BoardCell body1 = this.getCell(2, 2);
 			BoardCell head = this.getCell(2, 1);
-			this.snakeCells.add(body2);
-			this.snakeCells.add(body1);
-			this.snakeCells.add(head);
+			this.snakeCells.addHead(body2.getIndex());
+			this.snakeCells.addHead(body1.getIndex());
+			this.snakeCells.addHead(head.getIndex());
 			head.becomeHead();
 			body2.becomeBody();
 			body1.becomeBody();
@@ -564,9 +937,9 @@ public class SnakeProData {
 			BoardCell body2 = this.getCell(2, 2);
 			BoardCell body1 = this.getCell(3, 2);
 			BoardCell head = this.getCell(3, 1);
-			this.snakeCells.add(body2);
-			this.snakeCells.add(body1);
-			this.snakeCells.add(head);
+			this.snakeCells.addHead(body2.getIndex());
+			this.snakeCells.addHead(body1.getIndex());
+			this.snakeCells.addHead(head.getIndex());
 			head.becomeHead();
 			body2.becomeBody();
 			body1.becomeBody();
@@ -574,9 +947,9 @@ public class SnakeProData {
 			BoardCell body2 = this.getCell(3, 2);
 			BoardCell body1 = this.getCell(3, 3);
 			BoardCell head = this.getCell(3, 4);
-			this.snakeCells.add(body2);
-			this.snakeCells.add(body1);
-			this.snakeCells.add(head);
+			this.snakeCells.addHead(body2.getIndex());
+			this.snakeCells.addHead(body1.getIndex());
+			this.snakeCells.addHead(head.getIndex());
 			head.becomeHead();
 			body2.becomeBody();
 			body1.becomeBody();
@@ -584,15 +957,15 @@ public class SnakeProData {
 	}
 
 	public String toString() {
-		String result = "";
+		StringBuilder result = new StringBuilder();
 		for (int r = 0; r < this.getNumRows(); r++) {
 			for (int c = 0; c < this.getNumColumns(); c++) {
-				BoardCell cell = this.getCell(r, c);
-				result += cell.toStringType();
+				int index = this.board.indexOf(r, c);
+				result.append(this.board.getType(index).getDisplayChar());
 			}
-			result += "\n";
+			result.append("\n");
 		}
-		return result;
+		return result.toString();
 	}
 	
 	public String toStringParents() {
@@ -0,0 +1,173 @@
+package Model;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Model.SparseCellSet - A set of cell indices with constant-time add,
+ * remove, membership test and random pick, for sets that only ever hold
+ * a few of a board's cells (e.g. the food).
+ * <p>
+ * As in Model.IndexedCellSet, the members are kept densely packed in an
+ * array, and removing a cell moves the last member into its slot; but
+ * where each member sits is kept in a small hash table (open addressing,
+ * at most half full) instead of an array as big as the board, so the set
+ * takes room in proportion to its members, not to the board.
+ */
+public class SparseCellSet {
+	/** a slot of the hash table with no cell in it */
+	private static final int EMPTY = -1;
+
+	/** the members, in positions 0 to size-1 */
+	private int[] members = new int[4];
+
+	/** the number of members */
+	private int size = 0;
+
+	/** the hash table's cells (EMPTY in unused slots); the length is a power of two */
+	private int[] keys = newTable(8);
+
+	/** for each slot of this.keys, where its cell sits in this.members */
+	private int[] positions = new int[8];
+
+	/** Constructor; creates an empty set. */
+	public SparseCellSet() {
+	}
+
+	/** Constructor; creates a set with the same members as the given one. */
+	public SparseCellSet(SparseCellSet original) {
+		this.members = original.members.clone();
+		this.size = original.size;
+		this.keys = original.keys.clone();
+		this.positions = original.positions.clone();
+	}
+
+	/** @return the number of cells in the set */
+	public int size() {
+		return this.size;
+	}
+
+	/** @return Is the set empty? */
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/** @return Is the given cell in the set? */
+	public boolean contains(int cellIndex) {
+		return this.keys[this.slotOf(cellIndex)] == cellIndex;
+	}
+
+	/**
+	 * @param k  between 0 and size()-1 inclusive
+	 * @return the k-th member (in no particular order)
+	 */
+	public int get(int k) {
+		return this.members[k];
+	}
+
+	/** Adds the given cell to the set (if it isn't there already). */
+	public void add(int cellIndex) {
+		int slot = this.slotOf(cellIndex);
+		if (this.keys[slot] == cellIndex) {
+			return;
+		}
+		if (this.size == this.members.length) {
+			this.members = Arrays.copyOf(this.members, this.size * 2);
+		}
+		this.members[this.size] = cellIndex;
+		if ((this.size + 1) * 2 > this.keys.length) {
+			this.size++;
+			this.rehash(this.keys.length * 2);
+		} else {
+			this.keys[slot] = cellIndex;
+			this.positions[slot] = this.size;
+			this.size++;
+		}
+	}
+
+	/** Removes the given cell from the set (if it's there). */
+	public void remove(int cellIndex) {
+		int slot = this.slotOf(cellIndex);
+		if (this.keys[slot] != cellIndex) {
+			return;
+		}
+		int position = this.positions[slot];
+		this.size--;
+		int last = this.members[this.size];
+		this.members[position] = last;
+		this.positions[this.slotOf(last)] = position;
+		this.deleteSlot(slot);
+	}
+
+	/**
+	 * @param random  where the random numbers come from
+	 * @return a member chosen uniformly at random (the set must not be empty)
+	 */
+	public int getRandom(SplittableRandom random) {
+		return this.members[random.nextInt(this.size)];
+	}
+
+	/* --------------- */
+	/* Private helpers */
+	/* --------------- */
+
+	/** @return a hash table with the given number of slots, all empty */
+	private static int[] newTable(int numSlots) {
+		int[] table = new int[numSlots];
+		Arrays.fill(table, EMPTY);
+		return table;
+	}
+
+	/** @return where the given cell's search of the hash table starts */
+	private int homeOf(int cellIndex) {
+		int hash = cellIndex * 0x9E3779B9;
+		return (hash ^ (hash >>> 16)) & (this.keys.length - 1);
+	}
+
+	/**
+	 * @return the slot holding the given cell, or (if it isn't in the
+	 *         set) the empty slot where it would go
+	 */
+	private int slotOf(int cellIndex) {
+		int mask = this.keys.length - 1;
+		int slot = this.homeOf(cellIndex);
+		while (this.keys[slot] != EMPTY && this.keys[slot] != cellIndex) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Empties the given slot, moving later cells of the same run back
+	 * into the gap wherever their search would otherwise miss them.
+	 */
+	private void deleteSlot(int slot) {
+		int mask = this.keys.length - 1;
+		int hole = slot;
+		int next = slot;
+		while (true) {
+			next = (next + 1) & mask;
+			int cell = this.keys[next];
+			if (cell == EMPTY) {
+				break;
+			}
+			if (((next - this.homeOf(cell)) & mask) >= ((next - hole) & mask)) {
+				this.keys[hole] = cell;
+				this.positions[hole] = this.positions[next];
+				hole = next;
+			}
+		}
+		this.keys[hole] = EMPTY;
+	}
+
+	/** Rebuilds the hash table with the given number of slots, from this.members. */
+	private void rehash(int numSlots) {
+		this.keys = newTable(numSlots);
+		this.positions = new int[numSlots];
+		for (int position = 0; position < this.size; position++) {
+			int slot = this.slotOf(this.members[position]);
+			this.keys[slot] = this.members[position];
+			this.positions[slot] = position;
+		}
+	}
+}
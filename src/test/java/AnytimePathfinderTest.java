@@ -0,0 +1,98 @@
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import Controller.AnytimePathfinder;
+import Controller.LookaheadPathfinder;
+import Controller.SearchStats;
+import Controller.TestGame;
+import Model.BoardCell;
+import Model.GameConfig;
+import Model.SnakeProData;
+import org.junit.Test;
+
+public class AnytimePathfinderTest {
+
+	@Test
+	public void testDeepensWithTime() {
+		SnakeProData myData = new SnakeProData(TestGame.G5);
+		int head = myData.getSnakeHeadIndex();
+		AnytimePathfinder pathfinder = new AnytimePathfinder();
+		pathfinder.setTimeBudget(200);
+		int next = pathfinder.findNextStep(myData, head, new SearchStats());
+		assertTrue(pathfinder.getLastDepth() >= 3);
+		// the answer is the one a lookahead that deep gives
+		assertEquals(next, new LookaheadPathfinder(pathfinder.getLastDepth(),
+				ForkJoinPool.commonPool()).findNextStep(myData, head, new SearchStats()));
+	}
+
+	@Test
+	public void testAnswersInTimeOnHugeBoard() {
+		GameConfig config = new GameConfig();
+		config.setBoardSize(600, 600);
+		SnakeProData myData = new SnakeProData(config);
+		myData.placeSnakeAtStartLocation();
+		myData.getCell(400, 300).becomeFood();
+		AnytimePathfinder pathfinder = new AnytimePathfinder();
+		pathfinder.setTimeBudget(1);
+		pathfinder.prepare(myData); // (as the game does when it starts)
+		SearchStats stats = new SearchStats();
+		int head = myData.getSnakeHeadIndex();
+
+		// copying the board for a search would take far longer than the
+		// budget, so the first answer is used as it is, in time...
+		int next = pathfinder.findNextStep(myData, head, stats);
+		assertEquals(myData.getIndex(2, 2), next);
+		assertEquals(1, pathfinder.getLastDepth());
+		long misses = stats.getDeadlineMisses();
+		assertTrue(misses <= 1);
+
+		// ... every time (the first call warmed up; the bound allows for a GC pause)
+		for (int i = 0; i < 20; i++) {
+			long start = System.nanoTime();
+			assertEquals(next, pathfinder.findNextStep(myData, head, stats));
+			long took = System.nanoTime() - start;
+			assertEquals(1, pathfinder.getLastDepth());
+			assertTrue("took " + took + " ns", took < 10 * pathfinder.getBudgetNanos());
+		}
+		assertEquals(misses, stats.getDeadlineMisses());
+	}
+
+	@Test
+	public void testSearchesAgainAfterSlowSearch() {
+		GameConfig config = new GameConfig();
+		config.setBoardSize(600, 600);
+		SnakeProData myData = new SnakeProData(config, 3);
+		myData.placeSnakeAtStartLocation();
+		myData.addFood();
+		AnytimePathfinder pathfinder = new AnytimePathfinder();
+		pathfinder.setTimeBudget(200);
+		pathfinder.prepare(myData);
+		SearchStats stats = new SearchStats();
+
+		// with plenty of time, the board is copied and searched...
+		this.move(myData, pathfinder.findNextStep(myData, myData.getSnakeHeadIndex(), stats));
+		assertTrue(pathfinder.getLastDepth() >= 2);
+
+		// ... and then the 2-move search took far longer than a budget
+		// this small, but it's tried again before long, on the same copies
+		pathfinder.setTimeBudget(1);
+		int deepest = 1;
+		for (int i = 0; i < 30; i++) {
+			this.move(myData, pathfinder.findNextStep(myData, myData.getSnakeHeadIndex(), stats));
+			deepest = Math.max(deepest, pathfinder.getLastDepth());
+		}
+		assertTrue(deepest >= 2);
+	}
+
+	/** Moves the snake into the given cell, eating any food there. */
+	private void move(SnakeProData myData, int next) {
+		BoardCell cell = myData.getCell(next);
+		if (cell.isFood()) {
+			myData.eatFoodAndGrow(cell);
+			myData.addFood();
+		} else {
+			myData.moveSnake(cell);
+		}
+	}
+}
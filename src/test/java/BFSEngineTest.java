@@ -0,0 +1,60 @@
+import static org.junit.Assert.*;
+
+import Controller.BFSEngine;
+import Controller.TestGame;
+import Model.SnakeProData;
+import org.junit.Test;
+
+public class BFSEngineTest {
+
+	@Test
+	public void testFindNextStep() {
+		SnakeProData myData = new SnakeProData(TestGame.G5);
+		BFSEngine engine = new BFSEngine();
+		assertEquals(myData.getIndex(2, 2), engine.findNextStep(myData));
+		assertEquals(myData.getIndex(4, 1), engine.getFoodFound());
+		assertEquals(4, engine.getDistance(myData.getIndex(4, 1)));
+	}
+
+	@Test
+	public void testNoFood() {
+		SnakeProData myData = new SnakeProData(TestGame.G11);
+		BFSEngine engine = new BFSEngine();
+		assertEquals(-1, engine.findNextStep(myData));
+		assertEquals(-1, engine.getFoodFound());
+		// every open cell was expanded, plus the head
+		assertEquals(14 + 1, engine.getCellsExpanded());
+	}
+
+	@Test
+	public void testReuse() {
+		BFSEngine engine = new BFSEngine();
+		SnakeProData first = new SnakeProData(TestGame.G5);
+		engine.findNextStep(first);
+		assertTrue(engine.wasReached(first.getIndex(4, 1)));
+
+		// a second search forgets everything the first one reached
+		SnakeProData second = new SnakeProData(TestGame.G1);
+		assertEquals(second.getIndex(1, 3), engine.findNextStep(second));
+		assertFalse(engine.wasReached(second.getIndex(4, 1)));
+		assertEquals(-1, engine.getParent(second.getIndex(4, 1)));
+		assertEquals(second.getSnakeHeadIndex(),
+				engine.getParent(second.getIndex(1, 3)));
+	}
+
+	@Test
+	public void testBiggerBoard() {
+		BFSEngine engine = new BFSEngine();
+		engine.findNextStep(new SnakeProData(TestGame.G5));
+
+		// the engine grows to fit a bigger board
+		SnakeProData myData = new SnakeProData();
+		myData.placeSnakeAtStartLocation();
+		myData.getCell(myData.getNumRows() - 2, myData.getNumColumns() - 2).becomeFood();
+		int food = myData.getIndex(myData.getNumRows() - 2, myData.getNumColumns() - 2);
+		int next = engine.findNextStep(myData);
+		assertTrue(next == myData.getIndex(1, 3) || next == myData.getIndex(2, 2));
+		assertEquals((myData.getNumRows() - 3) + (myData.getNumColumns() - 4),
+				engine.getDistance(food));
+	}
+}
@@ -0,0 +1,77 @@
+import static org.junit.Assert.*;
+
+import Controller.BatchResult;
+import Controller.BatchRunner;
+import Model.GameConfig;
+import org.junit.Test;
+
+public class BatchRunnerTest {
+
+	@Test
+	public void testPlaysEveryGame() throws InterruptedException {
+		GameConfig config = new GameConfig();
+		config.setBoardSize(12, 12);
+		config.setSpeculate(false);
+		BatchRunner runner = new BatchRunner(config);
+		runner.setGames(7);
+		runner.setThreads(3);
+		runner.setMaxTicks(300);
+		BatchResult result = runner.run();
+		assertEquals(7, result.getGames());
+		assertTrue(result.getTicks() <= 7 * 300);
+		assertTrue(result.getMinLength() >= 2);
+		assertTrue(result.getMaxLength() > 2); // the AI eats something
+		long counted = 0;
+		for (int length = 0; length <= 12 * 12; length++) {
+			counted += result.getLengthCount(length);
+		}
+		assertEquals(7, counted);
+		assertTrue(result.getTicksPerSecond() > 0);
+	}
+
+	@Test
+	public void testAddingUp() {
+		BatchResult first = new BatchResult(20);
+		first.addGame(1, 100, 5, true, 1000);
+		first.addGame(2, 50, 3, true, 500);
+		BatchResult second = new BatchResult(20);
+		second.addGame(3, 200, 9, false, 2000);
+		second.addGame(4, 10, 2, true, 100);
+		first.add(second);
+		assertEquals(4, first.getGames());
+		assertEquals(3, first.getDeaths());
+		assertEquals(360, first.getTicks());
+		assertEquals(2, first.getMinLength());
+		assertEquals(9, first.getMaxLength());
+		assertEquals(4.75, first.getAverageLength(), 1e-9);
+		assertEquals(3, first.getLengthPercentile(0.5));
+		assertEquals(9, first.getLengthPercentile(0.99));
+		assertEquals(4, first.getShortestSeed());
+		assertEquals(3, first.getSlowestSeed());
+		assertEquals(2000, first.getSlowestNanos());
+	}
+
+	@Test
+	public void testSameSeedsSameResults() throws InterruptedException {
+		GameConfig config = new GameConfig();
+		config.setBoardSize(15, 15);
+		config.setSpeculate(false);
+		BatchResult[] results = new BatchResult[2];
+		for (int threads = 1; threads <= 2; threads++) {
+			BatchRunner runner = new BatchRunner(config);
+			runner.setGames(6);
+			runner.setThreads(threads);
+			runner.setMaxTicks(400);
+			runner.setFirstSeed(1234);
+			results[threads - 1] = runner.run();
+		}
+		assertEquals(results[0].getTicks(), results[1].getTicks());
+		assertEquals(results[0].getAverageLength(), results[1].getAverageLength(), 0);
+		assertEquals(results[0].getShortestSeed(), results[1].getShortestSeed());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoGames() {
+		new BatchRunner(new GameConfig()).setGames(0);
+	}
+}
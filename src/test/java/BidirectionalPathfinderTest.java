@@ -0,0 +1,62 @@
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import Controller.BFSPathfinder;
+import Controller.BidirectionalPathfinder;
+import Controller.SearchStats;
+import Controller.TestGame;
+import Model.GameConfig;
+import Model.SnakeProData;
+import org.junit.Test;
+
+/** (The checks against BFS's path lengths are in ShortestPathPathfinderTest.) */
+public class BidirectionalPathfinderTest {
+
+	@Test
+	public void testSameMoveAsBFS() {
+		// It breaks ties the same way BFS does, so the moves match exactly.
+		BidirectionalPathfinder bidirectional = new BidirectionalPathfinder();
+		BFSPathfinder bfs = new BFSPathfinder();
+		int[] bfsNext = new int[1];
+		int[] next = new int[1];
+		for (TestGame game : TestGame.values()) {
+			if (game.snakeAtStart()) {
+				SnakeProData myData = new SnakeProData(game);
+				ShortestPathPathfinderTest.search(bfs, myData, bfsNext);
+				ShortestPathPathfinderTest.search(bidirectional, myData, next);
+				assertEquals(game.toString(), bfsNext[0], next[0]);
+			}
+		}
+		Random random = new Random(18);
+		for (int trial = 0; trial < 200; trial++) {
+			SnakeProData myData = ShortestPathPathfinderTest.randomBoard(random, trial);
+			ShortestPathPathfinderTest.search(bfs, myData, bfsNext);
+			ShortestPathPathfinderTest.search(bidirectional, myData, next);
+			assertEquals("trial " + trial, bfsNext[0], next[0]);
+		}
+	}
+
+	@Test
+	public void testExpandsLessOnOpenBoard() {
+		// head in the middle of a 41x41 board, food 18 cells to the east
+		GameConfig config = new GameConfig();
+		config.setBoardSize(41, 41);
+		SnakeProData myData = new SnakeProData(config);
+		myData.placeSnakeAtStartLocation();
+		for (int c = 3; c <= 20; c++) {
+			myData.getCell(1, c).becomeFood();
+			myData.eatFoodAndGrow(myData.getCell(1, c));
+		}
+		for (int r = 2; r <= 20; r++) {
+			myData.getCell(r, 20).becomeFood();
+			myData.eatFoodAndGrow(myData.getCell(r, 20));
+		}
+		myData.getCell(20, 38).becomeFood();
+		int[] next = new int[1];
+		SearchStats bfsStats = ShortestPathPathfinderTest.search(new BFSPathfinder(), myData, next);
+		SearchStats stats = ShortestPathPathfinderTest.search(new BidirectionalPathfinder(), myData, next);
+		assertTrue(stats.getLastCellsExpanded() + " vs " + bfsStats.getLastCellsExpanded(),
+				stats.getLastCellsExpanded() * 3 < bfsStats.getLastCellsExpanded() * 2);
+	}
+}
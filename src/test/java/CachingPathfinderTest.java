@@ -0,0 +1,129 @@
+import static org.junit.Assert.*;
+
+import Controller.AStarPathfinder;
+import Controller.BFSPathfinder;
+import Controller.CachingPathfinder;
+import Controller.JumpPointPathfinder;
+import Controller.PathPlanner;
+import Controller.SearchStats;
+import Model.BoardCell;
+import Model.Direction;
+import Model.GameConfig;
+import Model.SnakeProData;
+import org.junit.Test;
+
+public class CachingPathfinderTest {
+
+	/** @return a 30x30 board with the snake at its start location */
+	private SnakeProData openBoard() {
+		GameConfig config = new GameConfig();
+		config.setBoardSize(30, 30);
+		SnakeProData myData = new SnakeProData(config);
+		myData.placeSnakeAtStartLocation();
+		return myData;
+	}
+
+	/** Moves the snake into the given cell, eating any food there. */
+	private void move(SnakeProData myData, int next) {
+		BoardCell cell = myData.getCell(next);
+		if (cell.isFood()) {
+			myData.eatFoodAndGrow(cell);
+		} else {
+			myData.moveSnake(cell);
+		}
+	}
+
+	@Test
+	public void testFollowsCachedPath() {
+		SnakeProData myData = this.openBoard();
+		myData.getCell(25, 25).becomeFood();
+		CachingPathfinder cached = new CachingPathfinder(new BFSPathfinder());
+		SearchStats stats = new SearchStats();
+		int moves = 0;
+		while (myData.getNumFood() > 0) {
+			int expected = new BFSPathfinder().findNextStep(myData,
+					myData.getSnakeHeadIndex(), new SearchStats());
+			int next = cached.findNextStep(myData, myData.getSnakeHeadIndex(), stats);
+			assertEquals(myData.getFoodDistances().getDistance(expected),
+					myData.getFoodDistances().getDistance(next));
+			this.move(myData, next);
+			moves++;
+		}
+		assertEquals(24 + 23, moves);
+		assertEquals(1, stats.getCacheMisses());
+		assertEquals(moves - 1, stats.getCacheHits());
+	}
+
+	@Test
+	public void testNewCloserFood() {
+		SnakeProData myData = this.openBoard();
+		myData.getCell(25, 25).becomeFood();
+		CachingPathfinder cached = new CachingPathfinder(new BFSPathfinder());
+		SearchStats stats = new SearchStats();
+		this.move(myData, cached.findNextStep(myData, myData.getSnakeHeadIndex(), stats));
+		this.move(myData, cached.findNextStep(myData, myData.getSnakeHeadIndex(), stats));
+		assertEquals(1, stats.getCacheHits());
+
+		// far-away food doesn't matter...
+		myData.getCell(28, 28).becomeFood();
+		this.move(myData, cached.findNextStep(myData, myData.getSnakeHeadIndex(), stats));
+		assertEquals(2, stats.getCacheHits());
+
+		// ... but food right next to the head does
+		int head = myData.getSnakeHeadIndex();
+		int food = -1;
+		for (int direction = 0; direction < Direction.COUNT && food < 0; direction++) {
+			int neighbor = myData.getNeighborIndex(head, direction);
+			if (myData.isOpen(neighbor)) {
+				food = neighbor;
+			}
+		}
+		myData.getCell(food).becomeFood();
+		assertEquals(food, cached.findNextStep(myData, head, stats));
+		assertEquals(2, stats.getCacheMisses());
+	}
+
+	@Test
+	public void testSteeredElsewhere() {
+		SnakeProData myData = this.openBoard();
+		myData.getCell(25, 25).becomeFood();
+		CachingPathfinder cached = new CachingPathfinder(new BFSPathfinder());
+		SearchStats stats = new SearchStats();
+		int next = cached.findNextStep(myData, myData.getSnakeHeadIndex(), stats);
+		// go somewhere else instead
+		int other = next == myData.getIndex(1, 3) ? myData.getIndex(2, 2) : myData.getIndex(1, 3);
+		this.move(myData, other);
+		cached.findNextStep(myData, myData.getSnakeHeadIndex(), stats);
+		assertEquals(2, stats.getCacheMisses());
+		assertEquals(0, stats.getCacheHits());
+	}
+
+	@Test
+	public void testPlannersGiveWholePaths() {
+		SnakeProData myData = this.openBoard();
+		for (int r = 3; r < 27; r++) {
+			myData.getCell(r, 10).becomeBody();
+			myData.getCell(29 - r, 20).becomeBody();
+		}
+		myData.getCell(25, 25).becomeFood();
+		PathPlanner[] planners = { new BFSPathfinder(), new AStarPathfinder(),
+				new JumpPointPathfinder() };
+		int head = myData.getSnakeHeadIndex();
+		int shortest = myData.getFoodDistances().getDistance(
+				new BFSPathfinder().findNextStep(myData, head, new SearchStats())) + 1;
+		for (PathPlanner planner : planners) {
+			int[] path = new int[myData.getNumCells()];
+			int length = planner.findPath(myData, head, path, new SearchStats());
+			assertEquals(planner.getName(), shortest, length);
+			int previous = head;
+			for (int i = 0; i < length; i++) {
+				int rowStep = Math.abs(path[i] / 30 - previous / 30);
+				int columnStep = Math.abs(path[i] % 30 - previous % 30);
+				assertEquals(planner.getName(), 1, rowStep + columnStep);
+				assertTrue(planner.getName(), myData.isOpen(path[i]));
+				previous = path[i];
+			}
+			assertTrue(myData.isFood(path[length - 1]));
+		}
+	}
+}
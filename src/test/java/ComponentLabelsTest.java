@@ -0,0 +1,113 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import Controller.TestGame;
+import Model.CellType;
+import Model.ComponentLabels;
+import Model.PackedBoard;
+import Model.SnakeProData;
+import org.junit.Test;
+
+public class ComponentLabelsTest {
+
+	/** @return the number of open cells reachable from an open start cell (itself included) */
+	private int slowRegionSize(PackedBoard board, int start, int[] region, int regionId) {
+		int width = board.getNumColumns();
+		ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+		region[start] = regionId;
+		queue.add(start);
+		int count = 1;
+		while (!queue.isEmpty()) {
+			int cell = queue.remove();
+			int row = board.rowOf(cell);
+			int column = board.columnOf(cell);
+			int[] neighbors = { row > 0 ? cell - width : -1,
+					row < board.getNumRows() - 1 ? cell + width : -1,
+					column < width - 1 ? cell + 1 : -1,
+					column > 0 ? cell - 1 : -1 };
+			for (int neighbor : neighbors) {
+				if (neighbor >= 0 && board.isOpen(neighbor) && region[neighbor] == 0) {
+					region[neighbor] = regionId;
+					count++;
+					queue.add(neighbor);
+				}
+			}
+		}
+		return count;
+	}
+
+	/** Checks that two cells share a label exactly when they're connected. */
+	private void assertMatches(PackedBoard board, ComponentLabels labels) {
+		int[] region = new int[board.size()];
+		int[] labelOfRegion = new int[board.size() + 1];
+		int numRegions = 0;
+		for (int index = 0; index < board.size(); index++) {
+			if (!board.isOpen(index)) {
+				assertEquals(ComponentLabels.NONE, labels.getLabel(index));
+			} else if (region[index] == 0) {
+				numRegions++;
+				int size = this.slowRegionSize(board, index, region, numRegions);
+				labelOfRegion[numRegions] = labels.getLabel(index);
+				assertEquals(size, labels.getSize(labels.getLabel(index)));
+			}
+		}
+		for (int index = 0; index < board.size(); index++) {
+			if (board.isOpen(index)) {
+				assertEquals(labelOfRegion[region[index]], labels.getLabel(index));
+			}
+		}
+		for (int a = 1; a <= numRegions; a++) {
+			for (int b = a + 1; b <= numRegions; b++) {
+				assertNotEquals(labelOfRegion[a], labelOfRegion[b]);
+			}
+		}
+	}
+
+	@Test
+	public void testTestBoard() {
+		// G13: the snake doesn't split the 13 open interior cells
+		SnakeProData myData = new SnakeProData(TestGame.G13);
+		ComponentLabels labels = myData.getComponentLabels();
+		int label = labels.getLabel(myData.getIndex(4, 4));
+		assertEquals(13, labels.getSize(label));
+		assertEquals(ComponentLabels.NONE, labels.getLabel(myData.getSnakeHeadIndex()));
+	}
+
+	@Test
+	public void testSplitAndJoin() {
+		// a corridor 1 cell tall: blocking the middle cuts it in two
+		PackedBoard board = new PackedBoard(1, 9);
+		ComponentLabels labels = new ComponentLabels(board);
+		assertEquals(9, labels.getSize(labels.getLabel(0)));
+		assertTrue(labels.mightSplit(4));
+		board.setType(4, CellType.BODY);
+		assertEquals(4, labels.getSize(labels.getLabel(0)));
+		assertEquals(4, labels.getSize(labels.getLabel(8)));
+		assertNotEquals(labels.getLabel(0), labels.getLabel(8));
+		board.setType(4, CellType.FOOD);
+		assertEquals(labels.getLabel(0), labels.getLabel(8));
+		assertEquals(9, labels.getSize(labels.getLabel(4)));
+	}
+
+	@Test
+	public void testRandomChanges() {
+		Random random = new Random(14);
+		CellType[] types = { CellType.OPEN, CellType.OPEN, CellType.FOOD,
+				CellType.BODY, CellType.WALL };
+		for (int trial = 0; trial < 30; trial++) {
+			PackedBoard board = new PackedBoard(1 + random.nextInt(12), 1 + random.nextInt(12));
+			for (int index = 0; index < board.size(); index++) {
+				board.setType(index, types[random.nextInt(types.length)]);
+			}
+			ComponentLabels labels = new ComponentLabels(board);
+			this.assertMatches(board, labels);
+			for (int change = 0; change < 300; change++) {
+				board.setType(random.nextInt(board.size()),
+						types[random.nextInt(types.length)]);
+				this.assertMatches(board, labels);
+			}
+		}
+	}
+}
@@ -0,0 +1,131 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import Controller.TestGame;
+import Model.BoardCell;
+import Model.CellType;
+import Model.FoodDistanceField;
+import Model.PackedBoard;
+import Model.SnakeProData;
+import org.junit.Test;
+
+public class FoodDistanceFieldTest {
+
+	/** Computes every distance to food from scratch, breadth-first from all food. */
+	private int[] slowDistances(PackedBoard board) {
+		int width = board.getNumColumns();
+		int[] distances = new int[board.size()];
+		Arrays.fill(distances, FoodDistanceField.UNREACHABLE);
+		ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+		for (int index = 0; index < board.size(); index++) {
+			if (board.isFood(index)) {
+				distances[index] = 0;
+				queue.add(index);
+			}
+		}
+		while (!queue.isEmpty()) {
+			int cell = queue.remove();
+			int row = board.rowOf(cell);
+			int column = board.columnOf(cell);
+			int[] neighbors = { row > 0 ? cell - width : -1,
+					row < board.getNumRows() - 1 ? cell + width : -1,
+					column < width - 1 ? cell + 1 : -1,
+					column > 0 ? cell - 1 : -1 };
+			for (int neighbor : neighbors) {
+				if (neighbor >= 0 && board.isOpen(neighbor)
+						&& distances[neighbor] == FoodDistanceField.UNREACHABLE) {
+					distances[neighbor] = distances[cell] + 1;
+					queue.add(neighbor);
+				}
+			}
+		}
+		return distances;
+	}
+
+	private void assertMatches(PackedBoard board, FoodDistanceField field) {
+		int[] expected = this.slowDistances(board);
+		for (int index = 0; index < board.size(); index++) {
+			assertEquals("cell " + index, expected[index], field.getDistance(index));
+		}
+	}
+
+	@Test
+	public void testTestBoard() {
+		// G10: food at [4, 1] and [4, 4], head at [1, 2]
+		SnakeProData myData = new SnakeProData(TestGame.G10);
+		FoodDistanceField field = myData.getFoodDistances();
+		assertEquals(0, field.getDistance(myData.getIndex(4, 1)));
+		assertEquals(2, field.getDistance(myData.getIndex(2, 1)));
+		assertEquals(FoodDistanceField.UNREACHABLE,
+				field.getDistance(myData.getSnakeHeadIndex()));
+		assertEquals(myData.getIndex(2, 2),
+				field.getNextStep(myData.getSnakeHeadIndex()));
+	}
+
+	@Test
+	public void testNoFood() {
+		SnakeProData myData = new SnakeProData(TestGame.G11);
+		FoodDistanceField field = myData.getFoodDistances();
+		assertEquals(-1, field.getNextStep(myData.getSnakeHeadIndex()));
+		myData.getCell(4, 4).becomeFood();
+		assertEquals(4, field.getDistance(myData.getIndex(1, 3)));
+		assertEquals(myData.getIndex(2, 2),
+				field.getNextStep(myData.getSnakeHeadIndex()));
+		this.assertMatches(boardOf(myData), field);
+	}
+
+	@Test
+	public void testRandomChanges() {
+		Random random = new Random(60);
+		CellType[] types = { CellType.OPEN, CellType.OPEN, CellType.FOOD,
+				CellType.BODY, CellType.HEAD, CellType.WALL };
+		for (int trial = 0; trial < 20; trial++) {
+			PackedBoard board = new PackedBoard(2 + random.nextInt(12), 2 + random.nextInt(12));
+			for (int index = 0; index < board.size(); index++) {
+				board.setType(index, types[random.nextInt(types.length)]);
+			}
+			FoodDistanceField field = new FoodDistanceField(board);
+			this.assertMatches(board, field);
+			for (int change = 0; change < 300; change++) {
+				board.setType(random.nextInt(board.size()),
+						types[random.nextInt(types.length)]);
+				this.assertMatches(board, field);
+			}
+		}
+	}
+
+	@Test
+	public void testSnakeEatsFood() {
+		SnakeProData myData = new SnakeProData(TestGame.G6);
+		FoodDistanceField field = myData.getFoodDistances();
+
+		// eat the food at [1, 3], then slide along to [2, 3]
+		myData.eatFoodAndGrow(myData.getCell(1, 3));
+		this.assertMatches(boardOf(myData), field);
+		myData.moveSnake(myData.getCell(2, 3));
+		this.assertMatches(boardOf(myData), field);
+		assertEquals(myData.getIndex(3, 3),
+				field.getNextStep(myData.getSnakeHeadIndex()));
+	}
+
+	/** @return a board with the same contents as the given game */
+	private static PackedBoard boardOf(SnakeProData data) {
+		PackedBoard board = new PackedBoard(data.getNumRows(), data.getNumColumns());
+		for (int index = 0; index < board.size(); index++) {
+			BoardCell cell = data.getCell(index);
+			if (cell.isWall()) {
+				board.setType(index, CellType.WALL);
+			} else if (cell.isHead()) {
+				board.setType(index, CellType.HEAD);
+			} else if (cell.isBody()) {
+				board.setType(index, CellType.BODY);
+			} else if (cell.isFood()) {
+				board.setType(index, CellType.FOOD);
+			}
+		}
+		return board;
+	}
+}
@@ -0,0 +1,96 @@
+import static org.junit.Assert.*;
+
+import java.util.Properties;
+
+import Model.GameConfig;
+import Model.Preferences;
+import Model.SnakeProData;
+import org.junit.Test;
+
+public class GameConfigTest {
+
+	@Test
+	public void testDefaults() {
+		GameConfig config = new GameConfig();
+		assertEquals(Preferences.NUM_CELLS_WIDE, config.getNumCellsWide());
+		assertEquals(Preferences.NUM_CELLS_TALL, config.getNumCellsTall());
+		assertEquals(Preferences.REFRESH_RATE, config.getRefreshRate());
+		assertEquals(Preferences.FOOD_ADD_RATE, config.getFoodAddRate());
+		assertEquals(Preferences.SLEEP_TIME, config.getSleepTime());
+		assertEquals(Preferences.PLANNING_TIME, config.getPlanningTime());
+		assertTrue(config.isSpeculate());
+		assertEquals(1.0, config.getSpeed(), 0);
+		assertFalse(config.isUnthrottled());
+	}
+
+	@Test
+	public void testApplyProperties() {
+		Properties properties = new Properties();
+		properties.setProperty(GameConfig.CELLS_WIDE, "200");
+		properties.setProperty(GameConfig.CELLS_TALL, " 120 ");
+		properties.setProperty(GameConfig.SLEEP_TIME, "0");
+		properties.setProperty(GameConfig.PATHFINDER, "distance-field");
+		properties.setProperty(GameConfig.SAFE_MOVES, "False");
+		properties.setProperty(GameConfig.PLANNING_TIME, "250");
+		properties.setProperty(GameConfig.SPECULATE, "false");
+		properties.setProperty(GameConfig.SPEED, "2.5");
+		properties.setProperty(GameConfig.UNTHROTTLED, "true");
+		GameConfig config = new GameConfig();
+		config.apply(properties);
+		assertEquals(2.5, config.getSpeed(), 0);
+		assertTrue(config.isUnthrottled());
+		assertFalse(config.isSpeculate());
+		assertFalse(config.isSafeMoves());
+		assertEquals(250, config.getPlanningTime());
+		assertEquals("distance-field", config.getPathfinder());
+		assertEquals(200, config.getNumCellsWide());
+		assertEquals(120, config.getNumCellsTall());
+		assertEquals(0, config.getSleepTime());
+		assertEquals(Preferences.REFRESH_RATE, config.getRefreshRate());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBadNumber() {
+		Properties properties = new Properties();
+		properties.setProperty(GameConfig.REFRESH_RATE, "fast");
+		new GameConfig().apply(properties);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBadBoolean() {
+		Properties properties = new Properties();
+		properties.setProperty(GameConfig.SAFE_MOVES, "sometimes");
+		new GameConfig().apply(properties);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoSpeed() {
+		new GameConfig().setSpeed(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoPlanningTime() {
+		new GameConfig().setPlanningTime(0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBoardTooSmall() {
+		new GameConfig().setBoardSize(2, 10);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBoardTooBig() {
+		new GameConfig().setBoardSize(100000, 100000);
+	}
+
+	@Test
+	public void testBoardUsesConfig() {
+		GameConfig config = new GameConfig();
+		config.setBoardSize(7, 9);
+		SnakeProData myData = new SnakeProData(config);
+		assertEquals(7, myData.getNumRows());
+		assertEquals(9, myData.getNumColumns());
+		assertTrue(myData.getCell(6, 8).isWall());
+		assertTrue(myData.getCell(5, 7).isOpen());
+	}
+}
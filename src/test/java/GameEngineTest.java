@@ -0,0 +1,116 @@
+import static org.junit.Assert.*;
+
+import Controller.GameEngine;
+import Controller.GameListener;
+import Controller.MonteCarloPathfinder;
+import Controller.Pathfinder;
+import Controller.SearchStats;
+import Model.BoardView;
+import Model.GameConfig;
+import Model.SnakeProData;
+import org.junit.Test;
+
+public class GameEngineTest {
+
+	/** Counts what it hears. */
+	private static class Counter implements GameListener {
+		int cycles = 0;
+		int eaten = 0;
+		int gameOvers = 0;
+
+		public void cycleDone(GameEngine game) {
+			this.cycles++;
+		}
+
+		public void foodEaten(GameEngine game) {
+			this.eaten++;
+		}
+
+		public void gameOver(GameEngine game) {
+			this.gameOvers++;
+		}
+	}
+
+	@Test
+	public void testAIPlaysHeadless() {
+		GameConfig config = new GameConfig();
+		config.setSpeculate(false);
+		GameEngine engine = new GameEngine(config);
+		Counter counter = new Counter();
+		engine.addListener(counter);
+		engine.startNewGame();
+		int length = engine.getData().getSnakeLength();
+		engine.send(GameEngine.Command.AI_MODE);
+		assertEquals(400, engine.run(400));
+		assertEquals(400, counter.cycles);
+		assertEquals(400, engine.getCycleNum());
+		assertTrue(counter.eaten > 0);
+		assertEquals(length + counter.eaten, engine.getData().getSnakeLength());
+		assertEquals(0, counter.gameOvers);
+	}
+
+	@Test
+	public void testSameSeedSameGame() {
+		String[] boards = new String[2];
+		for (int trial = 0; trial < 2; trial++) {
+			GameEngine engine = new GameEngine(new GameConfig());
+			engine.startNewGame(99);
+			assertEquals(99, engine.getData().getSeed());
+			engine.send(GameEngine.Command.AI_MODE);
+			engine.run(300);
+			boards[trial] = engine.getData().toString();
+		}
+		assertEquals(boards[0], boards[1]);
+	}
+
+	@Test
+	public void testCommandsWaitForNextCycle() {
+		GameEngine engine = new GameEngine(new GameConfig());
+		engine.startNewGame();
+		SnakeProData myData = engine.getData();
+		engine.send(GameEngine.Command.SOUTH);
+		assertEquals(myData.getEastNeighbor(), myData.getNextCellInDir());
+		engine.step();
+		assertEquals(myData.getSouthNeighbor(), myData.getNextCellInDir());
+	}
+
+	@Test
+	public void testStopsAtGameOver() {
+		GameEngine engine = new GameEngine(new GameConfig());
+		Counter counter = new Counter();
+		engine.addListener(counter);
+		engine.startNewGame();
+		// heading east, the snake runs into the wall
+		int played = engine.run(1000);
+		assertTrue(played < 1000);
+		assertTrue(engine.getData().getGameOver());
+		assertEquals(1, counter.gameOvers);
+		assertFalse(engine.step());
+		assertEquals(played, counter.cycles);
+	}
+
+	@Test
+	public void testPathfindersGetPlanningTime() {
+		GameConfig config = new GameConfig();
+		config.setPathfinder(MonteCarloPathfinder.NAME);
+		config.setPlanningTime(45);
+		GameEngine engine = new GameEngine(config);
+		assertEquals(45000000L, ((MonteCarloPathfinder) engine.getPathfinder()).getBudgetNanos());
+
+		int[] budget = { -1 };
+		engine.setPathfinder(new Pathfinder() {
+			public String getName() {
+				return "budget";
+			}
+
+			public int findNextStep(BoardView board, int head, SearchStats stats) {
+				return -1;
+			}
+
+			public void setTimeBudget(int milliseconds) {
+				budget[0] = milliseconds;
+			}
+		});
+		assertEquals(45, budget[0]);
+	}
+}
@@ -0,0 +1,110 @@
+import static org.junit.Assert.*;
+
+import Controller.GameEngine;
+import Controller.GameHost;
+import Controller.GameSession;
+import Model.GameConfig;
+import org.junit.Test;
+
+public class GameHostTest {
+
+	/** @return settings for small, quick games */
+	private static GameConfig smallGames() {
+		GameConfig config = new GameConfig();
+		config.setBoardSize(12, 12);
+		config.setSleepTime(5);
+		config.setSpeculate(false);
+		return config;
+	}
+
+	/** Waits (up to 10 s) until every session has played the given number of ticks. */
+	private static void waitForTicks(GameHost host, long ticks) throws InterruptedException {
+		long giveUp = System.currentTimeMillis() + 10000;
+		for (GameSession session : host.getSessions()) {
+			while (session.getTicks() < ticks && !session.isEnded()
+					&& System.currentTimeMillis() < giveUp) {
+				Thread.sleep(5);
+			}
+		}
+	}
+
+	@Test
+	public void testManySessionsOnFewThreads() throws InterruptedException {
+		GameHost host = new GameHost(2);
+		try {
+			GameConfig config = smallGames();
+			for (int i = 0; i < 200; i++) {
+				host.createSession(config, i).send(GameEngine.Command.AI_MODE);
+			}
+			assertEquals(200, host.getSessionCount());
+			assertEquals(200, host.getCreated());
+			waitForTicks(host, 10);
+			for (GameSession session : host.getSessions()) {
+				assertTrue(session.getTicks() >= 10 || session.isFinished());
+				assertNull(session.getFailure());
+			}
+			assertTrue(host.getTicks() >= 200 * 10);
+			assertEquals(0, host.getFailed());
+			assertTrue(host.getLoad() > 0);
+		} finally {
+			host.shutdown();
+		}
+	}
+
+	@Test
+	public void testDestroyStopsTicks() throws InterruptedException {
+		GameHost host = new GameHost(1);
+		try {
+			GameSession session = host.createSession(smallGames(), 3);
+			session.send(GameEngine.Command.AI_MODE);
+			waitForTicks(host, 3);
+			assertTrue(host.destroySession(session.getId()));
+			assertFalse(host.destroySession(session.getId()));
+			assertNull(host.getSession(session.getId()));
+			assertEquals(0, host.getSessionCount());
+			assertEquals(0, host.getRunningCount());
+			assertEquals(1, host.getDestroyed());
+			assertTrue(session.isEnded());
+
+			Thread.sleep(20); // (a tick in progress may still finish)
+			long ticks = session.getTicks();
+			Thread.sleep(50);
+			assertEquals(ticks, session.getTicks());
+		} finally {
+			host.shutdown();
+		}
+	}
+
+	@Test
+	public void testGameOverEndsSession() throws InterruptedException {
+		GameHost host = new GameHost(1);
+		try {
+			// Left to itself, the snake runs into the wall.
+			GameSession session = host.createSession(smallGames(), 5);
+			long giveUp = System.currentTimeMillis() + 10000;
+			while (!session.isEnded() && System.currentTimeMillis() < giveUp) {
+				Thread.sleep(5);
+			}
+			assertTrue(session.isFinished());
+			assertTrue(session.isEnded());
+			assertEquals(1, host.getFinished());
+			assertEquals(0, host.getRunningCount());
+			assertEquals(1, host.getSessionCount()); // still there, to be read
+			assertEquals(5, session.getSeed());
+		} finally {
+			host.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoSleepTime() {
+		GameConfig config = smallGames();
+		config.setSleepTime(0);
+		GameHost host = new GameHost(1);
+		try {
+			host.createSession(config);
+		} finally {
+			host.shutdown();
+		}
+	}
+}
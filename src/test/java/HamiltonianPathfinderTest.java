@@ -0,0 +1,96 @@
+import static org.junit.Assert.*;
+
+import Controller.BFSPathfinder;
+import Controller.HamiltonianPathfinder;
+import Controller.Pathfinder;
+import Controller.SearchStats;
+import Controller.TestGame;
+import Model.BoardCell;
+import Model.GameConfig;
+import Model.SnakeProData;
+import org.junit.Test;
+
+public class HamiltonianPathfinderTest {
+
+	/**
+	 * Lets the pathfinder play a game on a board of the given size until
+	 * the board is full (or we run out of moves), failing if it crashes.
+	 * @return the length of the snake at the end
+	 */
+	private int play(int numRows, int numColumns, int maxMoves) {
+		return this.play(numRows, numColumns, maxMoves, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Like play(numRows, numColumns, maxMoves), but reverses the snake
+	 * every so many moves, while it fills less than half the board.
+	 */
+	private int play(int numRows, int numColumns, int maxMoves, int reverseEvery) {
+		GameConfig config = new GameConfig();
+		config.setBoardSize(numRows, numColumns);
+		SnakeProData myData = new SnakeProData(config, numRows * numColumns);
+		myData.placeSnakeAtStartLocation();
+		myData.addFood();
+		Pathfinder pathfinder = new HamiltonianPathfinder();
+		SearchStats stats = new SearchStats();
+		int interior = (numRows - 2) * (numColumns - 2);
+		for (int move = 0; move < maxMoves && myData.getSnakeLength() < interior; move++) {
+			int next = pathfinder.findNextStep(myData, myData.getSnakeHeadIndex(), stats);
+			assertTrue("no move at length " + myData.getSnakeLength(), next >= 0);
+			BoardCell nextCell = myData.getCell(next);
+			assertFalse("crashed at length " + myData.getSnakeLength(),
+					nextCell.isBody() || nextCell.isWall());
+			if (nextCell.isFood()) {
+				myData.eatFoodAndGrow(nextCell);
+			} else {
+				myData.moveSnake(nextCell);
+			}
+			if (myData.noFood()) {
+				myData.addFood();
+			}
+			if (move % reverseEvery == reverseEvery - 1
+					&& myData.getSnakeLength() * 2 < interior) {
+				myData.reverseSnake();
+			}
+		}
+		return myData.getSnakeLength();
+	}
+
+	@Test
+	public void testFillsBoard() {
+		assertEquals(16, this.play(6, 6, 100000));
+		assertEquals(8 * 9, this.play(10, 11, 100000));
+		// odd number of interior rows: the cycle runs the other way
+		assertEquals(7 * 10, this.play(9, 12, 100000));
+	}
+
+	@Test
+	public void testReversed() {
+		// After each reverse, the body lies the wrong way along the cycle
+		// (play fails if the snake crashes or gets stuck).
+		assertTrue(this.play(10, 11, 20000, 150) > 20);
+		assertTrue(this.play(12, 12, 20000, 97) > 20);
+	}
+
+	@Test
+	public void testTestBoard() {
+		// G1: food right in front of the head, along the cycle
+		SnakeProData myData = new SnakeProData(TestGame.G1);
+		int next = new HamiltonianPathfinder().findNextStep(myData,
+				myData.getSnakeHeadIndex(), new SearchStats());
+		assertEquals(myData.getIndex(1, 3), next);
+	}
+
+	@Test
+	public void testNoCycle() {
+		// 5x5 interior: no cycle, so this is just BFS
+		GameConfig config = new GameConfig();
+		config.setBoardSize(7, 7);
+		SnakeProData myData = new SnakeProData(config);
+		myData.placeSnakeAtStartLocation();
+		myData.getCell(5, 2).becomeFood();
+		int head = myData.getSnakeHeadIndex();
+		assertEquals(new BFSPathfinder().findNextStep(myData, head, new SearchStats()),
+				new HamiltonianPathfinder().findNextStep(myData, head, new SearchStats()));
+	}
+}
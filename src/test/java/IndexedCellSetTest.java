@@ -0,0 +1,60 @@
+import static org.junit.Assert.*;
+
+import java.util.SplittableRandom;
+
+import Model.IndexedCellSet;
+import Model.SnakeProData;
+import Controller.TestGame;
+import org.junit.Test;
+
+public class IndexedCellSetTest {
+
+	@Test
+	public void testAddRemoveContains() {
+		IndexedCellSet set = new IndexedCellSet(10);
+		set.add(3);
+		set.add(7);
+		set.add(3);
+		assertEquals(2, set.size());
+		assertTrue(set.contains(3));
+		assertTrue(set.contains(7));
+		assertFalse(set.contains(5));
+		set.remove(3);
+		set.remove(5);
+		assertEquals(1, set.size());
+		assertFalse(set.contains(3));
+		assertEquals(7, set.get(0));
+	}
+
+	@Test
+	public void testRandomPicksOnlyMembers() {
+		IndexedCellSet set = new IndexedCellSet(100);
+		for (int i = 0; i < 100; i += 10) {
+			set.add(i);
+		}
+		SplittableRandom random = new SplittableRandom(42);
+		for (int trial = 0; trial < 1000; trial++) {
+			assertEquals(0, set.getRandom(random) % 10);
+		}
+	}
+
+	@Test
+	public void testAddFoodUsesOpenCell() {
+		// G11: 4x4 interior, 2 snake cells, no food
+		SnakeProData myData = new SnakeProData(TestGame.G11);
+		int added = 0;
+		for (int i = 0; i < 11; i++) {
+			if (myData.addFood()) {
+				added++;
+			}
+		}
+		// 14 open cells, but we stop adding once fewer than 20% of
+		// the 36 cells are open
+		String board = myData.toString();
+		int food = board.length() - board.replace("X", "").length();
+		int open = board.length() - board.replace(" ", "").length();
+		assertEquals(7, food);
+		assertEquals(7, open);
+		assertEquals(7, added);
+	}
+}
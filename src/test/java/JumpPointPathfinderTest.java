@@ -0,0 +1,44 @@
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import Controller.AStarPathfinder;
+import Controller.JumpPointPathfinder;
+import Controller.SearchStats;
+import Model.BoardCell;
+import Model.GameConfig;
+import Model.SnakeProData;
+import org.junit.Test;
+
+/** (The checks against BFS are in ShortestPathPathfinderTest.) */
+public class JumpPointPathfinderTest {
+
+	@Test
+	public void testJumpsPastSparseBody() {
+		// short straight pieces of body scattered over a big board: A*
+		// goes cell by cell around each one, JPS from corner to corner
+		GameConfig config = new GameConfig();
+		config.setBoardSize(200, 200);
+		SnakeProData myData = new SnakeProData(config);
+		myData.placeSnakeAtStartLocation();
+		Random random = new Random(1);
+		for (int piece = 0; piece < 300; piece++) {
+			int row = 2 + random.nextInt(195);
+			int col = 2 + random.nextInt(190);
+			boolean across = random.nextBoolean();
+			for (int k = 0; k < 6; k++) {
+				BoardCell cell = across ? myData.getCell(row, col + k)
+						: myData.getCell(Math.min(197, row + k), col);
+				if (cell.isOpen()) {
+					cell.becomeBody();
+				}
+			}
+		}
+		myData.getCell(150, 120).becomeFood();
+		int[] next = new int[1];
+		SearchStats astar = ShortestPathPathfinderTest.search(new AStarPathfinder(), myData, next);
+		SearchStats jps = ShortestPathPathfinderTest.search(new JumpPointPathfinder(), myData, next);
+		assertEquals(astar.getLastPathLength(), jps.getLastPathLength());
+		assertTrue(jps.getCellsExpanded() * 2 < astar.getCellsExpanded());
+	}
+}
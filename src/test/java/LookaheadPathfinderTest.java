@@ -0,0 +1,129 @@
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import Controller.BFSPathfinder;
+import Controller.LookaheadPathfinder;
+import Controller.SearchStats;
+import Controller.TestGame;
+import Model.BoardCell;
+import Model.GameConfig;
+import Model.SnakeProData;
+import org.junit.Test;
+
+public class LookaheadPathfinderTest {
+
+	/** Moves the snake into the given cell, eating any food there. */
+	private void move(SnakeProData myData, int next) {
+		BoardCell cell = myData.getCell(next);
+		if (cell.isFood()) {
+			myData.eatFoodAndGrow(cell);
+		} else {
+			myData.moveSnake(cell);
+		}
+	}
+
+	@Test
+	public void testAvoidsPocket() {
+		SnakeProData myData = TestBoards.pocketBoard();
+		int head = myData.getSnakeHeadIndex();
+		assertEquals(myData.getIndex(5, 1),
+				new BFSPathfinder().findNextStep(myData, head, new SearchStats()));
+		SearchStats stats = new SearchStats();
+		assertEquals(myData.getIndex(3, 1),
+				new LookaheadPathfinder().findNextStep(myData, head, stats));
+		assertTrue(stats.getLastCellsExpanded() > 0);
+	}
+
+	@Test
+	public void testLeavesBoardAlone() {
+		SnakeProData myData = TestBoards.pocketBoard();
+		String before = myData.toString();
+		new LookaheadPathfinder().findNextStep(myData, myData.getSnakeHeadIndex(),
+				new SearchStats());
+		assertEquals(before, myData.toString());
+	}
+
+	@Test
+	public void testEatsNearbyFood() {
+		// G1: food right in front of the head
+		SnakeProData myData = new SnakeProData(TestGame.G1);
+		assertEquals(myData.getIndex(1, 3), new LookaheadPathfinder().findNextStep(
+				myData, myData.getSnakeHeadIndex(), new SearchStats()));
+	}
+
+	@Test
+	public void testSameAnswerOnOneThread() {
+		ForkJoinPool onePool = new ForkJoinPool(1);
+		ForkJoinPool fourPool = new ForkJoinPool(4);
+		try {
+			TestGame[] games = { TestGame.G1, TestGame.G5, TestGame.G6, TestGame.G10 };
+			for (TestGame game : games) {
+				SnakeProData myData = new SnakeProData(game);
+				int head = myData.getSnakeHeadIndex();
+				int depth = LookaheadPathfinder.DEFAULT_DEPTH;
+				assertEquals(game.toString(),
+						new LookaheadPathfinder(depth, fourPool).findNextStep(myData, head,
+								new SearchStats()),
+						new LookaheadPathfinder(depth, onePool).findNextStep(myData, head,
+								new SearchStats()));
+			}
+		} finally {
+			onePool.shutdown();
+			fourPool.shutdown();
+		}
+	}
+
+	@Test
+	public void testKeptCopiesCatchUp() {
+		// the same pathfinder, kept from move to move, answers as a new one would
+		GameConfig config = new GameConfig();
+		config.setBoardSize(10, 10);
+		SnakeProData myData = new SnakeProData(config, 5);
+		myData.placeSnakeAtStartLocation();
+		ForkJoinPool fourPool = new ForkJoinPool(4);
+		try {
+			LookaheadPathfinder kept = new LookaheadPathfinder(4, fourPool);
+			kept.prepare(myData);
+			for (int move = 0; move < 100; move++) {
+				if (myData.noFood()) {
+					myData.addFood();
+				}
+				int head = myData.getSnakeHeadIndex();
+				int next = kept.findNextStep(myData, head, new SearchStats());
+				assertEquals("move " + move, new LookaheadPathfinder(4, fourPool)
+						.findNextStep(myData, head, new SearchStats()), next);
+				if (next < 0) {
+					break;
+				}
+				this.move(myData, next);
+			}
+		} finally {
+			fourPool.shutdown();
+		}
+	}
+
+	@Test
+	public void testPlaysSafely() {
+		GameConfig config = new GameConfig();
+		config.setBoardSize(10, 10);
+		SnakeProData myData = new SnakeProData(config);
+		myData.placeSnakeAtStartLocation();
+		LookaheadPathfinder pathfinder = new LookaheadPathfinder(6, ForkJoinPool.commonPool());
+		SearchStats stats = new SearchStats();
+		for (int move = 0; move < 300 && myData.getSnakeLength() < 20; move++) {
+			if (myData.noFood()) {
+				myData.addFood();
+			}
+			int next = pathfinder.findNextStep(myData, myData.getSnakeHeadIndex(), stats);
+			assertTrue("stuck at length " + myData.getSnakeLength(), next >= 0);
+			this.move(myData, next);
+		}
+		assertEquals(20, myData.getSnakeLength());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBadDepth() {
+		new LookaheadPathfinder(0, ForkJoinPool.commonPool());
+	}
+}
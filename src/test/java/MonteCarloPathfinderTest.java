@@ -0,0 +1,81 @@
+import static org.junit.Assert.*;
+
+import java.util.concurrent.ForkJoinPool;
+
+import Controller.BFSPathfinder;
+import Controller.MonteCarloPathfinder;
+import Controller.SearchStats;
+import Controller.TestGame;
+import Model.GameConfig;
+import Model.SnakeProData;
+import org.junit.Test;
+
+public class MonteCarloPathfinderTest {
+
+	@Test
+	public void testAvoidsPocket() {
+		SnakeProData myData = TestBoards.pocketBoard();
+		int head = myData.getSnakeHeadIndex();
+		assertEquals(myData.getIndex(5, 1),
+				new BFSPathfinder().findNextStep(myData, head, new SearchStats()));
+		MonteCarloPathfinder pathfinder = new MonteCarloPathfinder();
+		pathfinder.setTimeBudget(150);
+		SearchStats stats = new SearchStats();
+		assertEquals(myData.getIndex(3, 1), pathfinder.findNextStep(myData, head, stats));
+		assertTrue(stats.getLastCellsExpanded() > 100);
+	}
+
+	@Test
+	public void testEatsNearbyFood() {
+		// G6: food right in front of the head
+		SnakeProData myData = new SnakeProData(TestGame.G6);
+		String before = myData.toString();
+		MonteCarloPathfinder pathfinder = new MonteCarloPathfinder(new ForkJoinPool(2));
+		pathfinder.setTimeBudget(60);
+		assertEquals(myData.getIndex(1, 3), pathfinder.findNextStep(
+				myData, myData.getSnakeHeadIndex(), new SearchStats()));
+		assertEquals(before, myData.toString());
+	}
+
+	@Test
+	public void testKeepsToBudget() {
+		SnakeProData myData = new SnakeProData();
+		myData.placeSnakeAtStartLocation();
+		myData.addFood();
+		MonteCarloPathfinder pathfinder = new MonteCarloPathfinder();
+		pathfinder.setTimeBudget(30);
+		assertEquals(30000000L, pathfinder.getBudgetNanos());
+		pathfinder.prepare(myData); // (as the game does when it starts)
+		pathfinder.findNextStep(myData, myData.getSnakeHeadIndex(), new SearchStats()); // warm up
+		long start = System.nanoTime();
+		int next = pathfinder.findNextStep(myData, myData.getSnakeHeadIndex(), new SearchStats());
+		long took = System.nanoTime() - start;
+		assertTrue(next >= 0);
+		assertTrue("took " + took + " ns", took < pathfinder.getBudgetNanos() * 3 / 2);
+	}
+
+	@Test
+	public void testKeepsToBudgetOnHugeBoard() {
+		// copying this board takes longer than the budget, so the copies
+		// have to be kept from one move to the next
+		GameConfig config = new GameConfig();
+		config.setBoardSize(600, 600);
+		SnakeProData myData = new SnakeProData(config, 3);
+		myData.placeSnakeAtStartLocation();
+		myData.addFood();
+		MonteCarloPathfinder pathfinder = new MonteCarloPathfinder();
+		pathfinder.setTimeBudget(20);
+		pathfinder.prepare(myData);
+		for (int move = 0; move < 5; move++) {
+			long start = System.nanoTime();
+			int next = pathfinder.findNextStep(myData, myData.getSnakeHeadIndex(),
+					new SearchStats());
+			long took = System.nanoTime() - start;
+			assertTrue(next >= 0);
+			if (move > 0) { // (the first one warms up)
+				assertTrue("took " + took + " ns", took < 2 * pathfinder.getBudgetNanos());
+			}
+			myData.moveSnake(myData.getCell(next));
+		}
+	}
+}
@@ -0,0 +1,57 @@
+import static org.junit.Assert.*;
+
+import Controller.BFSPathfinder;
+import Controller.MoveSafety;
+import Controller.SearchStats;
+import Model.GameConfig;
+import Model.SnakeProData;
+import org.junit.Test;
+
+public class MoveSafetyTest {
+
+	/**
+	 * @return a 7x8 board with the snake at its start location and food
+	 *         in a one-cell pocket just south of the head
+	 */
+	private SnakeProData pocketBoard() {
+		GameConfig config = new GameConfig();
+		config.setBoardSize(7, 8);
+		SnakeProData myData = new SnakeProData(config);
+		myData.placeSnakeAtStartLocation();
+		myData.getCell(2, 1).becomeBody();
+		myData.getCell(3, 2).becomeBody();
+		myData.getCell(2, 3).becomeBody();
+		myData.getCell(2, 2).becomeFood();
+		return myData;
+	}
+
+	@Test
+	public void testAvoidsPocket() {
+		SnakeProData myData = this.pocketBoard();
+		int head = myData.getSnakeHeadIndex();
+		int bfsMove = new BFSPathfinder().findNextStep(myData, head, new SearchStats());
+		assertEquals(myData.getIndex(2, 2), bfsMove);
+
+		MoveSafety safety = new MoveSafety();
+		assertFalse(safety.isSafe(myData, bfsMove));
+		assertTrue(safety.isSafe(myData, myData.getIndex(1, 3)));
+		assertEquals(myData.getIndex(1, 3), safety.chooseMove(myData, head, bfsMove));
+		assertEquals(1, safety.getMovesReplaced());
+	}
+
+	@Test
+	public void testFollowingTheTailIsSafe() {
+		SnakeProData myData = this.pocketBoard();
+		myData.getCell(2, 2).becomeOpen();
+		myData.getCell(2, 1).becomeOpen();
+		// [2, 2] leads on to [2, 1], next to the tail at [1, 1]
+		assertTrue(new MoveSafety().isSafe(myData, myData.getIndex(2, 2)));
+	}
+
+	@Test
+	public void testNoPathfinderMove() {
+		SnakeProData myData = this.pocketBoard();
+		int head = myData.getSnakeHeadIndex();
+		assertEquals(myData.getIndex(1, 3), new MoveSafety().chooseMove(myData, head, -1));
+	}
+}
@@ -0,0 +1,90 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import Model.CellType;
+import Model.OccupancyBitboard;
+import Model.PackedBoard;
+import Model.SnakeProData;
+import Controller.TestGame;
+import org.junit.Test;
+
+public class OccupancyBitboardTest {
+
+	/** Counts the open cells reachable from start, one cell at a time. */
+	private int slowReachableCount(PackedBoard board, int start) {
+		int width = board.getNumColumns();
+		boolean[] seen = new boolean[board.size()];
+		ArrayDeque<Integer> queue = new ArrayDeque<Integer>();
+		seen[start] = true;
+		queue.add(start);
+		int count = 0;
+		while (!queue.isEmpty()) {
+			int cell = queue.remove();
+			int row = board.rowOf(cell);
+			int column = board.columnOf(cell);
+			int[] neighbors = { row > 0 ? cell - width : -1,
+					row < board.getNumRows() - 1 ? cell + width : -1,
+					column < width - 1 ? cell + 1 : -1,
+					column > 0 ? cell - 1 : -1 };
+			for (int neighbor : neighbors) {
+				if (neighbor >= 0 && !seen[neighbor] && board.isOpen(neighbor)) {
+					seen[neighbor] = true;
+					count++;
+					queue.add(neighbor);
+				}
+			}
+		}
+		return count;
+	}
+
+	@Test
+	public void testTestBoard() {
+		// G13: snake splits nothing, 16 interior cells - 3 snake cells
+		SnakeProData myData = new SnakeProData(TestGame.G13);
+		assertEquals(13, myData.countCellsReachableFromHead());
+	}
+
+	@Test
+	public void testStaysInSync() {
+		PackedBoard board = new PackedBoard(5, 70);
+		OccupancyBitboard bits = new OccupancyBitboard(board);
+		int cell = board.indexOf(2, 66);
+		assertFalse(bits.isBlocked(cell));
+		board.setType(cell, CellType.BODY);
+		assertTrue(bits.isBlocked(cell));
+		board.setType(cell, CellType.FOOD);
+		assertFalse(bits.isBlocked(cell));
+		assertTrue(bits.isFood(cell));
+		board.setType(cell, CellType.OPEN);
+		assertFalse(bits.isFood(cell));
+	}
+
+	@Test
+	public void testMatchesCellByCellSearch() {
+		Random random = new Random(60);
+		int[][] sizes = { { 7, 9 }, { 20, 64 }, { 33, 65 }, { 40, 150 } };
+		for (int[] size : sizes) {
+			for (int trial = 0; trial < 20; trial++) {
+				PackedBoard board = new PackedBoard(size[0], size[1]);
+				OccupancyBitboard bits = new OccupancyBitboard(board);
+				double density = 0.2 + 0.3 * random.nextDouble();
+				for (int cell = 0; cell < board.size(); cell++) {
+					if (random.nextDouble() < density) {
+						board.setType(cell, random.nextBoolean() ? CellType.WALL
+								: CellType.BODY);
+					} else if (random.nextDouble() < 0.05) {
+						board.setType(cell, CellType.FOOD);
+					}
+				}
+				int start = random.nextInt(board.size());
+				board.setType(start, CellType.HEAD);
+				long[] reached = new long[bits.getNumWords()];
+				assertEquals(slowReachableCount(board, start),
+						bits.floodFill(start, reached));
+				assertTrue(bits.contains(reached, start));
+			}
+		}
+	}
+}
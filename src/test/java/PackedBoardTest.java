@@ -0,0 +1,123 @@
+import static org.junit.Assert.*;
+
+import Model.BoardCell;
+import Model.CellType;
+import Model.Direction;
+import Model.NeighborVisitor;
+import Model.PackedBoard;
+import Model.Preferences;
+import Model.SnakeProData;
+import Controller.TestGame;
+import org.junit.Test;
+
+public class PackedBoardTest {
+
+	@Test
+	public void testIndexing() {
+		PackedBoard board = new PackedBoard(6, 8);
+		assertEquals(48, board.size());
+		int index = board.indexOf(3, 5);
+		assertEquals(29, index);
+		assertEquals(3, board.rowOf(index));
+		assertEquals(5, board.columnOf(index));
+	}
+
+	@Test
+	public void testViewsAreShared() {
+		PackedBoard board = new PackedBoard(6, 8);
+		BoardCell view = board.getView(board.indexOf(2, 4));
+		assertTrue(view == board.getView(board.indexOf(2, 4)));
+		assertEquals("[2, 4,  ]", view.toString());
+	}
+
+	@Test
+	public void testViewWritesThroughToBoard() {
+		PackedBoard board = new PackedBoard(6, 8);
+		int index = board.indexOf(1, 1);
+		board.getView(index).becomeFood();
+		assertEquals(CellType.FOOD, board.getType(index));
+		assertTrue(board.isFood(index));
+		assertTrue(board.isOpen(index));
+		board.setType(index, CellType.BODY);
+		assertTrue(board.getView(index).isBody());
+		assertEquals(Preferences.COLOR_BODY, board.getCellColor(index));
+	}
+
+	@Test
+	public void testSearchState() {
+		PackedBoard board = new PackedBoard(6, 8);
+		BoardCell cell = board.getView(board.indexOf(2, 2));
+		BoardCell parent = board.getView(board.indexOf(2, 1));
+		cell.setAddedToSearchList();
+		cell.setParent(parent);
+		assertTrue(cell.inSearchListAlready());
+		assertTrue(parent == cell.getParent());
+		board.clearSearch();
+		assertFalse(cell.inSearchListAlready());
+		assertNull(cell.getParent());
+	}
+
+	@Test
+	public void testNewSearchForgetsOldParents() {
+		PackedBoard board = new PackedBoard(6, 8);
+		BoardCell cell = board.getView(board.indexOf(2, 2));
+		cell.setParent(board.getView(board.indexOf(2, 1)));
+		assertTrue(cell.inSearchListAlready());
+		board.clearSearch();
+		cell.setAddedToSearchList();
+		assertNull(cell.getParent());
+		cell.clear_RestartSearch();
+		assertFalse(cell.inSearchListAlready());
+	}
+
+	@Test
+	public void testWallMasks() {
+		PackedBoard board = new PackedBoard(6, 8);
+		int corner = board.indexOf(0, 0);
+		assertEquals(Direction.bit(Direction.NORTH) | Direction.bit(Direction.WEST),
+				board.getWallMask(corner));
+		int middle = board.indexOf(2, 3);
+		assertEquals(0, board.getWallMask(middle));
+		board.setType(board.indexOf(1, 3), CellType.WALL);
+		board.setType(board.indexOf(2, 4), CellType.WALL);
+		assertEquals(Direction.bit(Direction.NORTH) | Direction.bit(Direction.EAST),
+				board.getWallMask(middle));
+		board.setType(board.indexOf(1, 3), CellType.OPEN);
+		assertEquals(Direction.bit(Direction.EAST), board.getWallMask(middle));
+	}
+
+	@Test
+	public void testForEachNeighbor() {
+		SnakeProData myData = new SnakeProData(TestGame.G1);
+		final StringBuilder visited = new StringBuilder();
+		NeighborVisitor visitor = new NeighborVisitor() {
+			public void visitNeighbor(int neighborIndex, int direction) {
+				visited.append(direction).append(myData.getCell(neighborIndex));
+			}
+		};
+		// (1, 1) has walls to the north and west
+		myData.forEachNeighbor(myData.getIndex(1, 1), visitor);
+		assertEquals("1[2, 1,  ]2[1, 2, H]", visited.toString());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetCellOutsideBoard() {
+		new SnakeProData(TestGame.G1).getCell(6, 0);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testNeighborOutsideBoard() {
+		SnakeProData myData = new SnakeProData(TestGame.G1);
+		myData.getNorthNeighbor(myData.getCell(0, 3));
+	}
+
+	@Test
+	public void testSnakeProDataColors() {
+		SnakeProData myData = new SnakeProData(TestGame.G1);
+		assertEquals(Preferences.COLOR_WALL, myData.getCellColor(0, 0));
+		assertEquals(Preferences.COLOR_BODY, myData.getCellColor(1, 1));
+		assertEquals(Preferences.COLOR_HEAD, myData.getCellColor(1, 2));
+		assertEquals(Preferences.COLOR_FOOD, myData.getCellColor(1, 3));
+		assertEquals(Preferences.COLOR_OPEN, myData.getCellColor(2, 2));
+	}
+}
@@ -0,0 +1,89 @@
+import static org.junit.Assert.*;
+
+import Controller.PathfinderRegistry;
+import Controller.Pathfinder;
+import Controller.SearchStats;
+import Controller.SnakeProBrain;
+import Controller.TestGame;
+import Model.GameConfig;
+import Model.SnakeProData;
+import org.junit.Test;
+
+public class PathfinderRegistryTest {
+
+	@Test
+	public void testBuiltIns() {
+		assertTrue(PathfinderRegistry.getNames().contains("bfs"));
+		assertTrue(PathfinderRegistry.getNames().contains("distance-field"));
+		assertEquals("bfs", PathfinderRegistry.create("bfs").getName());
+		assertEquals("bfs", new SnakeProBrain(new GameConfig()).getPathfinder().getName());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownName() {
+		PathfinderRegistry.create("teleport");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownNameInConfig() {
+		GameConfig config = new GameConfig();
+		config.setPathfinder("teleport");
+		new SnakeProBrain(config);
+	}
+
+	@Test
+	public void testCycling() {
+		String first = PathfinderRegistry.getNames().get(0);
+		String name = first;
+		for (int i = 0; i < PathfinderRegistry.getNames().size(); i++) {
+			name = PathfinderRegistry.getNextName(name);
+		}
+		assertEquals(first, name);
+	}
+
+	@Test
+	public void testShortestPathsAgreeOnDistance() {
+		TestGame[] games = { TestGame.G1, TestGame.G2, TestGame.G3, TestGame.G4,
+				TestGame.G5, TestGame.G6, TestGame.G7, TestGame.G8, TestGame.G9,
+				TestGame.G10, TestGame.G11 };
+		for (TestGame game : games) {
+			SnakeProData myData = new SnakeProData(game);
+			int head = myData.getSnakeHeadIndex();
+			Integer pathLength = null;
+			String[] shortestPathNames = { "bfs", "distance-field", "astar", "jps",
+					"bidirectional" };
+			for (String name : shortestPathNames) {
+				Pathfinder pathfinder = PathfinderRegistry.create(name);
+				SearchStats stats = new SearchStats();
+				stats.startSearch();
+				int next = pathfinder.findNextStep(myData, head, stats);
+				stats.endSearch(next);
+				if (next < 0) {
+					assertEquals(name + " " + game, 1, stats.getFailures());
+				} else {
+					assertTrue(name + " " + game, myData.isOpen(next));
+				}
+				if (pathLength == null) {
+					pathLength = stats.getLastPathLength();
+				}
+				assertEquals(name + " " + game, pathLength.intValue(),
+						stats.getLastPathLength());
+			}
+		}
+	}
+
+	@Test
+	public void testBrainUsesPathfinder() {
+		GameConfig config = new GameConfig();
+		config.setPathfinder("distance-field");
+		SnakeProBrain brain = new SnakeProBrain(config);
+		assertEquals("distance-field", brain.getPathfinder().getName());
+		brain.setPathfinder(PathfinderRegistry.create("bfs"));
+		assertEquals(0, brain.getSearchStats().getSearches());
+
+		brain = SnakeProBrain.getTestGame(TestGame.G5);
+		assertEquals("[2, 2,  ]", brain.getNextCellFromPathfinder().toString());
+		assertEquals(1, brain.getSearchStats().getSearches());
+		assertEquals(4, brain.getSearchStats().getLastPathLength());
+	}
+}
@@ -0,0 +1,158 @@
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+import Controller.AStarPathfinder;
+import Controller.BFSPathfinder;
+import Controller.BidirectionalPathfinder;
+import Controller.DistanceFieldPathfinder;
+import Controller.JumpPointPathfinder;
+import Controller.Pathfinder;
+import Controller.PathfinderRegistry;
+import Controller.SearchStats;
+import Controller.TestGame;
+import Model.GameConfig;
+import Model.SnakeProData;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/** Checks that every shortest-path pathfinder agrees with BFS. */
+@RunWith(Parameterized.class)
+public class ShortestPathPathfinderTest {
+
+	@Parameters(name = "{0}")
+	public static Collection<Object[]> pathfinders() {
+		return Arrays.asList(new Object[][] {
+			{ DistanceFieldPathfinder.NAME, false },
+			{ AStarPathfinder.NAME, true },
+			{ JumpPointPathfinder.NAME, true },
+			{ BidirectionalPathfinder.NAME, false },
+		});
+	}
+
+	/** the name of the pathfinder being tested */
+	private final String name;
+
+	/** Does it head straight for the food, expanding far fewer cells than BFS? */
+	private final boolean headsForFood;
+
+	public ShortestPathPathfinderTest(String inputName, boolean inputHeadsForFood) {
+		this.name = inputName;
+		this.headsForFood = inputHeadsForFood;
+	}
+
+	/** @return a started search, with the result of asking the pathfinder */
+	static SearchStats search(Pathfinder pathfinder, SnakeProData myData, int[] next) {
+		SearchStats stats = new SearchStats();
+		stats.startSearch();
+		next[0] = pathfinder.findNextStep(myData, myData.getSnakeHeadIndex(), stats);
+		stats.endSearch(next[0]);
+		return stats;
+	}
+
+	/**
+	 * @return a board of random size, with the snake at its start, a
+	 *         random scattering of body cells, and some food (if there's
+	 *         room for it)
+	 */
+	static SnakeProData randomBoard(Random random, int trial) {
+		GameConfig config = new GameConfig();
+		config.setBoardSize(5 + random.nextInt(30), 5 + random.nextInt(30));
+		SnakeProData myData = new SnakeProData(config);
+		myData.placeSnakeAtStartLocation();
+		int density = 2 + random.nextInt(8);
+		for (int index = 0; index < myData.getNumCells(); index++) {
+			if (myData.getCell(index).isOpen() && random.nextInt(density) == 0) {
+				myData.getCell(index).becomeBody();
+			}
+		}
+		int numFood = trial % 4 == 0 ? 20 : trial % 4 == 2 ? 3 : 1;
+		for (int i = 0; i < 10 * numFood && myData.getNumFood() < numFood; i++) {
+			int cell = random.nextInt(myData.getNumCells());
+			if (myData.getCell(cell).isOpen()) {
+				myData.getCell(cell).becomeFood();
+			}
+		}
+		return myData;
+	}
+
+	@Test
+	public void testTestBoards() {
+		TestGame[] games = { TestGame.G1, TestGame.G2, TestGame.G3, TestGame.G4,
+				TestGame.G5, TestGame.G6, TestGame.G7, TestGame.G8, TestGame.G9,
+				TestGame.G10 };
+		int[] next = new int[1];
+		for (TestGame game : games) {
+			SnakeProData myData = new SnakeProData(game);
+			int bfsLength = search(new BFSPathfinder(), myData, next).getLastPathLength();
+			SearchStats stats = search(PathfinderRegistry.create(this.name), myData, next);
+			assertEquals(this.name + " " + game, bfsLength, stats.getLastPathLength());
+			// the first step is one move closer to food
+			assertEquals(this.name + " " + game, bfsLength - 1,
+					myData.getFoodDistances().getDistance(next[0]));
+		}
+	}
+
+	@Test
+	public void testNoFood() {
+		int[] next = new int[1];
+		search(PathfinderRegistry.create(this.name), new SnakeProData(TestGame.G11), next);
+		assertEquals(this.name, -1, next[0]);
+	}
+
+	@Test
+	public void testRandomBoards() {
+		Random random = new Random(11);
+		Pathfinder pathfinder = PathfinderRegistry.create(this.name);
+		BFSPathfinder bfs = new BFSPathfinder();
+		int[] next = new int[1];
+		for (int trial = 0; trial < 200; trial++) {
+			SnakeProData myData = randomBoard(random, trial);
+			int bfsLength = search(bfs, myData, next).getLastPathLength();
+			int bfsNext = next[0];
+			SearchStats stats = search(pathfinder, myData, next);
+			String message = this.name + " trial " + trial;
+			assertEquals(message, bfsNext < 0, next[0] < 0);
+			if (next[0] >= 0) {
+				assertEquals(message, bfsLength, stats.getLastPathLength());
+				assertEquals(message, bfsLength - 1,
+						myData.getFoodDistances().getDistance(next[0]));
+			}
+		}
+	}
+
+	@Test
+	public void testExpandsFewerCells() {
+		if (!this.headsForFood) {
+			return;
+		}
+		GameConfig config = new GameConfig();
+		config.setBoardSize(200, 200);
+		SnakeProData myData = new SnakeProData(config);
+		myData.placeSnakeAtStartLocation();
+		myData.getCell(150, 120).becomeFood();
+		int[] next = new int[1];
+		SearchStats bfs = search(new BFSPathfinder(), myData, next);
+		SearchStats stats = search(PathfinderRegistry.create(this.name), myData, next);
+		assertEquals(this.name, bfs.getLastPathLength(), stats.getLastPathLength());
+		assertTrue(this.name, stats.getCellsExpanded() * 10 < bfs.getCellsExpanded());
+	}
+
+	@Test
+	public void testFoodShutIn() {
+		GameConfig config = new GameConfig();
+		config.setBoardSize(8, 8);
+		SnakeProData myData = new SnakeProData(config);
+		myData.placeSnakeAtStartLocation();
+		myData.getCell(5, 6).becomeBody();
+		myData.getCell(6, 5).becomeBody();
+		myData.getCell(6, 6).becomeFood();
+		int[] next = new int[1];
+		search(PathfinderRegistry.create(this.name), myData, next);
+		assertEquals(this.name, -1, next[0]);
+	}
+}
@@ -0,0 +1,99 @@
+import static org.junit.Assert.*;
+
+import Model.SnakeBody;
+import org.junit.Test;
+
+public class SnakeBodyTest {
+
+	private SnakeBody makeSnake(int length) {
+		SnakeBody snake = new SnakeBody(2);
+		for (int i = 0; i < length; i++) {
+			snake.addHead(i);
+		}
+		return snake;
+	}
+
+	@Test
+	public void testHeadNeckTail() {
+		SnakeBody snake = makeSnake(5);
+		assertEquals(5, snake.size());
+		assertEquals(4, snake.getHead());
+		assertEquals(3, snake.getNeck());
+		assertEquals(0, snake.getTail());
+		assertEquals("[0, 1, 2, 3, 4]", snake.toString());
+	}
+
+	@Test
+	public void testSlide() {
+		SnakeBody snake = makeSnake(3);
+		for (int i = 3; i < 100; i++) {
+			assertEquals(i - 3, snake.slide(i));
+		}
+		assertEquals(3, snake.size());
+		assertEquals("[97, 98, 99]", snake.toString());
+	}
+
+	@Test
+	public void testReverse() {
+		SnakeBody snake = makeSnake(4);
+		snake.reverse();
+		assertEquals(0, snake.getHead());
+		assertEquals(1, snake.getNeck());
+		assertEquals(3, snake.getTail());
+		assertEquals(3, snake.slide(10));
+		assertEquals("[2, 1, 0, 10]", snake.toString());
+	}
+
+	@Test
+	public void testGrowWhileReversed() {
+		SnakeBody snake = makeSnake(3);
+		snake.reverse();
+		for (int i = 10; i < 40; i++) {
+			snake.addHead(i);
+		}
+		assertEquals(33, snake.size());
+		assertEquals(2, snake.getTail());
+		assertEquals(39, snake.getHead());
+		snake.reverse();
+		assertEquals(39, snake.getTail());
+		assertEquals(2, snake.getHead());
+		assertEquals(1, snake.getNeck());
+	}
+
+	@Test
+	public void testUndoSlide() {
+		for (boolean reversed : new boolean[] { false, true }) {
+			SnakeBody snake = makeSnake(2);
+			if (reversed) {
+				snake.reverse();
+			}
+			String before = snake.toString();
+			int[] tails = new int[40];
+			for (int i = 0; i < 40; i++) {
+				tails[i] = snake.slide(100 + i);
+				snake.addHead(200 + i);
+			}
+			for (int i = 39; i >= 0; i--) {
+				assertEquals(200 + i, snake.removeHead());
+				assertEquals(100 + i, snake.removeHead());
+				snake.addTail(tails[i]);
+			}
+			assertEquals(before, snake.toString());
+		}
+	}
+
+	@Test
+	public void testCopy() {
+		SnakeBody snake = makeSnake(3);
+		snake.reverse();
+		SnakeBody copy = new SnakeBody(snake);
+		snake.slide(7);
+		assertEquals("[2, 1, 0]", copy.toString());
+		assertEquals("[1, 0, 7]", snake.toString());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testNeckOfOneCellSnake() {
+		makeSnake(1).getNeck();
+	}
+}
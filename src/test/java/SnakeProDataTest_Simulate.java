@@ -0,0 +1,133 @@
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import Controller.TestGame;
+import Model.ComponentLabels;
+import Model.Direction;
+import Model.PackedBoard;
+import Model.SnakeProData;
+import org.junit.Test;
+
+public class SnakeProDataTest_Simulate {
+
+	@Test
+	public void testCopyIsSeparate() {
+		SnakeProData myData = new SnakeProData(TestGame.G6);
+		SnakeProData copy = myData.copy();
+		assertEquals(myData.toString(), copy.toString());
+		copy.simulateMove(copy.getIndex(1, 3));
+		assertEquals(new SnakeProData(TestGame.G6).toString(), myData.toString());
+		assertEquals(myData.getSnakeLength() + 1, copy.getSnakeLength());
+		assertEquals(myData.getNumFood() - 1, copy.getNumFood());
+		assertEquals(copy.getIndex(1, 3), copy.getSnakeHeadIndex());
+	}
+
+	@Test
+	public void testUndoEating() {
+		SnakeProData myData = new SnakeProData(TestGame.G6);
+		String before = myData.toString();
+		int undo = myData.simulateMove(myData.getIndex(1, 3));
+		myData.undoMove(undo);
+		assertEquals(before, myData.toString());
+		assertFalse(myData.noFood());
+	}
+
+	@Test
+	public void testRandomMovesUndone() {
+		Random random = new Random(16);
+		SnakeProData myData = new SnakeProData(TestGame.G5);
+		// the distance field and region labels follow along
+		myData.getFoodDistances();
+		myData.getComponentLabels();
+		String before = myData.toString();
+		int[] undo = new int[30];
+		int made = 0;
+		while (made < undo.length) {
+			int head = myData.getSnakeHeadIndex();
+			int next = myData.getNeighborIndex(head, random.nextInt(Direction.COUNT));
+			if (!myData.isOpen(next)) {
+				if (!this.canMove(myData)) {
+					break;
+				}
+				continue;
+			}
+			undo[made++] = myData.simulateMove(next);
+		}
+		assertTrue(made > 3);
+		SnakeProData fresh = myData.copy();
+		for (int index = 0; index < myData.getNumCells(); index++) {
+			assertEquals(fresh.getFoodDistances().getDistance(index),
+					myData.getFoodDistances().getDistance(index));
+		}
+		while (made > 0) {
+			myData.undoMove(undo[--made]);
+		}
+		assertEquals(before, myData.toString());
+		fresh = myData.copy();
+		for (int index = 0; index < myData.getNumCells(); index++) {
+			assertEquals(fresh.getFoodDistances().getDistance(index),
+					myData.getFoodDistances().getDistance(index));
+			if (myData.isOpen(index)) {
+				ComponentLabels labels = myData.getComponentLabels();
+				assertEquals(fresh.getComponentLabels().getSize(
+						fresh.getComponentLabels().getLabel(index)),
+						labels.getSize(labels.getLabel(index)));
+			}
+		}
+	}
+
+	@Test
+	public void testCopyCatchesUp() {
+		Random random = new Random(3);
+		SnakeProData myData = new SnakeProData(TestGame.G5);
+		SnakeProData copy = myData.copy();
+		copy.getFoodDistances();
+		copy.getComponentLabels();
+		for (int moves = 0; moves < 6 && this.canMove(myData); ) {
+			int next = myData.getNeighborIndex(myData.getSnakeHeadIndex(),
+					random.nextInt(Direction.COUNT));
+			if (myData.isOpen(next)) {
+				myData.simulateMove(next);
+				moves++;
+			}
+		}
+		assertTrue(copy.canCatchUp(myData));
+		assertFalse(copy.canCatchUp(new SnakeProData(TestGame.G5)));
+		assertTrue(copy.catchUp(myData));
+		assertEquals(myData.toString(), copy.toString());
+		assertEquals(myData.getSnakeHeadIndex(), copy.getSnakeHeadIndex());
+		SnakeProData fresh = myData.copy();
+		assertEquals(fresh.countCellsReachableFromHead(), copy.countCellsReachableFromHead());
+		for (int index = 0; index < myData.getNumCells(); index++) {
+			assertEquals(fresh.getFoodDistances().getDistance(index),
+					copy.getFoodDistances().getDistance(index));
+		}
+
+		// too many changes since to catch up with
+		long since = myData.getChangeCount();
+		while (myData.getChangeCount() - since <= PackedBoard.CHANGE_LOG) {
+			int head = myData.getSnakeHeadIndex();
+			for (int direction = 0; direction < Direction.COUNT; direction++) {
+				int next = myData.getOpenNeighbor(head, direction);
+				if (next >= 0) {
+					myData.undoMove(myData.simulateMove(next));
+					break;
+				}
+			}
+		}
+		assertFalse(copy.canCatchUp(myData));
+		assertFalse(copy.catchUp(myData));
+	}
+
+	/** @return Does the head have anywhere to go? */
+	private boolean canMove(SnakeProData myData) {
+		int head = myData.getSnakeHeadIndex();
+		for (int direction = 0; direction < Direction.COUNT; direction++) {
+			if (myData.isOpen(myData.getNeighborIndex(head, direction))) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
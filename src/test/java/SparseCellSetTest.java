@@ -0,0 +1,75 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import Model.SparseCellSet;
+import org.junit.Test;
+
+public class SparseCellSetTest {
+
+	@Test
+	public void testAddRemoveContains() {
+		SparseCellSet set = new SparseCellSet();
+		set.add(3);
+		set.add(700000);
+		set.add(3);
+		assertEquals(2, set.size());
+		assertTrue(set.contains(3));
+		assertTrue(set.contains(700000));
+		assertFalse(set.contains(5));
+		set.remove(3);
+		set.remove(5);
+		assertEquals(1, set.size());
+		assertFalse(set.contains(3));
+		assertEquals(700000, set.get(0));
+	}
+
+	@Test
+	public void testMatchesAList() {
+		// lots of cells, added and removed in random order, so the set
+		// grows and its hash table has long runs to remove from
+		Random random = new Random(1);
+		SparseCellSet set = new SparseCellSet();
+		List<Integer> expected = new ArrayList<Integer>();
+		for (int trial = 0; trial < 20000; trial++) {
+			int cell = random.nextInt(trial < 10000 ? 5000 : 300);
+			if (random.nextInt(3) == 0) {
+				set.remove(cell);
+				expected.remove(Integer.valueOf(cell));
+			} else {
+				set.add(cell);
+				if (!expected.contains(cell)) {
+					expected.add(cell);
+				}
+			}
+			assertEquals(expected.size(), set.size());
+		}
+		for (int cell = 0; cell < 5000; cell++) {
+			assertEquals(expected.contains(cell), set.contains(cell));
+		}
+		for (int k = 0; k < set.size(); k++) {
+			assertTrue(expected.contains(set.get(k)));
+		}
+	}
+
+	@Test
+	public void testCopyIsSeparate() {
+		SparseCellSet set = new SparseCellSet();
+		for (int cell = 0; cell < 100; cell += 10) {
+			set.add(cell);
+		}
+		SparseCellSet copy = new SparseCellSet(set);
+		copy.remove(50);
+		copy.add(55);
+		assertTrue(set.contains(50));
+		assertFalse(set.contains(55));
+		assertEquals(10, copy.size());
+		SplittableRandom random = new SplittableRandom(42);
+		for (int trial = 0; trial < 1000; trial++) {
+			assertEquals(0, set.getRandom(random) % 10);
+		}
+	}
+}
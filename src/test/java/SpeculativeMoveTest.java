@@ -0,0 +1,83 @@
+import static org.junit.Assert.*;
+
+import Controller.BFSPathfinder;
+import Controller.GameEngine;
+import Controller.Pathfinder;
+import Controller.SearchStats;
+import Controller.SpeculativeMove;
+import Controller.TestGame;
+import Model.GameConfig;
+import Model.SnakeProData;
+import org.junit.Test;
+
+public class SpeculativeMoveTest {
+
+	@Test
+	public void testGuessUsedWhenNothingChanged() {
+		SnakeProData myData = new SnakeProData(TestGame.G5);
+		Pathfinder pathfinder = new BFSPathfinder();
+		SearchStats stats = new SearchStats();
+		SpeculativeMove speculation = new SpeculativeMove();
+		speculation.start(myData, pathfinder, stats);
+		int expected = new BFSPathfinder().findNextStep(myData,
+				myData.getSnakeHeadIndex(), new SearchStats());
+		assertEquals(expected, speculation.take(myData, pathfinder));
+		assertEquals(1, stats.getSearches());
+		assertEquals(1, speculation.getUsed());
+
+		// a guess is only handed over once
+		assertEquals(SpeculativeMove.NO_GUESS, speculation.take(myData, pathfinder));
+	}
+
+	@Test
+	public void testGuessThrownAwayWhenBoardChanges() {
+		SnakeProData myData = new SnakeProData(TestGame.G5);
+		Pathfinder pathfinder = new BFSPathfinder();
+		SpeculativeMove speculation = new SpeculativeMove();
+		speculation.start(myData, pathfinder, new SearchStats());
+		speculation.finish();
+		myData.addFood();
+		assertEquals(SpeculativeMove.NO_GUESS, speculation.take(myData, pathfinder));
+		assertEquals(0, speculation.getUsed());
+		assertEquals(1, speculation.getWasted());
+	}
+
+	@Test
+	public void testGuessThrownAwayForOtherPathfinder() {
+		SnakeProData myData = new SnakeProData(TestGame.G5);
+		SpeculativeMove speculation = new SpeculativeMove();
+		speculation.start(myData, new BFSPathfinder(), new SearchStats());
+		assertEquals(SpeculativeMove.NO_GUESS, speculation.take(myData, new BFSPathfinder()));
+		assertEquals(1, speculation.getWasted());
+	}
+
+	@Test
+	public void testEngineUsesGuess() {
+		GameEngine engine = new GameEngine(new GameConfig());
+		engine.startGame(new SnakeProData(TestGame.G5));
+		engine.setPathfinder(new BFSPathfinder());
+		engine.getData().setMode_AI();
+		engine.speculate();
+		engine.updateSnake();
+		assertEquals(1, engine.getSpeculation().getUsed());
+		assertEquals(1, engine.getSearchStats().getSearches());
+
+		// the board has changed since, so a new search is needed
+		engine.speculate();
+		engine.reverseSnake();
+		engine.updateSnake();
+		assertEquals(1, engine.getSpeculation().getUsed());
+		assertEquals(1, engine.getSpeculation().getWasted());
+		assertEquals(3, engine.getSearchStats().getSearches());
+	}
+
+	@Test
+	public void testEngineNoGuessInManualMode() {
+		GameEngine engine = new GameEngine(new GameConfig());
+		engine.startGame(new SnakeProData(TestGame.G5));
+		engine.speculate();
+		engine.updateSnake();
+		assertEquals(0, engine.getSpeculation().getUsed());
+		assertEquals(0, engine.getSearchStats().getSearches());
+	}
+}
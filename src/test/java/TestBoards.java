@@ -0,0 +1,27 @@
+import Model.GameConfig;
+import Model.SnakeProData;
+
+/** Boards shared by several tests (the small ones are in Controller.TestGame). */
+public class TestBoards {
+
+	/**
+	 * @return a 10x10 board with a snake of length 6 whose head is at
+	 *         [4, 1], just above a four-cell pocket with food at the bottom
+	 */
+	static SnakeProData pocketBoard() {
+		GameConfig config = new GameConfig();
+		config.setBoardSize(10, 10);
+		SnakeProData myData = new SnakeProData(config);
+		myData.placeSnakeAtStartLocation();
+		int[][] body = { { 2, 2 }, { 3, 2 }, { 4, 2 }, { 4, 1 } };
+		for (int[] cell : body) {
+			myData.getCell(cell[0], cell[1]).becomeFood();
+			myData.eatFoodAndGrow(myData.getCell(cell[0], cell[1]));
+		}
+		for (int r = 5; r <= 8; r++) {
+			myData.getCell(r, 2).becomeBody();
+		}
+		myData.getCell(8, 1).becomeFood();
+		return myData;
+	}
+}
@@ -0,0 +1,98 @@
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import Controller.TickScheduler;
+import org.junit.Test;
+
+public class TickSchedulerTest {
+
+	/** one millisecond, in nanoseconds */
+	private static final long MS = 1000000L;
+
+	@Test
+	public void testSteadyTicks() {
+		TickScheduler scheduler = new TickScheduler(() -> { }, 10);
+		scheduler.resetClock(0);
+		assertEquals(0, scheduler.ticksDue(9 * MS));
+		assertEquals(1, scheduler.ticksDue(10 * MS));
+		// a late tick doesn't push the next one back
+		assertEquals(1, scheduler.ticksDue(23 * MS));
+		assertEquals(3 * MS, scheduler.getMaxLateNanos());
+		assertEquals(1, scheduler.ticksDue(30 * MS));
+		assertEquals(0, scheduler.getDroppedTicks());
+	}
+
+	@Test
+	public void testBoundedCatchUp() {
+		TickScheduler scheduler = new TickScheduler(() -> { }, 10);
+		scheduler.resetClock(0);
+		assertEquals(TickScheduler.MAX_CATCH_UP, scheduler.ticksDue(205 * MS));
+		assertEquals(20 - TickScheduler.MAX_CATCH_UP, scheduler.getDroppedTicks());
+		assertEquals(195 * MS, scheduler.getMaxLateNanos());
+		// then back on schedule
+		assertEquals(0, scheduler.ticksDue(209 * MS));
+		assertEquals(1, scheduler.ticksDue(210 * MS));
+	}
+
+	@Test
+	public void testSpeedMultiplier() {
+		TickScheduler scheduler = new TickScheduler(() -> { }, 10);
+		scheduler.setSpeed(2.5);
+		scheduler.resetClock(0);
+		assertEquals(1, scheduler.ticksDue(4 * MS));
+		assertEquals(0, scheduler.ticksDue(7 * MS));
+		assertEquals(1, scheduler.ticksDue(8 * MS));
+	}
+
+	@Test(timeout = 10000)
+	public void testUnthrottledUntilStopped() throws InterruptedException {
+		AtomicInteger count = new AtomicInteger();
+		TickScheduler[] holder = new TickScheduler[1];
+		holder[0] = new TickScheduler(() -> {
+			if (count.incrementAndGet() == 1000) {
+				holder[0].stop();
+			}
+		}, 1000);
+		holder[0].setUnthrottled(true);
+		holder[0].run(); // a second a tick, if it were throttled
+		assertEquals(1000, count.get());
+		assertEquals(1000, holder[0].getTicks());
+	}
+
+	@Test(timeout = 10000)
+	public void testStepWhilePaused() throws InterruptedException {
+		AtomicInteger count = new AtomicInteger();
+		TickScheduler scheduler = new TickScheduler(count::incrementAndGet, 1000);
+		scheduler.pause();
+		Thread loop = new Thread(scheduler);
+		loop.start();
+		scheduler.step();
+		scheduler.step();
+		while (scheduler.getTicks() < 2) {
+			Thread.sleep(1);
+		}
+		Thread.sleep(50);
+		assertEquals(2, count.get());
+		assertTrue(scheduler.isPaused());
+		scheduler.stop();
+		loop.join();
+	}
+
+	@Test(timeout = 10000)
+	public void testCountsOverruns() throws InterruptedException {
+		TickScheduler[] holder = new TickScheduler[1];
+		holder[0] = new TickScheduler(() -> {
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+			}
+			if (holder[0].getTicks() == 2) {
+				holder[0].stop();
+			}
+		}, 1);
+		holder[0].run();
+		assertEquals(3, holder[0].getTicks());
+		assertEquals(3, holder[0].getOverruns());
+	}
+}